@@ -0,0 +1,23 @@
+package club.freecity.cms.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * 读者端条件请求注解
+ * 按租户内容版本生成 ETag / Last-Modified，客户端缓存未过期时在执行控制器前直接返回 304
+ * 304 不执行控制器方法，方法上的 @RateLimit 同样不生效：限流保护的是查询本身，304 只比较内容版本
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ConditionalGet {
+    /**
+     * Cache-Control 策略名，对应配置 app.http-cache.cache-control.{策略名}
+     */
+    String value() default "default";
+
+    /**
+     * 文章 ID 所在的路径变量名，非空时返回 304 仍累计该文章阅读量（文章详情页）
+     */
+    String viewedArticle() default "";
+}
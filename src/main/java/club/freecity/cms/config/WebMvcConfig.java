@@ -1,29 +1,22 @@
 package club.freecity.cms.config;
 
-import org.springframework.beans.factory.annotation.Value;
+import club.freecity.cms.support.httpcache.ConditionalGetInterceptor;
+import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
-import java.nio.file.Paths;
-
+/**
+ * 上传文件由 {@link club.freecity.cms.controller.view.UploadController} 输出（租户隔离、Range、零拷贝），不再注册静态资源映射
+ */
 @Configuration
+@RequiredArgsConstructor
 public class WebMvcConfig implements WebMvcConfigurer {
 
-    @Value("${app.upload.path}")
-    private String uploadPath;
+    private final ConditionalGetInterceptor conditionalGetInterceptor;
 
     @Override
-    public void addResourceHandlers(ResourceHandlerRegistry registry) {
-        // 1. 获取上传目录的绝对路径
-        String path = Paths.get(uploadPath).toAbsolutePath().toString().replace("\\", "/");
-        if (!path.endsWith("/")) {
-            path += "/";
-        }
-        String location = "file:" + path;
-        
-        // 2. 映射资源路径（例如 /uploads/** -> file:D:/Work/.../uploads/）
-        registry.addResourceHandler("/" + uploadPath + "/**")
-                .addResourceLocations(location);
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(conditionalGetInterceptor);
     }
 }
@@ -4,6 +4,7 @@ import club.freecity.cms.annotation.SecurityAudit;
 import club.freecity.cms.common.Result;
 import club.freecity.cms.common.RoleConstants;
 import club.freecity.cms.dto.ArticleDto;
+import club.freecity.cms.dto.ArticleSummaryDto;
 import club.freecity.cms.enums.AuditAction;
 import club.freecity.cms.validator.group.CreateGroup;
 import club.freecity.cms.validator.group.UpdateGroup;
@@ -56,7 +57,7 @@ public class ArticleController {
 
     @GetMapping
     @PreAuthorize(RoleConstants.HAS_ANY_ROLE_EDITOR)
-    public Result<Page<ArticleDto>> listArticles(
+    public Result<Page<ArticleSummaryDto>> listArticles(
             @RequestParam(required = false) String title,
             @RequestParam(required = false) Boolean published,
             @PageableDefault(sort = "createTime", direction = Sort.Direction.DESC) Pageable pageable) {
@@ -65,14 +66,14 @@ public class ArticleController {
 
     @GetMapping("/category/{categoryId}")
     @PreAuthorize(RoleConstants.HAS_ANY_ROLE_EDITOR)
-    public Result<Page<ArticleDto>> listArticlesByCategory(@PathVariable @NotNull Long categoryId, 
+    public Result<Page<ArticleSummaryDto>> listArticlesByCategory(@PathVariable @NotNull Long categoryId, 
                                                            @PageableDefault(sort = "createTime", direction = Sort.Direction.DESC) Pageable pageable) {
         return Result.success(articleService.listArticlesByCategory(categoryId, pageable));
     }
 
     @GetMapping("/tag/{tagId}")
     @PreAuthorize(RoleConstants.HAS_ANY_ROLE_EDITOR)
-    public Result<Page<ArticleDto>> listArticlesByTag(@PathVariable @NotNull Long tagId, 
+    public Result<Page<ArticleSummaryDto>> listArticlesByTag(@PathVariable @NotNull Long tagId, 
                                                       @PageableDefault(sort = "createTime", direction = Sort.Direction.DESC) Pageable pageable) {
         return Result.success(articleService.listArticlesByTag(tagId, pageable));
     }
@@ -0,0 +1,53 @@
+package club.freecity.cms.controller.admin;
+
+import club.freecity.cms.common.Result;
+import club.freecity.cms.common.RoleConstants;
+import club.freecity.cms.support.audit.AuditLogWriter;
+import club.freecity.cms.support.counter.ViewCountBuffer;
+import club.freecity.cms.support.media.ImageVariantGenerator;
+import club.freecity.cms.support.pagecache.PageCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 系统运行指标（仅超级管理员）
+ */
+@RestController
+@RequestMapping("/api/admin/system")
+@RequiredArgsConstructor
+public class SystemMetricsController {
+
+    private final ViewCountBuffer viewCountBuffer;
+    private final PageCache pageCache;
+    private final AuditLogWriter auditLogWriter;
+    private final ImageVariantGenerator imageVariantGenerator;
+
+    @GetMapping("/metrics")
+    @PreAuthorize(RoleConstants.HAS_ROLE_SUPER_ADMIN)
+    public Result<Map<String, Object>> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("viewCountPending", viewCountBuffer.getTotalPendingCount());
+        metrics.put("viewCountFlushLagMillis", viewCountBuffer.getFlushLagMillis());
+        metrics.put("pageCacheEntries", pageCache.size());
+        metrics.put("pageCacheHitRate", pageCache.hitRate());
+        metrics.put("auditLogQueued", auditLogWriter.getQueuedCount());
+        metrics.put("auditLogPending", auditLogWriter.getPendingCount());
+        metrics.put("auditLogFlushed", auditLogWriter.getFlushedCount());
+        metrics.put("auditLogDropped", auditLogWriter.getDroppedCount());
+        metrics.put("auditLogFailed", auditLogWriter.getFailedCount());
+        metrics.put("auditLogFlushLatencyMillis", auditLogWriter.getLastFlushLatencyMillis());
+        metrics.put("auditLogMaxFlushLatencyMillis", auditLogWriter.getMaxFlushLatencyMillis());
+        metrics.put("imageVariantPending", imageVariantGenerator.getPendingCount());
+        metrics.put("imageVariantGenerated", imageVariantGenerator.getGeneratedCount());
+        metrics.put("imageVariantRejected", imageVariantGenerator.getRejectedCount());
+        metrics.put("imageVariantFailed", imageVariantGenerator.getFailedCount());
+        metrics.put("imageVariantOversized", imageVariantGenerator.getOversizedCount());
+        return Result.success(metrics);
+    }
+}
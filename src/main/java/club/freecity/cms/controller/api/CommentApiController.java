@@ -1,12 +1,15 @@
 package club.freecity.cms.controller.api;
 
+import club.freecity.cms.annotation.ConditionalGet;
 import club.freecity.cms.annotation.RateLimit;
 import club.freecity.cms.annotation.SecurityAudit;
 import club.freecity.cms.common.Result;
 import club.freecity.cms.common.RoleConstants;
 import club.freecity.cms.dto.CommentDto;
+import club.freecity.cms.dto.CommentModerationTaskDto;
 import club.freecity.cms.dto.VerificationRequestDto;
 import club.freecity.cms.enums.AuditAction;
+import club.freecity.cms.service.CommentModerationService;
 import club.freecity.cms.service.CommentService;
 import club.freecity.cms.service.VerificationService;
 import club.freecity.cms.util.IpUtils;
@@ -35,6 +38,7 @@ public class CommentApiController {
 
     private final CommentService commentService;
     private final VerificationService verificationService;
+    private final CommentModerationService commentModerationService;
     
     // --- 读者端接口 ---
 
@@ -61,6 +65,7 @@ public class CommentApiController {
         return Result.success(saved);
     }
 
+    @ConditionalGet("api")
     @GetMapping("/article/{articleId}")
     public Result<Page<CommentDto>> listComments(@PathVariable Long articleId,
                                                  @PageableDefault(sort = "createTime", direction = Sort.Direction.DESC) Pageable pageable) {
@@ -131,4 +136,41 @@ public class CommentApiController {
         commentService.batchReply(ids, content);
         return Result.success();
     }
+
+    // --- 按条件批量处理（后台任务） ---
+
+    @PostMapping("/admin/moderation")
+    @PreAuthorize(RoleConstants.HAS_ANY_ROLE_EDITOR)
+    @SecurityAudit(action = AuditAction.COMMENT_UPDATE, message = "'按条件批量处理评论: ' + #taskDto.action", logArgs = true)
+    public Result<CommentModerationTaskDto> submitModeration(@Validated @RequestBody CommentModerationTaskDto taskDto) {
+        return Result.success(commentModerationService.submit(taskDto));
+    }
+
+    @GetMapping("/admin/moderation/{id}")
+    @PreAuthorize(RoleConstants.HAS_ANY_ROLE_EDITOR)
+    public Result<CommentModerationTaskDto> getModeration(@PathVariable @NotNull Long id) {
+        return Result.success(commentModerationService.getTask(id));
+    }
+
+    @GetMapping("/admin/moderation")
+    @PreAuthorize(RoleConstants.HAS_ANY_ROLE_EDITOR)
+    public Result<Page<CommentModerationTaskDto>> listModerations(@PageableDefault(size = 10) Pageable pageable) {
+        return Result.success(commentModerationService.listTasks(pageable));
+    }
+
+    @PutMapping("/admin/moderation/{id}/cancel")
+    @PreAuthorize(RoleConstants.HAS_ANY_ROLE_EDITOR)
+    @SecurityAudit(action = AuditAction.COMMENT_UPDATE, message = "'取消评论批量处理任务 ID: ' + #id")
+    public Result<Void> cancelModeration(@PathVariable @NotNull Long id) {
+        commentModerationService.cancel(id);
+        return Result.success();
+    }
+
+    @PutMapping("/admin/moderation/{id}/resume")
+    @PreAuthorize(RoleConstants.HAS_ANY_ROLE_EDITOR)
+    @SecurityAudit(action = AuditAction.COMMENT_UPDATE, message = "'继续评论批量处理任务 ID: ' + #id")
+    public Result<Void> resumeModeration(@PathVariable @NotNull Long id) {
+        commentModerationService.resume(id);
+        return Result.success();
+    }
 }
@@ -1,7 +1,8 @@
 package club.freecity.cms.controller.api;
 
+import club.freecity.cms.annotation.ConditionalGet;
 import club.freecity.cms.annotation.RateLimit;
-import club.freecity.cms.dto.ArticleDto;
+import club.freecity.cms.dto.ArticleSummaryDto;
 import club.freecity.cms.service.ArticleService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -32,13 +33,14 @@ public class SearchApiController {
      * 只返回必要的字段（id, title, summary, thumbnail, createTime），用于前端展示
      */
     @RateLimit(window = 1, count = 5)
+    @ConditionalGet("api")
     @GetMapping("/instant")
     public ResponseEntity<Map<String, Object>> instantSearch(
             @RequestParam("keyword") String keyword,
             @PageableDefault(size = 5, sort = "createTime", direction = Sort.Direction.DESC) Pageable pageable) {
         
-        // 使用现有的 searchArticles 方法，该方法目前只匹配 title 和 summary
-        Page<ArticleDto> results = articleService.searchArticles(keyword, pageable);
+        // 基于全文索引检索标题、摘要和正文，最后一个词按前缀匹配
+        Page<ArticleSummaryDto> results = articleService.searchArticles(keyword, pageable);
         
         Map<String, Object> response = new HashMap<>();
         response.put("content", results.getContent());
@@ -1,16 +1,23 @@
 package club.freecity.cms.controller.view;
+import club.freecity.cms.annotation.ConditionalGet;
 import club.freecity.cms.common.ResultCode;
 import club.freecity.cms.dto.ArticleDto;
+import club.freecity.cms.dto.ArticleSummaryDto;
+import club.freecity.cms.dto.CursorPage;
 import club.freecity.cms.exception.BusinessException;
 import club.freecity.cms.service.ArticleService;
 import club.freecity.cms.service.CategoryService;
 import club.freecity.cms.service.TagService;
-import club.freecity.cms.service.TenantService;
+import club.freecity.cms.service.SidebarCacheService;
+import club.freecity.cms.service.SitemapService;
+import club.freecity.cms.dto.SidebarSnapshot;
 import club.freecity.cms.dto.TenantDto;
+import club.freecity.cms.support.pagecache.PageCacheTags;
+import club.freecity.cms.support.pagination.ArticleCursor;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
@@ -22,8 +29,10 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
-import club.freecity.cms.dto.ToolPage;
 
+import javax.xml.stream.XMLStreamException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -38,16 +47,23 @@ public class IndexController {
     private final ArticleService articleService;
     private final CategoryService categoryService;
     private final TagService tagService;
-    private final TenantService tenantService;
+    private final SidebarCacheService sidebarCacheService;
+    private final SitemapService sitemapService;
 
+    @ConditionalGet
     @GetMapping("/")
-    public String index(Model model, 
+    public String index(Model model, @RequestParam(required = false) String cursor,
                         @PageableDefault(size = 10, sort = "createTime", direction = Sort.Direction.DESC) Pageable pageable) {
-        model.addAttribute("articles", articleService.listPublishedArticles(pageable));
+        if (StringUtils.hasText(cursor)) {
+            addCursorPage(model, articleService.scrollPublishedArticles(cursor, pageable.getPageSize()));
+        } else {
+            addOffsetPage(model, articleService.listPublishedArticles(pageable));
+        }
         addAsideModelAttributes(model);
         return "index";
     }
 
+    @ConditionalGet
     @GetMapping("/search")
     public String search(@RequestParam("keyword") String keyword, Model model,
                          @PageableDefault(size = 10, sort = "createTime", direction = Sort.Direction.DESC) Pageable pageable) {
@@ -57,6 +73,7 @@ public class IndexController {
         return "index";
     }
 
+    @ConditionalGet(viewedArticle = "id")
     @GetMapping("/article/{id}")
     public String articleDetail(@PathVariable Long id, Model model,
                                 @PageableDefault(size = 10, sort = "createTime", direction = Sort.Direction.DESC) Pageable pageable) {
@@ -70,23 +87,50 @@ public class IndexController {
         // 更新当前对象的阅读量，以便前端显示
         article.setViewCount(article.getViewCount() + 1);
 
+        ArticleDto prevArticle = articleService.getPreviousArticle(article.getCreateTime());
+        ArticleDto nextArticle = articleService.getNextArticle(article.getCreateTime());
         model.addAttribute("article", article);
-        model.addAttribute("prevArticle", articleService.getPreviousArticle(article.getCreateTime()));
-        model.addAttribute("nextArticle", articleService.getNextArticle(article.getCreateTime()));
+        model.addAttribute("prevArticle", prevArticle);
+        model.addAttribute("nextArticle", nextArticle);
         
         Long categoryId = article.getCategory() != null ? article.getCategory().getId() : null;
-        model.addAttribute("relatedArticles", articleService.listRelatedArticles(article.getId(), categoryId));
+        List<ArticleSummaryDto> relatedArticles = articleService.listRelatedArticles(article.getId(), categoryId);
+        model.addAttribute("relatedArticles", relatedArticles);
+
+        // 页面缓存依赖：本文、分类、标签以及页面中出现的其他文章
+        PageCacheTags.viewedArticle(id);
+        PageCacheTags.add(PageCacheTags.article(id));
+        if (categoryId != null) {
+            PageCacheTags.add(PageCacheTags.category(categoryId));
+        }
+        if (article.getTags() != null) {
+            article.getTags().forEach(tag -> PageCacheTags.add(PageCacheTags.tag(tag.getId())));
+        }
+        if (prevArticle != null) {
+            PageCacheTags.add(PageCacheTags.article(prevArticle.getId()));
+        }
+        if (nextArticle != null) {
+            PageCacheTags.add(PageCacheTags.article(nextArticle.getId()));
+        }
+        tagArticles(relatedArticles);
         
         addAsideModelAttributes(model);
         return "article";
     }
 
+    @ConditionalGet
     @GetMapping({"/categories", "/categories.html", "/category/{id}"})
     public String categories(@PathVariable(required = false) Long id, Model model,
+                             @RequestParam(required = false) String cursor,
                              @PageableDefault(size = 10, sort = "createTime", direction = Sort.Direction.DESC) Pageable pageable) {
         if (id != null) {
-            model.addAttribute("articles", articleService.listPublishedArticlesByCategory(id, pageable));
+            if (StringUtils.hasText(cursor)) {
+                addCursorPage(model, articleService.scrollPublishedArticlesByCategory(id, cursor, pageable.getPageSize()));
+            } else {
+                addOffsetPage(model, articleService.listPublishedArticlesByCategory(id, pageable));
+            }
             model.addAttribute("category", categoryService.getCategoryById(id));
+            PageCacheTags.add(PageCacheTags.category(id));
             addAsideModelAttributes(model);
             return "index";
         }
@@ -95,12 +139,19 @@ public class IndexController {
         return "categories";
     }
 
+    @ConditionalGet
     @GetMapping({"/tags", "/tags.html", "/tag/{id}"})
     public String tags(@PathVariable(required = false) Long id, Model model,
+                       @RequestParam(required = false) String cursor,
                        @PageableDefault(size = 10, sort = "createTime", direction = Sort.Direction.DESC) Pageable pageable) {
         if (id != null) {
-            model.addAttribute("articles", articleService.listPublishedArticlesByTag(id, pageable));
+            if (StringUtils.hasText(cursor)) {
+                addCursorPage(model, articleService.scrollPublishedArticlesByTag(id, cursor, pageable.getPageSize()));
+            } else {
+                addOffsetPage(model, articleService.listPublishedArticlesByTag(id, pageable));
+            }
             model.addAttribute("tag", tagService.getTagById(id));
+            PageCacheTags.add(PageCacheTags.tag(id));
             addAsideModelAttributes(model);
             return "index";
         }
@@ -109,23 +160,62 @@ public class IndexController {
         return "tags";
     }
 
-    @GetMapping({"/archives", "/archives.html", "/archives/{year}"})
+    @ConditionalGet
+    @GetMapping({"/archives", "/archives.html", "/archives/{year}", "/archives/{year}/{month}"})
     public String archives(@PathVariable(required = false) String year,
+                           @PathVariable(required = false) Integer month,
+                           @RequestParam(required = false) String cursor,
                            Model model,
                            @PageableDefault(size = 10, sort = "createTime", direction = Sort.Direction.DESC) Pageable pageable) {
-        Page<ArticleDto> articlesPage;
+        String archiveUrl = "/archives";
         if (StringUtils.hasText(year)) {
-            articlesPage = articleService.listPublishedArticlesByYear(year, pageable);
+            archiveUrl += "/" + year;
             model.addAttribute("currentYear", year);
+            if (month != null) {
+                archiveUrl += "/" + month;
+                model.addAttribute("currentMonth", month);
+            }
+        }
+        model.addAttribute("archiveUrl", archiveUrl);
+
+        List<ArticleSummaryDto> articles;
+        if (StringUtils.hasText(cursor)) {
+            // 游标模式：不统计总数，只提供下一页链接
+            CursorPage<ArticleSummaryDto> cursorPage;
+            if (month != null) {
+                cursorPage = articleService.scrollPublishedArticlesByMonth(year, month, cursor, pageable.getPageSize());
+            } else if (StringUtils.hasText(year)) {
+                cursorPage = articleService.scrollPublishedArticlesByYear(year, cursor, pageable.getPageSize());
+            } else {
+                cursorPage = articleService.scrollPublishedArticles(cursor, pageable.getPageSize());
+            }
+            articles = cursorPage.getContent();
+            model.addAttribute("cursorMode", true);
+            model.addAttribute("nextCursor", cursorPage.getNextCursor());
         } else {
-            articlesPage = articleService.listPublishedArticles(pageable);
+            Page<ArticleSummaryDto> articlesPage;
+            if (month != null) {
+                articlesPage = articleService.listPublishedArticlesByMonth(year, month, pageable);
+            } else if (StringUtils.hasText(year)) {
+                articlesPage = articleService.listPublishedArticlesByYear(year, pageable);
+            } else {
+                articlesPage = articleService.listPublishedArticles(pageable);
+            }
+            articles = articlesPage.getContent();
+            model.addAttribute("currentPage", articlesPage.getNumber() + 1);
+            model.addAttribute("totalPages", articlesPage.getTotalPages());
+            model.addAttribute("nextCursor", nextCursorOf(articlesPage));
         }
-        return processArchives(model, articlesPage);
+        if (StringUtils.hasText(year)) {
+            model.addAttribute("monthArchives", articleService.listMonthArchives(year));
+        }
+        return processArchives(model, articles);
     }
 
-    private String processArchives(Model model, Page<ArticleDto> articlesPage) {
+    private String processArchives(Model model, List<ArticleSummaryDto> articles) {
+        tagArticles(articles);
         // 按年份分组
-        Map<String, List<ArticleDto>> archiveArticles = articlesPage.getContent().stream()
+        Map<String, List<ArticleSummaryDto>> archiveArticles = articles.stream()
                 .collect(Collectors.groupingBy(
                         article -> String.valueOf(article.getCreateTime().getYear()),
                         TreeMap::new,
@@ -133,25 +223,61 @@ public class IndexController {
                 ));
         
         // 倒序排列年份
-        Map<String, List<ArticleDto>> sortedArchives = new LinkedHashMap<>();
+        Map<String, List<ArticleSummaryDto>> sortedArchives = new LinkedHashMap<>();
         archiveArticles.entrySet().stream()
-                .sorted(Map.Entry.<String, List<ArticleDto>>comparingByKey().reversed())
+                .sorted(Map.Entry.<String, List<ArticleSummaryDto>>comparingByKey().reversed())
                 .forEachOrdered(x -> sortedArchives.put(x.getKey(), x.getValue()));
 
         model.addAttribute("archiveArticles", sortedArchives);
-        model.addAttribute("currentPage", articlesPage.getNumber() + 1);
-        model.addAttribute("totalPages", articlesPage.getTotalPages());
         
         addAsideModelAttributes(model);
         return "archives";
     }
 
+    /**
+     * 偏移分页：保留页码导航，"下一页"改用游标链接，避免爬虫沿页码深翻
+     */
+    private void addOffsetPage(Model model, Page<ArticleSummaryDto> page) {
+        tagArticles(page.getContent());
+        model.addAttribute("articles", page);
+        model.addAttribute("nextCursor", nextCursorOf(page));
+    }
+
+    private void addCursorPage(Model model, CursorPage<ArticleSummaryDto> page) {
+        tagArticles(page.getContent());
+        model.addAttribute("articles", page);
+        model.addAttribute("cursorMode", true);
+    }
+
+    /**
+     * 列表页依赖：文章列表整体以及列表中的每篇文章
+     */
+    private void tagArticles(List<ArticleSummaryDto> articles) {
+        PageCacheTags.add(PageCacheTags.ARTICLE_LIST);
+        articles.forEach(article -> PageCacheTags.add(PageCacheTags.article(article.getId())));
+    }
+
+    private String nextCursorOf(Page<ArticleSummaryDto> page) {
+        if (!page.hasNext() || page.getContent().isEmpty()) {
+            return null;
+        }
+        // 仅默认排序（创建时间倒序）下游标与页码语义一致
+        Sort.Order order = page.getSort().getOrderFor("createTime");
+        if (order == null || order.isAscending()) {
+            return null;
+        }
+        ArticleSummaryDto last = page.getContent().get(page.getContent().size() - 1);
+        return ArticleCursor.encode(last.getCreateTime(), last.getId());
+    }
+
+    @ConditionalGet
     @GetMapping({"/about", "/about.html"})
     public String about(Model model) {
         addAsideModelAttributes(model);
         return "about";
     }
 
+    @ConditionalGet
     @GetMapping({"/links", "/links.html"})
     public String links(Model model) {
         addAsideModelAttributes(model);
@@ -162,44 +288,63 @@ public class IndexController {
         return "links";
     }
 
+    @ConditionalGet
     @GetMapping({"/sitemap", "/sitemap.html"})
     public String sitemap(Model model) {
         model.addAttribute("allTags", tagService.listAllTags());
         model.addAttribute("allCategories", categoryService.listCategoryTree());
-        // 获取所有已发布的文章（不分页，用于站点地图展示）
-        model.addAttribute("allArticles", articleService.listPublishedArticles(Pageable.unpaged()).getContent());
+        // 仅查询文章链接所需字段，用于站点地图展示
+        model.addAttribute("allArticles", sitemapService.listArticleLinks());
         return "sitemap";
     }
 
-    @GetMapping(value = "/sitemap.xml", produces = MediaType.APPLICATION_XML_VALUE)
-    public String sitemapXml(Model model) {
-        String baseUrl = ServletUriComponentsBuilder
+    @ConditionalGet("sitemap")
+    @GetMapping("/sitemap.xml")
+    public void sitemapXml(HttpServletResponse response) throws IOException, XMLStreamException {
+        response.setContentType(MediaType.APPLICATION_XML_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        sitemapService.writeSitemap(currentBaseUrl(), response.getOutputStream());
+    }
+
+    @ConditionalGet("sitemap")
+    @GetMapping("/sitemap-pages.xml")
+    public void sitemapPagesXml(HttpServletResponse response) throws IOException, XMLStreamException {
+        response.setContentType(MediaType.APPLICATION_XML_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        sitemapService.writePagesSitemap(currentBaseUrl(), response.getOutputStream());
+    }
+
+    @ConditionalGet("sitemap")
+    @GetMapping("/sitemap-articles-{part}.xml")
+    public void sitemapArticlesXml(@PathVariable int part, HttpServletResponse response)
+            throws IOException, XMLStreamException {
+        response.setContentType(MediaType.APPLICATION_XML_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        sitemapService.writeArticlesSitemap(currentBaseUrl(), part, response.getOutputStream());
+    }
+
+    private String currentBaseUrl() {
+        return ServletUriComponentsBuilder
                 .fromCurrentContextPath()
                 .build()
                 .toUriString();
-        
-        model.addAttribute("baseUrl", baseUrl);
-        model.addAttribute("articles", articleService.listPublishedArticles(Pageable.unpaged()).getContent());
-        model.addAttribute("categories", categoryService.listCategoryTree());
-        model.addAttribute("tags", tagService.listAllTags());
-        model.addAttribute("toolPages", ToolPage.loadFromClasspath());
-        
-        return "sitemap_xml";
     }
 
     /**
-     * 添加侧边栏通用模型属性
+     * 添加侧边栏通用模型属性（读取租户级缓存快照）
      */
     private void addAsideModelAttributes(Model model) {
-        model.addAttribute("tenantConfig", tenantService.getCurrentTenantConfig());
-        model.addAttribute("articleCount", articleService.countPublishedArticles());
-        model.addAttribute("categoryCount", categoryService.countCategories());
-        model.addAttribute("tagCount", tagService.countTags());
+        PageCacheTags.add(PageCacheTags.SIDEBAR);
+        SidebarSnapshot snapshot = sidebarCacheService.getCurrentSnapshot();
+        model.addAttribute("tenantConfig", snapshot.getTenantConfig());
+        model.addAttribute("articleCount", snapshot.getArticleCount());
+        model.addAttribute("categoryCount", snapshot.getCategoryCount());
+        model.addAttribute("tagCount", snapshot.getTagCount());
         
         // 侧边栏小组件数据
-        model.addAttribute("recentArticles", articleService.listPublishedArticles(PageRequest.of(0, 5, Sort.by(Sort.Direction.DESC, "createTime"))).getContent());
-        model.addAttribute("asideCategories", categoryService.listCategoryTree());
-        model.addAttribute("archives", articleService.listArchives());
-        model.addAttribute("lastUpdateTime", articleService.getLastUpdateTime());
+        model.addAttribute("recentArticles", snapshot.getRecentArticles());
+        model.addAttribute("asideCategories", snapshot.getAsideCategories());
+        model.addAttribute("archives", snapshot.getArchives());
+        model.addAttribute("lastUpdateTime", snapshot.getLastUpdateTime());
     }
 }
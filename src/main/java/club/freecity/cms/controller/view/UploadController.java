@@ -0,0 +1,34 @@
+package club.freecity.cms.controller.view;
+
+import club.freecity.cms.common.TenantContext;
+import club.freecity.cms.support.media.UploadedFileServer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+
+import java.io.IOException;
+
+/**
+ * 上传文件访问
+ * 只允许访问当前域名所属租户的目录（/uploads/{tenantCode}/...），其他租户的文件一律 404
+ */
+@Controller
+@RequiredArgsConstructor
+public class UploadController {
+
+    private final UploadedFileServer uploadedFileServer;
+
+    @GetMapping("/${app.upload.path}/{tenantCode}/{*path}")
+    public void serve(@PathVariable String tenantCode, @PathVariable String path,
+                      HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String currentTenantCode = TenantContext.getCurrentTenantCode();
+        if (currentTenantCode == null || !currentTenantCode.equalsIgnoreCase(tenantCode) || path.length() <= 1) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        uploadedFileServer.serve(request, response, tenantCode, path.substring(1));
+    }
+}
@@ -12,6 +12,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.util.StringUtils;
 
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.stream.Collectors;
 
@@ -101,6 +102,34 @@ public class BeanConverter {
         return dto;
     }
 
+    public static CommentModerationTaskDto toDto(CommentModerationTask entity) {
+        if (entity == null) return null;
+        CommentModerationTaskDto dto = new CommentModerationTaskDto();
+        dto.setId(entity.getId());
+        dto.setAction(entity.getAction());
+        dto.setTargetStatus(entity.getTargetStatus());
+        dto.setFilterStatus(entity.getFilterStatus());
+        dto.setIp(entity.getIp());
+        dto.setEmail(entity.getEmail());
+        dto.setStartTime(entity.getStartTime());
+        dto.setEndTime(entity.getEndTime());
+        dto.setKeyword(entity.getKeyword());
+        dto.setState(entity.getState());
+        dto.setTotal(entity.getTotal());
+        dto.setProcessed(entity.getProcessed());
+        // 按已扫描的 ID 范围折算进度
+        if (entity.getMaxId() == null || entity.getMinId() == null) {
+            dto.setProgress(100.0);
+        } else {
+            double span = entity.getMaxId() - entity.getMinId() + 1;
+            dto.setProgress(Math.round((entity.getCursorId() - entity.getMinId() + 1) * 1000 / span) / 10.0);
+        }
+        dto.setMessage(entity.getMessage());
+        dto.setCreateTime(entity.getCreateTime());
+        dto.setUpdateTime(entity.getUpdateTime());
+        return dto;
+    }
+
     public static UserDto toDto(User user) {
         if (user == null) return null;
         return UserDto.builder()
@@ -128,6 +157,7 @@ public class BeanConverter {
                 .packageId(tenant.getPackageInfo() != null ? tenant.getPackageInfo().getId() : null)
                 .packageName(tenant.getPackageInfo() != null ? tenant.getPackageInfo().getName() : null)
                 .expireTime(tenant.getExpireTime())
+                .customDomain(tenant.getCustomDomain())
                 .createTime(tenant.getCreateTime())
                 .updateTime(tenant.getUpdateTime());
 
@@ -204,6 +234,10 @@ public class BeanConverter {
         if (dto.getExpireTime() != null) {
             tenant.setExpireTime(dto.getExpireTime());
         }
+        if (dto.getCustomDomain() != null) {
+            String domain = dto.getCustomDomain().trim().toLowerCase(Locale.ROOT);
+            tenant.setCustomDomain(domain.isEmpty() ? null : domain);
+        }
         
         // 安全清洗 WebInfo 中的 HTML 字段
         if (dto.getWebInfo() != null) {
@@ -9,5 +9,13 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 public class ArchiveDto {
     private String year;
+    /**
+     * 月份（1-12），年度归档为空
+     */
+    private Integer month;
     private long count;
+
+    public ArchiveDto(String year, long count) {
+        this(year, null, count);
+    }
 }
@@ -0,0 +1,28 @@
+package club.freecity.cms.dto;
+
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * 站点地图文章行（投影查询结果，不含正文）
+ */
+@Getter
+public class ArticleSitemapRow {
+
+    private final Long id;
+    private final String title;
+    private final LocalDateTime createTime;
+    private final LocalDateTime updateTime;
+
+    public ArticleSitemapRow(Long id, LocalDateTime updateTime) {
+        this(id, null, null, updateTime);
+    }
+
+    public ArticleSitemapRow(Long id, String title, LocalDateTime createTime, LocalDateTime updateTime) {
+        this.id = id;
+        this.title = title;
+        this.createTime = createTime;
+        this.updateTime = updateTime;
+    }
+}
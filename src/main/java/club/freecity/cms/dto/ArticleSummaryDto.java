@@ -0,0 +1,56 @@
+package club.freecity.cms.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * 文章列表项（投影查询结果，不含正文）
+ * 标签由服务层按页批量查询后填充
+ */
+@Data
+@NoArgsConstructor
+public class ArticleSummaryDto {
+    private Long id;
+    private String title;
+    private String summary;
+    private String thumbnail;
+    private Integer viewCount;
+    private Integer commentCount;
+    private Integer likeCount;
+    private Boolean published;
+    private Boolean top;
+    private CategoryDto category;
+    private Set<TagDto> tags;
+    private LocalDateTime createTime;
+    private LocalDateTime updateTime;
+
+    /**
+     * 搜索命中片段（已转义的 HTML），仅搜索结果中有值
+     */
+    private String highlight;
+
+    public ArticleSummaryDto(Long id, String title, String summary, String thumbnail,
+                             Integer viewCount, Integer commentCount, Integer likeCount,
+                             Boolean published, Boolean top, Long categoryId, String categoryName,
+                             LocalDateTime createTime, LocalDateTime updateTime) {
+        this.id = id;
+        this.title = title;
+        this.summary = summary;
+        this.thumbnail = thumbnail;
+        this.viewCount = viewCount;
+        this.commentCount = commentCount;
+        this.likeCount = likeCount;
+        this.published = published;
+        this.top = top;
+        if (categoryId != null) {
+            this.category = new CategoryDto();
+            this.category.setId(categoryId);
+            this.category.setName(categoryName);
+        }
+        this.createTime = createTime;
+        this.updateTime = updateTime;
+    }
+}
@@ -0,0 +1,45 @@
+package club.freecity.cms.dto;
+
+import club.freecity.cms.util.LenientLocalDateTimeDeserializer;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class CommentModerationTaskDto {
+    private Long id;
+
+    @NotBlank(message = "处理动作不能为空")
+    @Pattern(regexp = "AUDIT|DELETE", message = "处理动作只能是 AUDIT 或 DELETE")
+    private String action;          // AUDIT / DELETE
+    private Integer targetStatus;   // AUDIT 时的目标状态
+
+    // 筛选条件，至少指定一项
+    private Integer filterStatus;
+    @Size(max = 45)
+    private String ip;
+    @Size(max = 100)
+    private String email;
+    @JsonDeserialize(using = LenientLocalDateTimeDeserializer.class)
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd['T'HH[:mm[:ss][.SSS]]]")
+    private LocalDateTime startTime;
+    @JsonDeserialize(using = LenientLocalDateTimeDeserializer.class)
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd['T'HH[:mm[:ss][.SSS]]]")
+    private LocalDateTime endTime;
+    @Size(max = 100)
+    private String keyword;
+
+    // 执行进度（只读）
+    private String state;
+    private Long total;             // 提交时命中的评论数
+    private Long processed;         // 实际修改或删除的评论数
+    private Double progress;        // 扫描进度百分比
+    private String message;
+    private LocalDateTime createTime;
+    private LocalDateTime updateTime;
+}
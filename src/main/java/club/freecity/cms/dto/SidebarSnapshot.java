@@ -0,0 +1,24 @@
+package club.freecity.cms.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 前台侧边栏数据快照（按租户缓存，构建后不再修改）
+ */
+@Getter
+@Builder
+public class SidebarSnapshot {
+
+    private final TenantDto tenantConfig;
+    private final long articleCount;
+    private final long categoryCount;
+    private final long tagCount;
+    private final List<ArticleSummaryDto> recentArticles;
+    private final List<CategoryDto> asideCategories;
+    private final List<ArchiveDto> archives;
+    private final LocalDateTime lastUpdateTime;
+}
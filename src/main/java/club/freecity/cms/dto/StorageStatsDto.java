@@ -13,4 +13,7 @@ public class StorageStatsDto {
     private Long usedSize;      // 已使用空间 (Bytes)
     private Long totalSize;     // 总容量 (Bytes)
     private Double percentage;  // 使用百分比
+    private Long imageSize;     // 图片占用 (Bytes)
+    private Long documentSize;  // 文档占用 (Bytes)
+    private Long otherSize;     // 其他文件占用 (Bytes)
 }
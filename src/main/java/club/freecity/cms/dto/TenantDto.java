@@ -42,6 +42,11 @@ public class TenantDto {
     private CustomCode customCode;
 
     private Long packageId;
+
+    /**
+     * 自定义域名，传空字符串表示清除
+     */
+    private String customDomain;
     
     private String packageName;
 
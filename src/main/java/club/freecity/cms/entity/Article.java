@@ -24,6 +24,16 @@ public class Article extends BaseTenantEntity {
     @Column(name = "content", nullable = false, columnDefinition = "LONGTEXT")
     private String content;
 
+    @Lob
+    @Column(name = "rendered_content", columnDefinition = "LONGTEXT")
+    private String renderedContent;
+
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    @Column(name = "render_version")
+    private Integer renderVersion;
+
     @Column(name = "summary", length = 500)
     private String summary;
 
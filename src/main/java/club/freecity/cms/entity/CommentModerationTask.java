@@ -0,0 +1,82 @@
+package club.freecity.cms.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import java.time.LocalDateTime;
+
+/**
+ * 按条件批量处理评论的后台任务
+ * 提交时确定命中评论的 ID 范围，之后按 ID 分段推进，游标与每段的处理结果在同一事务内提交，中断后从游标处继续
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "comment_moderation_task")
+public class CommentModerationTask extends BaseTenantEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "action", nullable = false, length = 20)
+    private String action;
+
+    /**
+     * 目标审核状态，仅 AUDIT 动作有效
+     */
+    @Column(name = "target_status")
+    private Integer targetStatus;
+
+    // --- 筛选条件，为空表示不限 ---
+
+    @Column(name = "filter_status")
+    private Integer filterStatus;
+
+    @Column(name = "ip", length = 45)
+    private String ip;
+
+    @Column(name = "email", length = 100)
+    private String email;
+
+    @Column(name = "start_time")
+    private LocalDateTime startTime;
+
+    @Column(name = "end_time")
+    private LocalDateTime endTime;
+
+    @Column(name = "keyword", length = 100)
+    private String keyword;
+
+    // --- 执行进度 ---
+
+    @Column(name = "state", nullable = false, length = 20)
+    private String state;
+
+    /**
+     * 提交时命中的评论数
+     */
+    @Column(name = "total", nullable = false)
+    private Long total = 0L;
+
+    /**
+     * 实际修改或删除的评论数
+     */
+    @Column(name = "processed", nullable = false)
+    private Long processed = 0L;
+
+    @Column(name = "min_id")
+    private Long minId;
+
+    @Column(name = "max_id")
+    private Long maxId;
+
+    /**
+     * 已处理到的评论 ID（含）
+     */
+    @Column(name = "cursor_id", nullable = false)
+    private Long cursorId = 0L;
+
+    @Column(name = "message", length = 500)
+    private String message;
+}
@@ -30,6 +30,12 @@ public class MediaAsset extends BaseTenantEntity {
     @Column(name = "size")
     private Long size;
 
+    /**
+     * 文件内容 SHA-256，对应 {@link MediaBlob#getHash()}；为空表示去重前上传的独立文件
+     */
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
     @Column(name = "is_deleted", nullable = false)
     private Boolean deleted = false;
 
@@ -0,0 +1,44 @@
+package club.freecity.cms.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * 按内容寻址的文件实体（租户内按 SHA-256 去重）
+ * 多个 MediaAsset 共享同一物理文件，最后一个引用删除时才删除文件
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "media_blob", uniqueConstraints = @UniqueConstraint(columnNames = {"tenant_id", "hash"}))
+public class MediaBlob extends BaseTenantEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "hash", nullable = false, length = 64)
+    private String hash;
+
+    @Column(name = "url", nullable = false, length = 500)
+    private String url;
+
+    @Column(name = "file_path", nullable = false, length = 500)
+    private String filePath;
+
+    @Column(name = "type")
+    private String type;
+
+    @Column(name = "size", nullable = false)
+    private Long size;
+
+    @Column(name = "ref_count", nullable = false)
+    private Integer refCount = 1;
+
+    /**
+     * 已生成的衍生图宽度，逗号分隔（如 320,640,1280），为空表示未生成
+     */
+    @Column(name = "variants", length = 100)
+    private String variants;
+}
@@ -0,0 +1,36 @@
+package club.freecity.cms.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import java.time.LocalDateTime;
+
+/**
+ * 租户存储用量计数（按物理文件统计，含回收站中的文件，内容相同的文件只计一次）
+ * 上传与彻底删除时在同一事务内原子增减，定期按实际文件汇总校准
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "storage_usage")
+public class StorageUsage {
+
+    @Id
+    @Column(name = "tenant_id")
+    private Long tenantId;
+
+    @Column(name = "used_size", nullable = false)
+    private Long usedSize = 0L;
+
+    @Column(name = "image_size", nullable = false)
+    private Long imageSize = 0L;
+
+    @Column(name = "document_size", nullable = false)
+    private Long documentSize = 0L;
+
+    @Column(name = "other_size", nullable = false)
+    private Long otherSize = 0L;
+
+    @Column(name = "update_time", nullable = false)
+    private LocalDateTime updateTime;
+}
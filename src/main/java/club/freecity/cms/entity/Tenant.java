@@ -39,4 +39,7 @@ public class Tenant extends BaseEntity {
     private String customCode; // 自定义代码注入(JSON)
 
     private LocalDateTime expireTime;
+
+    @Column(name = "custom_domain", unique = true)
+    private String customDomain; // 自定义域名，需套餐开通 custom_domain_enabled
 }
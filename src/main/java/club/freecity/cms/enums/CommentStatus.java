@@ -3,6 +3,9 @@ package club.freecity.cms.enums;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 
+import java.util.Arrays;
+import java.util.List;
+
 @Getter
 @AllArgsConstructor
 public enum CommentStatus {
@@ -22,4 +25,14 @@ public enum CommentStatus {
         }
         return PENDING;
     }
+
+    /**
+     * 除已发布外的全部状态值，状态变为已发布时这些评论会计入文章评论数
+     */
+    public static List<Integer> unpublishedValues() {
+        return Arrays.stream(values())
+                .filter(status -> status != PUBLISHED)
+                .map(CommentStatus::getValue)
+                .toList();
+    }
 }
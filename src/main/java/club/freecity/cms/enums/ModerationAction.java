@@ -0,0 +1,29 @@
+package club.freecity.cms.enums;
+
+import lombok.Getter;
+
+/**
+ * 评论批量处理动作枚举
+ */
+@Getter
+public enum ModerationAction {
+    AUDIT("AUDIT", "修改审核状态"),
+    DELETE("DELETE", "删除");
+
+    private final String value;
+    private final String description;
+
+    ModerationAction(String value, String description) {
+        this.value = value;
+        this.description = description;
+    }
+
+    public static ModerationAction fromValue(String value) {
+        for (ModerationAction action : ModerationAction.values()) {
+            if (action.getValue().equalsIgnoreCase(value)) {
+                return action;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,31 @@
+package club.freecity.cms.enums;
+
+import lombok.Getter;
+
+/**
+ * 评论批量处理任务状态枚举
+ */
+@Getter
+public enum ModerationTaskStatus {
+    RUNNING("RUNNING", "执行中"),
+    COMPLETED("COMPLETED", "已完成"),
+    FAILED("FAILED", "执行失败"),
+    CANCELLED("CANCELLED", "已取消");
+
+    private final String value;
+    private final String description;
+
+    ModerationTaskStatus(String value, String description) {
+        this.value = value;
+        this.description = description;
+    }
+
+    public static ModerationTaskStatus fromValue(String value) {
+        for (ModerationTaskStatus status : ModerationTaskStatus.values()) {
+            if (status.getValue().equalsIgnoreCase(value)) {
+                return status;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,27 @@
+package club.freecity.cms.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.YearMonth;
+
+/**
+ * 文章发布状态变更事件（发布、撤回发布、删除已发布文章）
+ * 用于在事务提交后增量维护按月归档计数
+ */
+@Getter
+@AllArgsConstructor
+public class ArticlePublicationChangedEvent {
+
+    private final Long tenantId;
+
+    /**
+     * 文章创建时间所在月份
+     */
+    private final YearMonth month;
+
+    /**
+     * 已发布文章数变化量：发布为 +1，撤回或删除为 -1
+     */
+    private final int delta;
+}
@@ -0,0 +1,49 @@
+package club.freecity.cms.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 内容变更事件
+ * 由业务服务在写操作后发布，供缓存、索引等读模型在事务提交后同步更新
+ */
+@Getter
+@AllArgsConstructor
+public class ContentChangedEvent {
+
+    public enum ContentType {
+        ARTICLE, CATEGORY, TAG, COMMENT, TENANT
+    }
+
+    private final ContentType type;
+
+    /**
+     * 内容 ID；COMMENT 类型为评论所属文章 ID
+     */
+    private final Long id;
+
+    /**
+     * 内容所属租户，为空表示无法确定，监听方应按全部租户处理
+     */
+    private final Long tenantId;
+
+    /**
+     * 是否为删除操作
+     */
+    private final boolean removed;
+
+    public static ContentChangedEvent updated(ContentType type, Long id, Long tenantId) {
+        return new ContentChangedEvent(type, id, tenantId, false);
+    }
+
+    public static ContentChangedEvent removed(ContentType type, Long id, Long tenantId) {
+        return new ContentChangedEvent(type, id, tenantId, true);
+    }
+
+    /**
+     * 文章下已发布评论发生变化
+     */
+    public static ContentChangedEvent commentsChanged(Long articleId, Long tenantId) {
+        return new ContentChangedEvent(ContentType.COMMENT, articleId, tenantId, false);
+    }
+}
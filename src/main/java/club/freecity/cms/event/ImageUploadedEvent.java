@@ -0,0 +1,22 @@
+package club.freecity.cms.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 新图片文件落盘事件（内容去重后首次写入时发布）
+ * 用于在事务提交后异步生成缩放与 WebP 衍生图
+ */
+@Getter
+@AllArgsConstructor
+public class ImageUploadedEvent {
+
+    private final Long blobId;
+
+    /**
+     * 原图物理路径
+     */
+    private final String filePath;
+
+    private final String contentType;
+}
@@ -0,0 +1,32 @@
+package club.freecity.cms.job;
+
+import club.freecity.cms.service.CategoryService;
+import club.freecity.cms.service.TagService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 分类、标签文章计数校准任务
+ * 计数平时由增量更新维护，定期按 article / article_tag 实际数据校准，修复异常中断等原因造成的偏差
+ */
+@Slf4j
+@Lazy(false)
+@Component
+@RequiredArgsConstructor
+public class ArticleCountReconcileJob {
+
+    private final CategoryService categoryService;
+    private final TagService tagService;
+
+    @Scheduled(cron = "${app.article.count-reconcile-cron:0 30 3 * * ?}")
+    public void reconcile() {
+        int categories = categoryService.reconcileArticleCounts();
+        int tags = tagService.reconcileArticleCounts();
+        if (categories > 0 || tags > 0) {
+            log.warn("文章计数已校准：分类 {} 个，标签 {} 个", categories, tags);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package club.freecity.cms.job;
+
+import club.freecity.cms.service.ArticleService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 文章预渲染刷新任务
+ * 渲染策略版本升级（MarkdownUtils.RENDER_VERSION）或存在历史未渲染数据时，分批在后台重新渲染并回写
+ */
+@Slf4j
+@Lazy(false)
+@Component
+@RequiredArgsConstructor
+public class ArticleRenderJob {
+
+    private final ArticleService articleService;
+
+    @Value("${app.article.render.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.article.render.max-batches:50}")
+    private int maxBatches;
+
+    @Scheduled(initialDelayString = "${app.article.render.initial-delay:30000}",
+            fixedDelayString = "${app.article.render.fixed-delay:300000}")
+    public void refreshStaleRenderedContent() {
+        int total = 0;
+        // 每轮限制批次数，避免单次占用过多数据库资源；剩余部分留给下一轮
+        for (int i = 0; i < maxBatches; i++) {
+            int refreshed = articleService.refreshStaleRenderedContent(batchSize);
+            total += refreshed;
+            if (refreshed < batchSize) {
+                break;
+            }
+        }
+        if (total > 0) {
+            log.info("已重新渲染 {} 篇文章", total);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package club.freecity.cms.job;
+
+import club.freecity.cms.service.CommentModerationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 评论批量处理任务执行器
+ * 任务进度保存在数据库中，重启或其他实例接手后从游标处继续
+ */
+@Slf4j
+@Lazy(false)
+@Component
+@RequiredArgsConstructor
+public class CommentModerationJob {
+
+    private final CommentModerationService commentModerationService;
+
+    @Value("${app.comment.moderation.max-chunks:50}")
+    private int maxChunks;
+
+    @Scheduled(initialDelayString = "${app.comment.moderation.initial-delay:30000}",
+            fixedDelayString = "${app.comment.moderation.fixed-delay:2000}")
+    public void run() {
+        // 每轮限制每个任务的段数，多个任务轮流推进
+        long processed = commentModerationService.runPendingTasks(maxChunks);
+        if (processed > 0) {
+            log.info("评论批量处理：本轮处理 {} 条", processed);
+        }
+    }
+}
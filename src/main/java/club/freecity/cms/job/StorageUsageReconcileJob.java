@@ -0,0 +1,29 @@
+package club.freecity.cms.job;
+
+import club.freecity.cms.service.FileService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 存储用量校准任务
+ * 用量平时由上传、彻底删除时的增量更新维护，定期按实际文件汇总校准
+ */
+@Slf4j
+@Lazy(false)
+@Component
+@RequiredArgsConstructor
+public class StorageUsageReconcileJob {
+
+    private final FileService fileService;
+
+    @Scheduled(cron = "${app.storage.usage-reconcile-cron:0 40 3 * * ?}")
+    public void reconcile() {
+        int repaired = fileService.reconcileStorageUsage();
+        if (repaired > 0) {
+            log.warn("存储用量已校准：租户 {} 个", repaired);
+        }
+    }
+}
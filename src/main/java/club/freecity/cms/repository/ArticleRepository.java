@@ -1,37 +1,111 @@
 package club.freecity.cms.repository;
 
+import club.freecity.cms.dto.ArticleSitemapRow;
+import club.freecity.cms.dto.ArticleSummaryDto;
 import club.freecity.cms.entity.Article;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ArticleRepository extends JpaRepository<Article, Long>, JpaSpecificationExecutor<Article> {
-    Page<Article> findByPublishedTrue(Pageable pageable);
-    Page<Article> findByCategoryIdIn(List<Long> categoryIds, Pageable pageable);
-    Page<Article> findByCategoryIdInAndPublishedTrue(List<Long> categoryIds, Pageable pageable);
-    Page<Article> findByTagsId(Long tagId, Pageable pageable);
-    Page<Article> findByTagsIdAndPublishedTrue(Long tagId, Pageable pageable);
+    /**
+     * 列表投影：只查询列表展示字段，分类名称随主查询关联获取
+     */
+    String SUMMARY_SELECT = "SELECT new club.freecity.cms.dto.ArticleSummaryDto(a.id, a.title, a.summary, a.thumbnail, "
+            + "a.viewCount, a.commentCount, a.likeCount, a.published, a.top, c.id, c.name, a.createTime, a.updateTime) "
+            + "FROM Article a LEFT JOIN a.category c ";
+
+    /**
+     * 游标条件：位于 (createTime, id) 之后，首屏时两个参数均为空
+     */
+    String KEYSET_AFTER = " AND (:createTime IS NULL OR a.createTime < :createTime OR (a.createTime = :createTime AND a.id < :id))"
+            + " ORDER BY a.createTime DESC, a.id DESC";
+
     long countByPublishedTrue();
 
-    @Query("SELECT SUBSTRING(CAST(a.createTime AS string), 1, 4) AS year, COUNT(a) FROM Article a WHERE a.published = true GROUP BY year ORDER BY year DESC")
-    List<Object[]> countArticlesByYear();
+    @Query(value = SUMMARY_SELECT + "WHERE (:title IS NULL OR LOWER(a.title) LIKE :title) AND (:published IS NULL OR a.published = :published)",
+            countQuery = "SELECT COUNT(a) FROM Article a WHERE (:title IS NULL OR LOWER(a.title) LIKE :title) AND (:published IS NULL OR a.published = :published)")
+    Page<ArticleSummaryDto> findSummaries(String title, Boolean published, Pageable pageable);
 
-    @Query("SELECT a FROM Article a WHERE a.published = true AND SUBSTRING(CAST(a.createTime AS string), 1, 4) = :year")
-    Page<Article> findByPublishedTrueAndYear(String year, Pageable pageable);
+    @Query(value = SUMMARY_SELECT + "WHERE a.published = true",
+            countQuery = "SELECT COUNT(a) FROM Article a WHERE a.published = true")
+    Page<ArticleSummaryDto> findPublishedSummaries(Pageable pageable);
 
-    Optional<Article> findFirstByPublishedTrueOrderByUpdateTimeDesc();
+    @Query(value = SUMMARY_SELECT + "WHERE c.id IN :categoryIds",
+            countQuery = "SELECT COUNT(a) FROM Article a WHERE a.category.id IN :categoryIds")
+    Page<ArticleSummaryDto> findSummariesByCategoryIdIn(List<Long> categoryIds, Pageable pageable);
+
+    @Query(value = SUMMARY_SELECT + "WHERE a.published = true AND c.id IN :categoryIds",
+            countQuery = "SELECT COUNT(a) FROM Article a WHERE a.published = true AND a.category.id IN :categoryIds")
+    Page<ArticleSummaryDto> findPublishedSummariesByCategoryIdIn(List<Long> categoryIds, Pageable pageable);
+
+    @Query(value = SUMMARY_SELECT + "JOIN a.tags t WHERE t.id = :tagId",
+            countQuery = "SELECT COUNT(a) FROM Article a JOIN a.tags t WHERE t.id = :tagId")
+    Page<ArticleSummaryDto> findSummariesByTagId(Long tagId, Pageable pageable);
+
+    @Query(value = SUMMARY_SELECT + "JOIN a.tags t WHERE a.published = true AND t.id = :tagId",
+            countQuery = "SELECT COUNT(a) FROM Article a JOIN a.tags t WHERE a.published = true AND t.id = :tagId")
+    Page<ArticleSummaryDto> findPublishedSummariesByTagId(Long tagId, Pageable pageable);
 
     /**
-     * 获取相关推荐文章（同分类下的最新3篇，排除当前文章）
+     * 按创建时间半开区间 [start, end) 查询已发布文章，可使用 create_time 索引
      */
-    List<Article> findTop3ByPublishedTrueAndCategoryIdAndIdNotOrderByCreateTimeDesc(Long categoryId, Long id);
+    @Query(value = SUMMARY_SELECT + "WHERE a.published = true AND a.createTime >= :start AND a.createTime < :end",
+            countQuery = "SELECT COUNT(a) FROM Article a WHERE a.published = true AND a.createTime >= :start AND a.createTime < :end")
+    Page<ArticleSummaryDto> findPublishedSummariesBetween(LocalDateTime start, LocalDateTime end, Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE a.id IN :ids")
+    List<ArticleSummaryDto> findSummariesByIdIn(Collection<Long> ids);
+
+    /**
+     * 获取相关推荐文章（同分类下的最新文章，排除当前文章）
+     */
+    @Query(SUMMARY_SELECT + "WHERE a.published = true AND c.id = :categoryId AND a.id <> :id ORDER BY a.createTime DESC")
+    List<ArticleSummaryDto> findRelatedSummaries(Long categoryId, Long id, Limit limit);
+
+    /**
+     * 游标分页：按 (createTime, id) 倒序定位，不执行 COUNT 查询
+     */
+    @Query(SUMMARY_SELECT + "WHERE a.published = true" + KEYSET_AFTER)
+    List<ArticleSummaryDto> scrollPublishedSummaries(LocalDateTime createTime, Long id, Limit limit);
+
+    @Query(SUMMARY_SELECT + "WHERE a.published = true AND c.id IN :categoryIds" + KEYSET_AFTER)
+    List<ArticleSummaryDto> scrollPublishedSummariesByCategoryIdIn(List<Long> categoryIds, LocalDateTime createTime, Long id, Limit limit);
+
+    @Query(SUMMARY_SELECT + "JOIN a.tags t WHERE a.published = true AND t.id = :tagId" + KEYSET_AFTER)
+    List<ArticleSummaryDto> scrollPublishedSummariesByTagId(Long tagId, LocalDateTime createTime, Long id, Limit limit);
+
+    @Query(SUMMARY_SELECT + "WHERE a.published = true AND a.createTime >= :start AND a.createTime < :end" + KEYSET_AFTER)
+    List<ArticleSummaryDto> scrollPublishedSummariesBetween(LocalDateTime start, LocalDateTime end, LocalDateTime createTime, Long id, Limit limit);
+
+    /**
+     * 批量查询一页文章的标签，返回 [文章ID, 标签]
+     */
+    @Query("SELECT a.id, t FROM Article a JOIN a.tags t WHERE a.id IN :articleIds")
+    List<Object[]> findTagsByArticleIdIn(Collection<Long> articleIds);
+
+    /**
+     * 按月统计指定租户的已发布文章数，返回 [年, 月, 数量]
+     */
+    @Query("SELECT YEAR(a.createTime), MONTH(a.createTime), COUNT(a) FROM Article a WHERE a.tenantId = :tenantId AND a.published = true GROUP BY YEAR(a.createTime), MONTH(a.createTime)")
+    List<Object[]> countPublishedByMonth(Long tenantId);
+
+    @Query("SELECT MAX(a.updateTime) FROM Article a WHERE a.published = true")
+    LocalDateTime findLastPublishedUpdateTime();
 
     /**
      * 获取上一篇文章：创建时间小于当前文章且已发布，按创建时间降序取第一个
@@ -44,10 +118,39 @@ public interface ArticleRepository extends JpaRepository<Article, Long>, JpaSpec
     Optional<Article> findFirstByPublishedTrueAndCreateTimeGreaterThanOrderByCreateTimeAsc(java.time.LocalDateTime createTime);
 
     /**
-     * 基础搜索：根据标题或摘要模糊匹配（已发布文章）
+     * 流式读取全部已发布文章的检索字段（跨租户），用于启动时重建全文索引
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "200"))
+    @Query("SELECT a.id, a.tenantId, a.title, a.summary, a.content FROM Article a WHERE a.published = true")
+    Stream<Object[]> streamPublishedForSearch();
+
+    /**
+     * 流式读取站点地图所需的文章 ID 与更新时间，按 ID 升序
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new club.freecity.cms.dto.ArticleSitemapRow(a.id, a.updateTime) FROM Article a WHERE a.published = true ORDER BY a.id")
+    Stream<ArticleSitemapRow> streamSitemapRows();
+
+    /**
+     * 按 ID 键集读取一个站点地图分片：从 fromId（含）起按 ID 升序的 limit 篇文章
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new club.freecity.cms.dto.ArticleSitemapRow(a.id, a.updateTime) FROM Article a " +
+            "WHERE a.published = true AND a.id >= :fromId ORDER BY a.id")
+    Stream<ArticleSitemapRow> streamSitemapRowsFrom(Long fromId, Limit limit);
+
+    /**
+     * 流式读取已发布文章 ID，按 ID 升序（用于计算站点地图分片边界）
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT a.id FROM Article a WHERE a.published = true ORDER BY a.id")
+    Stream<Long> streamPublishedIds();
+
+    /**
+     * 查询 HTML 站点地图展示的文章链接（仅标题与时间）
      */
-    @Query("SELECT a FROM Article a WHERE a.published = true AND (a.title LIKE %:keyword% OR a.summary LIKE %:keyword%)")
-    Page<Article> searchArticles(String keyword, Pageable pageable);
+    @Query("SELECT new club.freecity.cms.dto.ArticleSitemapRow(a.id, a.title, a.createTime, a.updateTime) FROM Article a WHERE a.published = true ORDER BY a.createTime DESC")
+    List<ArticleSitemapRow> findSitemapLinks();
 
     @Query("SELECT SUM(a.viewCount) FROM Article a")
     Long sumViewCount();
@@ -55,4 +158,17 @@ public interface ArticleRepository extends JpaRepository<Article, Long>, JpaSpec
     @Modifying
     @Query("UPDATE Article a SET a.commentCount = COALESCE(a.commentCount, 0) + :delta WHERE a.id = :id")
     void incrementCommentCount(Long id, int delta);
+
+    /**
+     * 查询预渲染结果已过期（未渲染或渲染策略版本落后）的文章 ID 与原文
+     */
+    @Query("SELECT a.id, a.content FROM Article a WHERE a.renderVersion IS NULL OR a.renderVersion < :version ORDER BY a.id")
+    List<Object[]> findStaleRenderedContent(int version, Pageable pageable);
+
+    /**
+     * 回写预渲染结果（批量更新语句，不触发实体监听器，不会修改 updateTime）
+     */
+    @Modifying
+    @Query("UPDATE Article a SET a.renderedContent = :renderedContent, a.contentHash = :contentHash, a.renderVersion = :renderVersion WHERE a.id = :id")
+    void updateRenderedContent(Long id, String renderedContent, String contentHash, int renderVersion);
 }
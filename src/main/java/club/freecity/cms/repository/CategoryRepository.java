@@ -2,6 +2,8 @@ package club.freecity.cms.repository;
 
 import club.freecity.cms.entity.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 import java.util.Optional;
@@ -11,4 +13,36 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
     Optional<Category> findByName(String name);
     List<Category> findByParentId(Long parentId);
     List<Category> findAllByOrderByWeightDesc();
+
+    @Query("SELECT c.tenantId FROM Category c WHERE c.id = :id")
+    Optional<Long> findTenantIdById(Long id);
+
+    /**
+     * 查询租户下全部分类的父子关系（id, parentId），用于构建分类树索引
+     */
+    @Query("SELECT c.id, c.parentId FROM Category c WHERE c.tenantId = :tenantId")
+    List<Object[]> findTreeEdgesByTenantId(Long tenantId);
+
+    /**
+     * 原子增减文章计数，结果不小于 0
+     */
+    @Modifying
+    @Query("UPDATE Category c SET c.articleCount = CASE WHEN COALESCE(c.articleCount, 0) + :delta < 0 THEN 0 " +
+            "ELSE COALESCE(c.articleCount, 0) + :delta END WHERE c.id = :id")
+    void adjustArticleCount(Long id, int delta);
+
+    /**
+     * 查询文章计数与实际文章数不一致的分类（id, 当前计数, 实际数量），跨租户
+     */
+    @Query(value = "SELECT c.id, COALESCE(c.article_count, 0), COUNT(a.id) FROM category c " +
+            "LEFT JOIN article a ON a.category_id = c.id " +
+            "GROUP BY c.id, c.article_count HAVING COALESCE(c.article_count, 0) <> COUNT(a.id)", nativeQuery = true)
+    List<Object[]> findArticleCountDrift();
+
+    /**
+     * 修正文章计数，仅当计数自读取后未被修改时生效
+     */
+    @Modifying
+    @Query("UPDATE Category c SET c.articleCount = :actual WHERE c.id = :id AND COALESCE(c.articleCount, 0) = :expected")
+    int repairArticleCount(Long id, int expected, int actual);
 }
@@ -0,0 +1,32 @@
+package club.freecity.cms.repository;
+
+import club.freecity.cms.entity.CommentModerationTask;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface CommentModerationTaskRepository extends JpaRepository<CommentModerationTask, Long> {
+
+    Page<CommentModerationTask> findAllByOrderByIdDesc(Pageable pageable);
+
+    /**
+     * 指定状态的任务 ID，跨租户
+     */
+    @Query("SELECT t.id FROM CommentModerationTask t WHERE t.state = :state ORDER BY t.id")
+    List<Long> findIdsByState(String state);
+
+    /**
+     * 锁定任务行，多实例同时执行同一任务时逐段串行推进
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM CommentModerationTask t WHERE t.id = :id")
+    Optional<CommentModerationTask> findForUpdate(Long id);
+}
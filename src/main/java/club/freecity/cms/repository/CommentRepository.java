@@ -1,6 +1,10 @@
 package club.freecity.cms.repository;
 
 import club.freecity.cms.entity.Comment;
+import club.freecity.cms.entity.CommentModerationTask;
+import club.freecity.cms.support.comment.ArticleCommentCount;
+import club.freecity.cms.support.comment.CommentModerationScope;
+import club.freecity.cms.support.comment.CommentThreadRow;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
@@ -10,17 +14,84 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long>, JpaSpecificationExecutor<Comment> {
-    @EntityGraph(attributePaths = {"replies"})
-    Page<Comment> findByArticleIdAndParentIsNullAndStatus(Long articleId, Integer status, Pageable pageable);
+
+    /**
+     * 批量处理任务的筛选条件：租户内、游标之后到 :toId（含）的 ID 段，其余条件为空表示不限；
+     * IP、邮箱为精确匹配，关键字只匹配内容，且仅在 ID 段内逐行判断
+     */
+    String MODERATION_FILTER = "c.tenantId = :#{#task.tenantId} AND c.id > :#{#task.cursorId} AND c.id <= :toId " +
+            "AND (:#{#task.filterStatus} IS NULL OR c.status = :#{#task.filterStatus}) " +
+            "AND (:#{#task.ip} IS NULL OR c.ip = :#{#task.ip}) " +
+            "AND (:#{#task.email} IS NULL OR c.email = :#{#task.email}) " +
+            "AND (:#{#task.startTime} IS NULL OR c.createTime >= :#{#task.startTime}) " +
+            "AND (:#{#task.endTime} IS NULL OR c.createTime < :#{#task.endTime}) " +
+            "AND (:#{#task.keyword} IS NULL OR c.content LIKE CONCAT('%', :#{#task.keyword}, '%'))";
+
+    /**
+     * 读者端评论树：一次查询取出文章下指定状态的全部评论（按创建时间升序），由调用方在内存中组装
+     */
+    @Query("SELECT new club.freecity.cms.support.comment.CommentThreadRow(c.id, c.parent.id, c.nickname, c.content, " +
+            "c.adminReply, c.createTime) FROM Comment c WHERE c.articleId = :articleId AND c.status = :status " +
+            "ORDER BY c.createTime ASC, c.id ASC")
+    List<CommentThreadRow> findThreadRows(Long articleId, Integer status);
 
     @EntityGraph(attributePaths = {"replies"})
     Page<Comment> findByArticleIdAndParentIsNull(Long articleId, Pageable pageable);
 
     @Modifying
-    @Query("UPDATE Comment c SET c.status = :status WHERE c.id IN :ids")
+    @Query("UPDATE Comment c SET c.status = :status, c.updateTime = CURRENT_TIMESTAMP WHERE c.id IN :ids")
     void updateStatusByIds(List<Long> ids, Integer status);
+
+    /**
+     * 按文章统计指定 ID 中处于给定状态的评论数
+     */
+    @Query("SELECT new club.freecity.cms.support.comment.ArticleCommentCount(c.articleId, COUNT(c)) FROM Comment c " +
+            "WHERE c.id IN :ids AND c.status IN :statuses GROUP BY c.articleId")
+    List<ArticleCommentCount> countByArticle(Collection<Long> ids, Collection<Integer> statuses);
+
+    /**
+     * 批量处理任务提交时统计命中评论的数量与 ID 范围
+     */
+    @Query("SELECT new club.freecity.cms.support.comment.CommentModerationScope(COUNT(c), MIN(c.id), MAX(c.id)) " +
+            "FROM Comment c WHERE " + MODERATION_FILTER)
+    CommentModerationScope findModerationScope(CommentModerationTask task, Long toId);
+
+    /**
+     * 统计当前 ID 段内命中筛选条件的评论数（与提交时 total 的口径一致）
+     */
+    @Query("SELECT COUNT(c) FROM Comment c WHERE " + MODERATION_FILTER)
+    long countModeration(CommentModerationTask task, Long toId);
+
+    /**
+     * 租户内游标之后的评论 ID（按 ID 升序），配合偏移量取得下一段的上界，只扫描 (tenant_id, id) 索引
+     */
+    @Query("SELECT c.id FROM Comment c WHERE c.tenantId = :tenantId AND c.id > :afterId ORDER BY c.id")
+    List<Long> findIdsAfter(Long tenantId, Long afterId, Pageable pageable);
+
+    /**
+     * 按文章统计当前 ID 段内命中筛选条件且处于给定状态的评论数
+     */
+    @Query("SELECT new club.freecity.cms.support.comment.ArticleCommentCount(c.articleId, COUNT(c)) FROM Comment c " +
+            "WHERE " + MODERATION_FILTER + " AND c.status IN :statuses GROUP BY c.articleId")
+    List<ArticleCommentCount> countModerationByArticle(CommentModerationTask task, Long toId, Collection<Integer> statuses);
+
+    /**
+     * 修改当前 ID 段内命中筛选条件的评论状态，已是目标状态的不更新
+     */
+    @Modifying
+    @Query("UPDATE Comment c SET c.status = :targetStatus, c.updateTime = CURRENT_TIMESTAMP " +
+            "WHERE " + MODERATION_FILTER + " AND c.status <> :targetStatus")
+    int updateModerationStatus(CommentModerationTask task, Long toId, Integer targetStatus);
+
+    /**
+     * 删除当前 ID 段内命中筛选条件的评论
+     */
+    @Modifying
+    @Query("DELETE FROM Comment c WHERE " + MODERATION_FILTER)
+    int deleteModeration(CommentModerationTask task, Long toId);
 }
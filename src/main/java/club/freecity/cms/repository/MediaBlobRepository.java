@@ -0,0 +1,63 @@
+package club.freecity.cms.repository;
+
+import club.freecity.cms.entity.MediaBlob;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+@Repository
+public interface MediaBlobRepository extends JpaRepository<MediaBlob, Long> {
+
+    Optional<MediaBlob> findByTenantIdAndHash(Long tenantId, String hash);
+
+    /**
+     * 加锁读取最新已提交的记录（不受当前事务快照影响），用于并发上传时接管对方已插入的文件
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM MediaBlob b WHERE b.tenantId = :tenantId AND b.hash = :hash")
+    Optional<MediaBlob> findLockedByTenantIdAndHash(Long tenantId, String hash);
+
+    @Query("SELECT b.id FROM MediaBlob b WHERE b.tenantId = :tenantId AND b.hash = :hash")
+    Long findIdByTenantIdAndHash(Long tenantId, String hash);
+
+    /**
+     * 插入文件记录，(tenant_id, hash) 已存在时不插入并返回 0
+     * 唯一约束冲突会使当前 JPA 事务只能回滚，故以 INSERT IGNORE 的影响行数判断并发上传
+     */
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO media_blob (hash, url, file_path, type, size, ref_count, tenant_id, create_time, update_time) " +
+            "VALUES (:hash, :url, :filePath, :type, :size, 1, :tenantId, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)", nativeQuery = true)
+    int insertIfAbsent(Long tenantId, String hash, String url, String filePath, String type, Long size);
+
+    /**
+     * 增加引用，文件已被回收（引用数为 0）时返回 0
+     */
+    @Modifying
+    @Query("UPDATE MediaBlob b SET b.refCount = b.refCount + 1 WHERE b.id = :id AND b.refCount > 0")
+    int incrementRefCount(Long id);
+
+    @Modifying
+    @Query("UPDATE MediaBlob b SET b.refCount = b.refCount - 1 WHERE b.id = :id AND b.refCount > 0")
+    void decrementRefCount(Long id);
+
+    /**
+     * 删除已无引用的文件记录，返回 1 时调用方负责删除物理文件
+     */
+    @Modifying
+    @Query("DELETE FROM MediaBlob b WHERE b.id = :id AND b.refCount <= 0")
+    int deleteIfUnreferenced(Long id);
+
+    /**
+     * 回写已生成的衍生图宽度（后台线程调用，自带事务）
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE MediaBlob b SET b.variants = :variants WHERE b.id = :id")
+    void updateVariants(Long id, String variants);
+}
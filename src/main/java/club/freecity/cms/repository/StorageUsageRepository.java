@@ -0,0 +1,91 @@
+package club.freecity.cms.repository;
+
+import club.freecity.cms.entity.StorageUsage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface StorageUsageRepository extends JpaRepository<StorageUsage, Long> {
+
+    /**
+     * 文件分类规则：image/* 为图片，PDF、Office、文本为文档，其余（压缩包等）为其他
+     */
+    String DOCUMENT_CONDITION = "(m.type = 'application/pdf' OR m.type = 'application/msword' " +
+            "OR m.type LIKE 'application/vnd.%' OR m.type LIKE 'text/%')";
+
+    /**
+     * 按物理文件统计的占用：(总量, 图片, 文档, 其他)，m 为 (size, type) 行
+     */
+    String USAGE_COLUMNS = "SUM(COALESCE(m.size, 0)) AS total, " +
+            "SUM(CASE WHEN m.type LIKE 'image/%' THEN COALESCE(m.size, 0) ELSE 0 END) AS image, " +
+            "SUM(CASE WHEN m.type NOT LIKE 'image/%' AND " + DOCUMENT_CONDITION + " THEN COALESCE(m.size, 0) ELSE 0 END) AS document, " +
+            "SUM(CASE WHEN m.type IS NULL OR NOT (m.type LIKE 'image/%' OR " + DOCUMENT_CONDITION + ") THEN COALESCE(m.size, 0) ELSE 0 END) AS other";
+
+    /**
+     * 租户首次上传时创建计数行，按该租户已有文件的实际占用初始化；计数行已存在（含并发创建）时不插入并返回 0
+     */
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO storage_usage (tenant_id, used_size, image_size, document_size, other_size, update_time) " +
+            "SELECT :tenantId, COALESCE(s.total, 0), COALESCE(s.image, 0), COALESCE(s.document, 0), COALESCE(s.other, 0), " +
+            "CURRENT_TIMESTAMP FROM (SELECT " + USAGE_COLUMNS + " FROM (" +
+            "SELECT size, type FROM media_blob WHERE tenant_id = :tenantId " +
+            "UNION ALL SELECT size, type FROM media_asset WHERE tenant_id = :tenantId AND content_hash IS NULL) m) s",
+            nativeQuery = true)
+    int initialize(Long tenantId);
+
+    /**
+     * 在配额内原子占用空间，超出配额或计数行不存在时返回 0
+     */
+    @Modifying
+    @Query("UPDATE StorageUsage u SET u.usedSize = u.usedSize + :size, u.imageSize = u.imageSize + :imageSize, " +
+            "u.documentSize = u.documentSize + :documentSize, u.otherSize = u.otherSize + :otherSize, " +
+            "u.updateTime = CURRENT_TIMESTAMP WHERE u.tenantId = :tenantId AND u.usedSize + :size <= :quota")
+    int reserve(Long tenantId, long size, long imageSize, long documentSize, long otherSize, long quota);
+
+    /**
+     * 原子释放空间，结果不小于 0
+     */
+    @Modifying
+    @Query("UPDATE StorageUsage u SET " +
+            "u.usedSize = CASE WHEN u.usedSize < :size THEN 0 ELSE u.usedSize - :size END, " +
+            "u.imageSize = CASE WHEN u.imageSize < :imageSize THEN 0 ELSE u.imageSize - :imageSize END, " +
+            "u.documentSize = CASE WHEN u.documentSize < :documentSize THEN 0 ELSE u.documentSize - :documentSize END, " +
+            "u.otherSize = CASE WHEN u.otherSize < :otherSize THEN 0 ELSE u.otherSize - :otherSize END, " +
+            "u.updateTime = CURRENT_TIMESTAMP WHERE u.tenantId = :tenantId")
+    void release(Long tenantId, long size, long imageSize, long documentSize, long otherSize);
+
+    /**
+     * 为已有文件但尚无计数行的租户补建计数行，跨租户
+     */
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO storage_usage (tenant_id, used_size, image_size, document_size, other_size, update_time) " +
+            "SELECT m.tenant_id, 0, 0, 0, 0, CURRENT_TIMESTAMP FROM media_asset m " +
+            "WHERE NOT EXISTS (SELECT 1 FROM storage_usage u WHERE u.tenant_id = m.tenant_id) " +
+            "GROUP BY m.tenant_id", nativeQuery = true)
+    int initializeMissing();
+
+    /**
+     * 查询计数与实际占用不一致的租户，按物理文件统计：去重文件取 media_blob，去重前上传的文件取 media_asset
+     * (tenant_id, 当前总量, 实际总量, 实际图片, 实际文档, 实际其他)，跨租户
+     */
+    @Query(value = "SELECT u.tenant_id, u.used_size, COALESCE(s.total, 0), COALESCE(s.image, 0), " +
+            "COALESCE(s.document, 0), COALESCE(s.other, 0) FROM storage_usage u LEFT JOIN (" +
+            "SELECT m.tenant_id, " + USAGE_COLUMNS + " FROM (SELECT tenant_id, size, type FROM media_blob " +
+            "UNION ALL SELECT tenant_id, size, type FROM media_asset WHERE content_hash IS NULL) m " +
+            "GROUP BY m.tenant_id) s ON s.tenant_id = u.tenant_id " +
+            "WHERE u.used_size <> COALESCE(s.total, 0) OR u.image_size <> COALESCE(s.image, 0) " +
+            "OR u.document_size <> COALESCE(s.document, 0) OR u.other_size <> COALESCE(s.other, 0)", nativeQuery = true)
+    List<Object[]> findUsageDrift();
+
+    /**
+     * 修正用量计数，仅当总量自读取后未被修改时生效
+     */
+    @Modifying
+    @Query("UPDATE StorageUsage u SET u.usedSize = :size, u.imageSize = :imageSize, u.documentSize = :documentSize, " +
+            "u.otherSize = :otherSize, u.updateTime = CURRENT_TIMESTAMP WHERE u.tenantId = :tenantId AND u.usedSize = :expected")
+    int repair(Long tenantId, long expected, long size, long imageSize, long documentSize, long otherSize);
+}
@@ -1,11 +1,50 @@
 package club.freecity.cms.repository;
 
 import club.freecity.cms.entity.Tag;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface TagRepository extends JpaRepository<Tag, Long> {
     Optional<Tag> findByName(String name);
+
+    List<Tag> findByNameIn(Collection<String> names);
+
+    /**
+     * 按名称批量查询（锁定读），可读取到其他事务刚提交的标签
+     * 使用排他锁：同一事务随后会更新这些标签的文章计数，共享锁升级为排他锁时并发保存会互相死锁
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Tag t WHERE t.name IN :names")
+    List<Tag> findLockedByNameIn(Collection<String> names);
+
+    /**
+     * 批量原子增减文章计数，结果不小于 0
+     */
+    @Modifying
+    @Query("UPDATE Tag t SET t.articleCount = CASE WHEN COALESCE(t.articleCount, 0) + :delta < 0 THEN 0 " +
+            "ELSE COALESCE(t.articleCount, 0) + :delta END WHERE t.id IN :ids")
+    void adjustArticleCounts(Collection<Long> ids, int delta);
+
+    /**
+     * 查询文章计数与实际关联数不一致的标签（id, 当前计数, 实际数量），跨租户
+     */
+    @Query(value = "SELECT t.id, COALESCE(t.article_count, 0), COUNT(at.article_id) FROM tag t " +
+            "LEFT JOIN article_tag at ON at.tag_id = t.id " +
+            "GROUP BY t.id, t.article_count HAVING COALESCE(t.article_count, 0) <> COUNT(at.article_id)", nativeQuery = true)
+    List<Object[]> findArticleCountDrift();
+
+    /**
+     * 修正文章计数，仅当计数自读取后未被修改时生效
+     */
+    @Modifying
+    @Query("UPDATE Tag t SET t.articleCount = :actual WHERE t.id = :id AND COALESCE(t.articleCount, 0) = :expected")
+    int repairArticleCount(Long id, int expected, int actual);
 }
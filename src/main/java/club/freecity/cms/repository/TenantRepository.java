@@ -5,6 +5,9 @@ import club.freecity.cms.entity.Tenant;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
 import java.util.Optional;
 
 public interface TenantRepository extends JpaRepository<Tenant, Long> {
@@ -13,4 +16,18 @@ public interface TenantRepository extends JpaRepository<Tenant, Long> {
     Optional<Tenant> findByCode(String code);
     
     long countByStatus(String status);
+
+    Optional<Tenant> findByCustomDomain(String customDomain);
+
+    /**
+     * 租户识别快照：一次查询加载全部租户及套餐
+     */
+    @Query("SELECT t FROM Tenant t LEFT JOIN FETCH t.packageInfo")
+    List<Tenant> findAllWithPackage();
+
+    /**
+     * 查询租户套餐的存储配额(MB)，不加载实体
+     */
+    @Query("SELECT p.maxStorage FROM Tenant t JOIN t.packageInfo p WHERE t.id = :id")
+    Optional<Long> findMaxStorageById(Long id);
 }
@@ -1,6 +1,7 @@
 package club.freecity.cms.security;
 
 import club.freecity.cms.common.TenantContext;
+import club.freecity.cms.util.JwtToken;
 import club.freecity.cms.util.JwtUtils;
 import club.freecity.cms.common.SecurityConstants;
 import jakarta.servlet.FilterChain;
@@ -42,12 +43,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         jwt = authHeader.substring(7);
         try {
-            username = jwtUtils.extractUsername(jwt);
+            // 每个请求只解析一次 Token，验签结果在有效期内缓存
+            JwtToken token = jwtUtils.parseToken(jwt);
+            username = token.getUsername();
             if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
                 // 在加载用户信息前，先从 JWT 中提取租户信息并设置到上下文
                 // 这样 UserDetailsService 中的 Repository 查询才能正确匹配到租户
-                Long tenantId = jwtUtils.extractTenantId(jwt);
-                String tenantCode = jwtUtils.extractTenantCode(jwt);
+                Long tenantId = token.getTenantId();
+                String tenantCode = token.getTenantCode();
                 if (tenantId != null) {
                     TenantContext.setCurrentTenant(tenantId, tenantCode);
                 }
@@ -62,10 +65,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 }
 
                 // 校验 Token 有效性，并确保类型为 access
-                if (jwtUtils.validateToken(jwt, userDetails.getUsername()) && SecurityConstants.TOKEN_TYPE_ACCESS.equals(jwtUtils.extractType(jwt))) {
+                if (username.equals(userDetails.getUsername()) && !token.isExpired() && token.isAccessToken()) {
                     // 校验密码版本/更新时间，如果 Token 中的时间早于数据库中的时间，说明密码已更改，Token 失效
                     if (userDetails instanceof CustomUserDetails customUserDetails) {
-                        Long tokenPwdUpdateTime = jwtUtils.extractPasswordUpdateTime(jwt);
+                        Long tokenPwdUpdateTime = token.getPasswordUpdateTime();
                         LocalDateTime dbPwdUpdateTime = customUserDetails.getPasswordUpdateTime();
                         
                         if (dbPwdUpdateTime != null) {
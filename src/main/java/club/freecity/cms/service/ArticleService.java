@@ -2,6 +2,8 @@ package club.freecity.cms.service;
 
 import club.freecity.cms.dto.ArticleDto;
 import club.freecity.cms.dto.ArchiveDto;
+import club.freecity.cms.dto.ArticleSummaryDto;
+import club.freecity.cms.dto.CursorPage;
 import jakarta.validation.constraints.NotNull;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -13,22 +15,38 @@ public interface ArticleService {
     ArticleDto updateArticle(@NotNull ArticleDto articleDto);
     void deleteArticle(@NotNull Long id);
     ArticleDto getArticleById(@NotNull Long id);
-    Page<ArticleDto> listAllArticles(String title, Boolean published, Pageable pageable);
-    Page<ArticleDto> listPublishedArticles(Pageable pageable);
-    Page<ArticleDto> listArticlesByCategory(@NotNull Long categoryId, Pageable pageable);
-    Page<ArticleDto> listPublishedArticlesByCategory(@NotNull Long categoryId, Pageable pageable);
-    Page<ArticleDto> listArticlesByTag(@NotNull Long tagId, Pageable pageable);
-    Page<ArticleDto> listPublishedArticlesByTag(@NotNull Long tagId, Pageable pageable);
+    Page<ArticleSummaryDto> listAllArticles(String title, Boolean published, Pageable pageable);
+    Page<ArticleSummaryDto> listPublishedArticles(Pageable pageable);
+    Page<ArticleSummaryDto> listArticlesByCategory(@NotNull Long categoryId, Pageable pageable);
+    Page<ArticleSummaryDto> listPublishedArticlesByCategory(@NotNull Long categoryId, Pageable pageable);
+    Page<ArticleSummaryDto> listArticlesByTag(@NotNull Long tagId, Pageable pageable);
+    Page<ArticleSummaryDto> listPublishedArticlesByTag(@NotNull Long tagId, Pageable pageable);
     void incrementViewCount(@NotNull Long id);
     long countPublishedArticles();
     List<ArchiveDto> listArchives();
-    Page<ArticleDto> listPublishedArticlesByYear(String year, Pageable pageable);
+
+    /**
+     * 获取指定年份的月度归档（按月份倒序）
+     */
+    List<ArchiveDto> listMonthArchives(String year);
+    Page<ArticleSummaryDto> listPublishedArticlesByYear(String year, Pageable pageable);
+    Page<ArticleSummaryDto> listPublishedArticlesByMonth(String year, int month, Pageable pageable);
     LocalDateTime getLastUpdateTime();
 
+    /**
+     * 游标分页获取已发布文章（按创建时间倒序，不统计总数）
+     * @param cursor 上一页返回的游标，为空时从第一页开始
+     */
+    CursorPage<ArticleSummaryDto> scrollPublishedArticles(String cursor, int size);
+    CursorPage<ArticleSummaryDto> scrollPublishedArticlesByCategory(@NotNull Long categoryId, String cursor, int size);
+    CursorPage<ArticleSummaryDto> scrollPublishedArticlesByTag(@NotNull Long tagId, String cursor, int size);
+    CursorPage<ArticleSummaryDto> scrollPublishedArticlesByYear(String year, String cursor, int size);
+    CursorPage<ArticleSummaryDto> scrollPublishedArticlesByMonth(String year, int month, String cursor, int size);
+
     /**
      * 获取相关文章推荐
      */
-    List<ArticleDto> listRelatedArticles(Long articleId, Long categoryId);
+    List<ArticleSummaryDto> listRelatedArticles(Long articleId, Long categoryId);
 
     /**
      * 获取上一篇文章
@@ -43,5 +61,12 @@ public interface ArticleService {
     /**
      * 搜索文章
      */
-    Page<ArticleDto> searchArticles(String keyword, Pageable pageable);
+    Page<ArticleSummaryDto> searchArticles(String keyword, Pageable pageable);
+
+    /**
+     * 重新渲染预渲染结果已过期的文章（跨租户）
+     * @param batchSize 单批处理数量
+     * @return 本批实际刷新的文章数
+     */
+    int refreshStaleRenderedContent(int batchSize);
 }
@@ -1,6 +1,5 @@
 package club.freecity.cms.service;
 
-import club.freecity.cms.common.SecurityConstants;
 import club.freecity.cms.common.TenantContext;
 import club.freecity.cms.security.CustomUserDetails;
 import club.freecity.cms.dto.AuthResponseDto;
@@ -8,6 +7,8 @@ import club.freecity.cms.dto.LoginDto;
 import club.freecity.cms.entity.User;
 import club.freecity.cms.exception.BusinessException;
 import club.freecity.cms.repository.UserRepository;
+import club.freecity.cms.tenant.TenantSessionFilter;
+import club.freecity.cms.util.JwtToken;
 import club.freecity.cms.util.JwtUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -32,6 +33,7 @@ public class AuthService {
     private final UserService userService;
     private final JwtUtils jwtUtils;
     private final AuthenticationManager authenticationManager;
+    private final TenantSessionFilter tenantSessionFilter;
 
     private static final int MAX_LOGIN_FAIL_COUNT = 3;
     private static final int LOCKOUT_MINUTES = 5;
@@ -112,25 +114,27 @@ public class AuthService {
     @Transactional(readOnly = true)
     public AuthResponseDto refreshToken(String refreshToken) {
         try {
-            String username = jwtUtils.extractUsername(refreshToken);
-            String type = jwtUtils.extractType(refreshToken);
+            JwtToken token = jwtUtils.parseToken(refreshToken);
+            String username = token.getUsername();
             
-            if (!SecurityConstants.TOKEN_TYPE_REFRESH.equals(type)) {
+            if (!token.isRefreshToken()) {
                 throw new BusinessException("无效的 Refresh Token");
             }
 
             // 设置租户上下文，以便查询用户信息
-            Long tenantId = jwtUtils.extractTenantId(refreshToken);
-            String tenantCode = jwtUtils.extractTenantCode(refreshToken);
+            Long tenantId = token.getTenantId();
+            String tenantCode = token.getTenantCode();
             if (tenantId != null) {
                 club.freecity.cms.common.TenantContext.setCurrentTenant(tenantId, tenantCode);
+                // 事务会话已按请求域名的租户初始化过滤器，切换租户后需重新设置
+                tenantSessionFilter.refreshCurrentSession();
             }
 
             User user = userRepository.findByUsername(username)
                     .orElseThrow(() -> new BusinessException("用户不存在"));
 
             // 校验密码更新时间，如果 Refresh Token 中的时间早于数据库中的时间，说明密码已更改，Refresh Token 失效
-            Long tokenPwdUpdateTime = jwtUtils.extractPasswordUpdateTime(refreshToken);
+            Long tokenPwdUpdateTime = token.getPasswordUpdateTime();
             if (user.getPasswordUpdateTime() != null) {
                 long dbTimeMillis = user.getPasswordUpdateTime().atZone(java.time.ZoneId.systemDefault()).toInstant().toEpochMilli();
                 if (tokenPwdUpdateTime == null || tokenPwdUpdateTime < dbTimeMillis - 1000) {
@@ -17,4 +17,10 @@ public interface CategoryService {
     long countCategories();
     void increaseArticleCount(Long id);
     void decreaseArticleCount(Long id);
+
+    /**
+     * 按实际文章数修正全部分类的文章计数（跨租户）
+     * @return 修正的分类数
+     */
+    int reconcileArticleCounts();
 }
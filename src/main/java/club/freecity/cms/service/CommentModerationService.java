@@ -0,0 +1,34 @@
+package club.freecity.cms.service;
+
+import club.freecity.cms.dto.CommentModerationTaskDto;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * 按条件批量处理评论（审核状态修改、删除），以可恢复的后台任务分段执行
+ */
+public interface CommentModerationService {
+
+    /**
+     * 提交批量处理任务，返回命中数量；任务由后台分段执行
+     */
+    CommentModerationTaskDto submit(@NotNull CommentModerationTaskDto taskDto);
+
+    CommentModerationTaskDto getTask(@NotNull Long id);
+
+    Page<CommentModerationTaskDto> listTasks(Pageable pageable);
+
+    void cancel(@NotNull Long id);
+
+    /**
+     * 从游标处继续执行失败或已取消的任务
+     */
+    void resume(@NotNull Long id);
+
+    /**
+     * 推进所有执行中的任务，每个任务本轮最多处理 maxChunks 段，跨租户
+     * @return 本轮处理的评论数
+     */
+    long runPendingTasks(int maxChunks);
+}
@@ -13,6 +13,12 @@ public interface FileService {
      */
     StorageStatsDto getStorageStats();
 
+    /**
+     * 按实际文件汇总校准各租户存储用量计数（跨租户）
+     * @return 修正的租户数
+     */
+    int reconcileStorageUsage();
+
     /**
      * 上传文件并返回访问路径
      * @param file 文件对象
@@ -0,0 +1,97 @@
+package club.freecity.cms.service;
+
+import club.freecity.cms.common.GlobalOperation;
+import club.freecity.cms.entity.Article;
+import club.freecity.cms.event.ContentChangedEvent;
+import club.freecity.cms.repository.ArticleRepository;
+import club.freecity.cms.support.httpcache.ContentVersions;
+import club.freecity.cms.support.search.ArticleSearchIndex;
+import club.freecity.cms.support.search.SearchDocument;
+import club.freecity.cms.util.MarkdownUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * 全文索引维护服务
+ * 启动后全量重建，文章保存、更新、删除提交后增量更新
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SearchIndexService {
+
+    private final ArticleRepository articleRepository;
+    private final ArticleSearchIndex articleSearchIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final ContentVersions contentVersions;
+
+    @Async
+    @GlobalOperation
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        rebuild();
+    }
+
+    /**
+     * 流式扫描全部已发布文章重建索引
+     */
+    @GlobalOperation
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        ArticleSearchIndex.RebuildSession session = articleSearchIndex.beginRebuild();
+        AtomicInteger count = new AtomicInteger();
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<Object[]> rows = articleRepository.streamPublishedForSearch()) {
+                rows.forEach(row -> {
+                    session.add((Long) row[1], new SearchDocument((Long) row[0], (String) row[2],
+                            (String) row[3], MarkdownUtils.toPlainText((String) row[4])));
+                    count.incrementAndGet();
+                });
+            }
+        });
+        // 重建期间发生变更的文章以最新数据为准
+        Set<Long> changed = articleSearchIndex.completeRebuild(session);
+        changed.forEach(this::reindex);
+        // 重建期间可能已按旧索引响应并发放了 ETag
+        contentVersions.bump(null);
+        log.info("全文索引重建完成，共 {} 篇文章，耗时 {} ms", count.get(), System.currentTimeMillis() - start);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onContentChanged(ContentChangedEvent event) {
+        if (event.getType() != ContentChangedEvent.ContentType.ARTICLE) {
+            return;
+        }
+        if (event.isRemoved()) {
+            articleSearchIndex.remove(event.getTenantId(), event.getId());
+        } else {
+            reindex(event.getId());
+        }
+        // 内容版本可能先于索引更新递增，索引更新后再次递增，使期间缓存的旧搜索结果失效
+        contentVersions.bump(event.getTenantId());
+    }
+
+    private void reindex(Long articleId) {
+        articleRepository.findById(articleId).ifPresentOrElse(this::index,
+                () -> articleSearchIndex.remove(null, articleId));
+    }
+
+    private void index(Article article) {
+        if (Boolean.TRUE.equals(article.getPublished())) {
+            articleSearchIndex.put(article.getTenantId(), new SearchDocument(article.getId(), article.getTitle(),
+                    article.getSummary(), MarkdownUtils.toPlainText(article.getContent())));
+        } else {
+            articleSearchIndex.remove(article.getTenantId(), article.getId());
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package club.freecity.cms.service;
+
+import club.freecity.cms.common.NamedThreadFactory;
+import club.freecity.cms.common.TenantContext;
+import club.freecity.cms.dto.SidebarSnapshot;
+import club.freecity.cms.dto.TenantDto;
+import club.freecity.cms.event.ContentChangedEvent;
+import club.freecity.cms.support.httpcache.ContentVersions;
+import club.freecity.cms.support.pagecache.PageCache;
+import club.freecity.cms.support.pagecache.PageCacheTags;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 前台侧边栏快照缓存
+ * 按租户缓存 SidebarSnapshot，内容变更后在独立线程池中异步重建，重建期间继续返回旧快照；
+ * 重建期间渲染的页面带有旧侧边栏，重建完成后再次失效页面缓存中依赖侧边栏的页面，并递增租户内容版本（ETag）
+ */
+@Slf4j
+@Service
+public class SidebarCacheService {
+
+    private final ArticleService articleService;
+    private final CategoryService categoryService;
+    private final TagService tagService;
+    private final TenantService tenantService;
+    private final PageCache pageCache;
+    private final ContentVersions contentVersions;
+
+    private final ExecutorService refreshExecutor;
+    private final AsyncLoadingCache<Long, SidebarSnapshot> cache;
+
+    public SidebarCacheService(ArticleService articleService,
+                               CategoryService categoryService,
+                               TagService tagService,
+                               TenantService tenantService,
+                               PageCache pageCache,
+                               ContentVersions contentVersions,
+                               @Value("${app.sidebar.refresh-after-write:300}") long refreshAfterWriteSeconds) {
+        this.articleService = articleService;
+        this.categoryService = categoryService;
+        this.tagService = tagService;
+        this.tenantService = tenantService;
+        this.pageCache = pageCache;
+        this.contentVersions = contentVersions;
+        this.refreshExecutor = Executors.newFixedThreadPool(2, new NamedThreadFactory("sidebar-refresh", true));
+        // 加载在独立线程中执行，不继承请求线程的租户与登录上下文
+        this.cache = Caffeine.newBuilder()
+                .refreshAfterWrite(refreshAfterWriteSeconds, TimeUnit.SECONDS)
+                .expireAfterAccess(1, TimeUnit.HOURS)
+                .maximumSize(1000)
+                .executor(refreshExecutor)
+                .buildAsync(this::loadSnapshot);
+    }
+
+    /**
+     * 获取当前租户的侧边栏快照
+     */
+    public SidebarSnapshot getCurrentSnapshot() {
+        Long tenantId = TenantContext.getCurrentTenantId();
+        if (tenantId == null) {
+            return buildSnapshot(tenantService.getCurrentTenantConfig());
+        }
+        return cache.get(tenantId).join();
+    }
+
+    /**
+     * 文章、分类、标签或租户配置变更提交后异步重建对应租户的快照
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onContentChanged(ContentChangedEvent event) {
+        if (event.getType() == ContentChangedEvent.ContentType.COMMENT) {
+            return;
+        }
+        Long tenantId = event.getType() == ContentChangedEvent.ContentType.TENANT ? event.getId() : event.getTenantId();
+        if (tenantId == null) {
+            cache.synchronous().asMap().keySet().forEach(this::refresh);
+        } else if (event.getType() == ContentChangedEvent.ContentType.TENANT && event.isRemoved()) {
+            cache.synchronous().invalidate(tenantId);
+        } else if (cache.getIfPresent(tenantId) != null) {
+            refresh(tenantId);
+        }
+    }
+
+    private void refresh(Long tenantId) {
+        cache.synchronous().refresh(tenantId)
+                .thenRun(() -> {
+                    pageCache.evict(tenantId, PageCacheTags.SIDEBAR);
+                    contentVersions.bump(tenantId);
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    private SidebarSnapshot loadSnapshot(Long tenantId) {
+        TenantDto tenant = tenantService.getTenantById(tenantId);
+        try {
+            TenantContext.setCurrentTenant(tenantId, tenant.getCode());
+            return buildSnapshot(tenant);
+        } finally {
+            TenantContext.clear();
+        }
+    }
+
+    private SidebarSnapshot buildSnapshot(TenantDto tenant) {
+        return SidebarSnapshot.builder()
+                .tenantConfig(tenant)
+                .articleCount(articleService.countPublishedArticles())
+                .categoryCount(categoryService.countCategories())
+                .tagCount(tagService.countTags())
+                .recentArticles(List.copyOf(articleService.listPublishedArticles(
+                        PageRequest.of(0, 5, Sort.by(Sort.Direction.DESC, "createTime"))).getContent()))
+                .asideCategories(List.copyOf(categoryService.listCategoryTree()))
+                .archives(List.copyOf(articleService.listArchives()))
+                .lastUpdateTime(articleService.getLastUpdateTime())
+                .build();
+    }
+}
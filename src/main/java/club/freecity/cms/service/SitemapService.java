@@ -0,0 +1,219 @@
+package club.freecity.cms.service;
+
+import club.freecity.cms.common.ResultCode;
+import club.freecity.cms.common.TenantContext;
+import club.freecity.cms.dto.ArticleSitemapRow;
+import club.freecity.cms.dto.CategoryDto;
+import club.freecity.cms.dto.TagDto;
+import club.freecity.cms.dto.ToolPage;
+import club.freecity.cms.exception.BusinessException;
+import club.freecity.cms.repository.ArticleRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * sitemap.xml 流式生成
+ * 文章只读取 ID 与更新时间并边查边写；单个文件超过 50000 个 URL 时拆分为站点地图索引 + 子文件
+ * 子文件按 ID 键集分片：各分片的起始 ID 由一次 ID 扫描算出并按租户缓存（与 sitemap 的 Cache-Control 同为 1 小时），
+ * 读取第 N 个分片只扫描该分片的行
+ */
+@Service
+@RequiredArgsConstructor
+public class SitemapService {
+
+    public static final int MAX_URLS_PER_FILE = 50_000;
+
+    private static final String NAMESPACE = "http://www.sitemaps.org/schemas/sitemap/0.9";
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ISO_LOCAL_DATE;
+    private static final XMLOutputFactory XML_OUTPUT_FACTORY = XMLOutputFactory.newFactory();
+
+    private final ArticleRepository articleRepository;
+    private final CategoryService categoryService;
+    private final TagService tagService;
+
+    private final Cache<Long, List<Long>> partBoundaries = Caffeine.newBuilder()
+            .expireAfterWrite(1, TimeUnit.HOURS)
+            .maximumSize(10_000)
+            .build();
+
+    /**
+     * 输出 /sitemap.xml：内容较少时直接输出完整 urlset，否则输出站点地图索引
+     */
+    @Transactional(readOnly = true)
+    public void writeSitemap(String baseUrl, OutputStream out) throws XMLStreamException {
+        long articleCount = articleRepository.countByPublishedTrue();
+        List<PageUrl> pages = listPageUrls();
+        XMLStreamWriter writer = XML_OUTPUT_FACTORY.createXMLStreamWriter(out, "UTF-8");
+        if (articleCount + pages.size() <= MAX_URLS_PER_FILE) {
+            startDocument(writer, "urlset");
+            writePageUrls(writer, baseUrl, pages);
+            try (Stream<ArticleSitemapRow> rows = articleRepository.streamSitemapRows()) {
+                rows.forEach(row -> writeArticleUrl(writer, baseUrl, row));
+            }
+        } else {
+            LocalDateTime lastUpdate = articleRepository.findLastPublishedUpdateTime();
+            startDocument(writer, "sitemapindex");
+            writeSitemapRef(writer, baseUrl + "/sitemap-pages.xml", lastUpdate);
+            for (int part = 1; part <= partStartIds().size(); part++) {
+                writeSitemapRef(writer, baseUrl + "/sitemap-articles-" + part + ".xml", lastUpdate);
+            }
+        }
+        endDocument(writer);
+    }
+
+    /**
+     * 输出 /sitemap-pages.xml：首页、栏目页、分类、标签与工具页
+     */
+    @Transactional(readOnly = true)
+    public void writePagesSitemap(String baseUrl, OutputStream out) throws XMLStreamException {
+        XMLStreamWriter writer = XML_OUTPUT_FACTORY.createXMLStreamWriter(out, "UTF-8");
+        startDocument(writer, "urlset");
+        writePageUrls(writer, baseUrl, listPageUrls());
+        endDocument(writer);
+    }
+
+    /**
+     * 输出 /sitemap-articles-{part}.xml：按 ID 顺序的第 part 个 50000 篇文章
+     */
+    @Transactional(readOnly = true)
+    public void writeArticlesSitemap(String baseUrl, int part, OutputStream out) throws XMLStreamException {
+        List<Long> startIds = partStartIds();
+        if (part < 1 || part > Math.max(1, startIds.size())) {
+            throw new BusinessException(ResultCode.NOT_FOUND.getCode(), "站点地图不存在");
+        }
+        XMLStreamWriter writer = XML_OUTPUT_FACTORY.createXMLStreamWriter(out, "UTF-8");
+        startDocument(writer, "urlset");
+        if (!startIds.isEmpty()) {
+            try (Stream<ArticleSitemapRow> rows = articleRepository.streamSitemapRowsFrom(
+                    startIds.get(part - 1), Limit.of(MAX_URLS_PER_FILE))) {
+                rows.forEach(row -> writeArticleUrl(writer, baseUrl, row));
+            }
+        }
+        endDocument(writer);
+    }
+
+    /**
+     * HTML 站点地图的文章链接（不加载正文与关联）
+     */
+    @Transactional(readOnly = true)
+    public List<ArticleSitemapRow> listArticleLinks() {
+        return articleRepository.findSitemapLinks();
+    }
+
+    /**
+     * 各文章分片的起始 ID（每 50000 个 ID 取一个），无租户上下文时不缓存
+     */
+    private List<Long> partStartIds() {
+        Long tenantId = TenantContext.getCurrentTenantId();
+        if (tenantId == null) {
+            return loadPartStartIds();
+        }
+        return partBoundaries.get(tenantId, key -> loadPartStartIds());
+    }
+
+    private List<Long> loadPartStartIds() {
+        List<Long> startIds = new ArrayList<>();
+        try (Stream<Long> ids = articleRepository.streamPublishedIds()) {
+            long[] index = {0};
+            ids.forEach(id -> {
+                if (index[0]++ % MAX_URLS_PER_FILE == 0) {
+                    startIds.add(id);
+                }
+            });
+        }
+        return List.copyOf(startIds);
+    }
+
+    private List<PageUrl> listPageUrls() {
+        List<PageUrl> pages = new ArrayList<>(List.of(
+                new PageUrl("/", null, "daily", "1.0"),
+                new PageUrl("/archives.html", null, "daily", "0.8"),
+                new PageUrl("/categories.html", null, "weekly", "0.7"),
+                new PageUrl("/tags.html", null, "weekly", "0.7"),
+                new PageUrl("/links.html", null, "monthly", "0.5"),
+                new PageUrl("/about.html", null, "monthly", "0.5")));
+        for (CategoryDto category : categoryService.listAllCategories()) {
+            pages.add(new PageUrl("/category/" + category.getId(), null, "weekly", "0.6"));
+        }
+        for (TagDto tag : tagService.listAllTags()) {
+            pages.add(new PageUrl("/tag/" + tag.getId(), null, "weekly", "0.6"));
+        }
+        for (ToolPage tool : ToolPage.loadFromClasspath()) {
+            pages.add(new PageUrl(tool.getPath(), tool.getLastmod(), "monthly", "0.5"));
+        }
+        return pages;
+    }
+
+    private void startDocument(XMLStreamWriter writer, String root) throws XMLStreamException {
+        writer.writeStartDocument("UTF-8", "1.0");
+        writer.writeStartElement(root);
+        writer.writeDefaultNamespace(NAMESPACE);
+    }
+
+    private void endDocument(XMLStreamWriter writer) throws XMLStreamException {
+        writer.writeEndElement();
+        writer.writeEndDocument();
+        writer.flush();
+        writer.close();
+    }
+
+    private void writePageUrls(XMLStreamWriter writer, String baseUrl, List<PageUrl> pages) throws XMLStreamException {
+        for (PageUrl page : pages) {
+            writeUrl(writer, baseUrl + page.path(), page.lastmod(), page.changefreq(), page.priority());
+        }
+    }
+
+    private void writeArticleUrl(XMLStreamWriter writer, String baseUrl, ArticleSitemapRow row) {
+        String lastmod = row.getUpdateTime() != null ? row.getUpdateTime().format(DATE_FORMAT) : null;
+        try {
+            writeUrl(writer, baseUrl + "/article/" + row.getId(), lastmod, "weekly", "0.9");
+        } catch (XMLStreamException e) {
+            throw new IllegalStateException("写入站点地图失败", e);
+        }
+    }
+
+    private void writeUrl(XMLStreamWriter writer, String loc, String lastmod, String changefreq, String priority)
+            throws XMLStreamException {
+        writer.writeStartElement("url");
+        writeElement(writer, "loc", loc);
+        if (lastmod != null) {
+            writeElement(writer, "lastmod", lastmod);
+        }
+        writeElement(writer, "changefreq", changefreq);
+        writeElement(writer, "priority", priority);
+        writer.writeEndElement();
+    }
+
+    private void writeSitemapRef(XMLStreamWriter writer, String loc, LocalDateTime lastUpdate) throws XMLStreamException {
+        writer.writeStartElement("sitemap");
+        writeElement(writer, "loc", loc);
+        if (lastUpdate != null) {
+            writeElement(writer, "lastmod", lastUpdate.format(DATE_FORMAT));
+        }
+        writer.writeEndElement();
+    }
+
+    private void writeElement(XMLStreamWriter writer, String name, String text) throws XMLStreamException {
+        writer.writeStartElement(name);
+        writer.writeCharacters(text);
+        writer.writeEndElement();
+    }
+
+    private record PageUrl(String path, String lastmod, String changefreq, String priority) {
+    }
+}
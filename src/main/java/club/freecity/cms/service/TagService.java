@@ -3,6 +3,7 @@ package club.freecity.cms.service;
 import club.freecity.cms.dto.TagDto;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import java.util.Collection;
 import java.util.List;
 
 public interface TagService {
@@ -14,4 +15,20 @@ public interface TagService {
     long countTags();
     void increaseArticleCount(Long id);
     void decreaseArticleCount(Long id);
+
+    /**
+     * 在独立事务中批量新建标签；与并发创建的同名标签冲突时抛出 DataIntegrityViolationException，整批回滚
+     */
+    void createTags(Collection<String> names);
+
+    /**
+     * 批量增减标签文章计数（单条更新语句）
+     */
+    void adjustArticleCounts(Collection<Long> ids, int delta);
+
+    /**
+     * 按实际关联数修正全部标签的文章计数（跨租户）
+     * @return 修正的标签数
+     */
+    int reconcileArticleCounts();
 }
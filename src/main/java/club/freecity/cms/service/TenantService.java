@@ -5,6 +5,7 @@ import club.freecity.cms.converter.BeanConverter;
 import club.freecity.cms.enums.TenantStatus;
 import club.freecity.cms.dto.*;
 import club.freecity.cms.entity.Tenant;
+import club.freecity.cms.event.ContentChangedEvent;
 import club.freecity.cms.entity.Package;
 import club.freecity.cms.exception.BusinessException;
 import club.freecity.cms.repository.PackageRepository;
@@ -14,6 +15,7 @@ import lombok.extern.slf4j.Slf4j;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
@@ -37,10 +39,14 @@ public class TenantService {
     private final PackageRepository packageRepository;
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Value("${app.tenant.default-code:admin}")
     private String defaultTenantCode;
 
+    @Value("${app.tenant.base-domain}")
+    private String baseDomain;
+
     @Transactional(readOnly = true)
     public List<TenantDto> listAllTenants() {
         return tenantRepository.findAll().stream()
@@ -74,8 +80,11 @@ public class TenantService {
                     .orElseThrow(() -> new BusinessException("套餐不存在"));
             tenant.setPackageInfo(pkg);
         }
+        validateCustomDomain(tenant);
         
         tenant = tenantRepository.save(tenant);
+        eventPublisher.publishEvent(ContentChangedEvent.updated(
+                ContentChangedEvent.ContentType.TENANT, tenant.getId(), tenant.getId()));
         
         // 自动创建租户管理员
         String adminUsername = tenant.getCode();
@@ -110,8 +119,12 @@ public class TenantService {
                     .orElseThrow(() -> new BusinessException("套餐不存在"));
             tenant.setPackageInfo(pkg);
         }
+        validateCustomDomain(tenant);
         
-        return BeanConverter.toDto(tenantRepository.save(tenant));
+        Tenant savedTenant = tenantRepository.save(tenant);
+        eventPublisher.publishEvent(ContentChangedEvent.updated(
+                ContentChangedEvent.ContentType.TENANT, savedTenant.getId(), savedTenant.getId()));
+        return BeanConverter.toDto(savedTenant);
     }
 
     @Transactional(readOnly = true)
@@ -143,5 +156,28 @@ public class TenantService {
         }
         
         tenantRepository.deleteById(id);
+        eventPublisher.publishEvent(ContentChangedEvent.removed(
+                ContentChangedEvent.ContentType.TENANT, id, id));
+    }
+
+    /**
+     * 自定义域名需套餐支持，且不能与平台域名或其他租户冲突
+     */
+    private void validateCustomDomain(Tenant tenant) {
+        String domain = tenant.getCustomDomain();
+        if (domain == null) {
+            return;
+        }
+        if (tenant.getPackageInfo() == null || !Boolean.TRUE.equals(tenant.getPackageInfo().getCustomDomainEnabled())) {
+            throw new BusinessException("当前套餐不支持自定义域名");
+        }
+        if (domain.equals(baseDomain) || domain.endsWith("." + baseDomain)) {
+            throw new BusinessException("自定义域名不能使用平台域名");
+        }
+        tenantRepository.findByCustomDomain(domain)
+                .filter(other -> !other.getId().equals(tenant.getId()))
+                .ifPresent(other -> {
+                    throw new BusinessException("自定义域名已被其他租户使用");
+                });
     }
 }
@@ -1,10 +1,17 @@
 package club.freecity.cms.service.impl;
 
+import club.freecity.cms.common.GlobalOperation;
+import club.freecity.cms.common.ResultCode;
+import club.freecity.cms.common.TenantContext;
 import club.freecity.cms.dto.ArticleDto;
 import club.freecity.cms.dto.ArchiveDto;
+import club.freecity.cms.dto.ArticleSummaryDto;
+import club.freecity.cms.dto.CursorPage;
 import club.freecity.cms.dto.TagDto;
 import club.freecity.cms.entity.Article;
 import club.freecity.cms.entity.Tag;
+import club.freecity.cms.event.ArticlePublicationChangedEvent;
+import club.freecity.cms.event.ContentChangedEvent;
 import club.freecity.cms.exception.BusinessException;
 import club.freecity.cms.converter.BeanConverter;
 import club.freecity.cms.repository.ArticleRepository;
@@ -13,20 +20,37 @@ import club.freecity.cms.repository.TagRepository;
 import club.freecity.cms.service.ArticleService;
 import club.freecity.cms.service.CategoryService;
 import club.freecity.cms.service.TagService;
+import club.freecity.cms.support.archive.ArchiveCountIndex;
+import club.freecity.cms.support.counter.ViewCountBuffer;
+import club.freecity.cms.support.pagination.ArticleCursor;
+import club.freecity.cms.support.search.ArticleSearchIndex;
+import club.freecity.cms.support.search.SearchHit;
+import club.freecity.cms.support.search.SearchResult;
 import club.freecity.cms.util.MarkdownUtils;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
-import jakarta.persistence.criteria.Predicate;
+import java.time.DateTimeException;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -34,11 +58,18 @@ import java.util.stream.Collectors;
 @Validated
 public class ArticleServiceImpl implements ArticleService {
 
+    private static final int MAX_TAG_CREATE_ATTEMPTS = 3;
+    private static final int MAX_SCROLL_SIZE = 100;
+
     private final ArticleRepository articleRepository;
     private final CategoryService categoryService;
     private final CategoryRepository categoryRepository;
     private final TagRepository tagRepository;
     private final TagService tagService;
+    private final ViewCountBuffer viewCountBuffer;
+    private final ArticleSearchIndex articleSearchIndex;
+    private final ArchiveCountIndex archiveCountIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -60,29 +91,8 @@ public class ArticleServiceImpl implements ArticleService {
             article.setCategory(null);
         }
 
-    // 处理标签关联
-    if (articleDto.getTags() != null && !articleDto.getTags().isEmpty()) {
-        Set<Tag> tags = new HashSet<>();
-        for (TagDto tagDto : articleDto.getTags()) {
-            Tag tag = null;
-            if (tagDto.getId() != null) {
-                tag = tagRepository.findById(tagDto.getId()).orElse(null);
-            } else if (tagDto.getName() != null && !tagDto.getName().isBlank()) {
-                tag = tagRepository.findByName(tagDto.getName()).orElseGet(() -> {
-                    Tag newTag = new Tag();
-                    newTag.setName(tagDto.getName());
-                    newTag.setArticleCount(0);
-                    return tagRepository.save(newTag);
-                });
-            }
-            if (tag != null) {
-                tags.add(tag);
-            }
-        }
-        article.setTags(tags);
-    } else {
-        article.setTags(new HashSet<>());
-    }
+        // 处理标签关联
+        article.setTags(resolveTags(articleDto.getTags()));
 
         if (article.getViewCount() == null) article.setViewCount(0);
         if (article.getCommentCount() == null) article.setCommentCount(0);
@@ -90,17 +100,24 @@ public class ArticleServiceImpl implements ArticleService {
         if (article.getPublished() == null) article.setPublished(false);
         if (article.getTop() == null) article.setTop(false);
 
+        renderContent(article);
+
         Article savedArticle = articleRepository.save(article);
         
         // 更新分类计数
         if (savedArticle.getCategory() != null) {
             categoryService.increaseArticleCount(savedArticle.getCategory().getId());
         }
-        // 更新标签计数
+        // 更新标签计数（合并为一条更新语句）
         if (savedArticle.getTags() != null) {
-            savedArticle.getTags().forEach(tag -> tagService.increaseArticleCount(tag.getId()));
+            tagService.adjustArticleCounts(savedArticle.getTags().stream().map(Tag::getId).collect(Collectors.toSet()), 1);
         }
 
+        if (Boolean.TRUE.equals(savedArticle.getPublished())) {
+            publishPublicationChange(savedArticle, 1);
+        }
+        eventPublisher.publishEvent(ContentChangedEvent.updated(
+                ContentChangedEvent.ContentType.ARTICLE, savedArticle.getId(), savedArticle.getTenantId()));
         return BeanConverter.toDto(savedArticle);
     }
 
@@ -133,19 +150,10 @@ public class ArticleServiceImpl implements ArticleService {
             categoryService.increaseArticleCount(newCategoryId);
         }
 
-        // 处理标签变更计数
-        Set<Long> oldTagIds = article.getTags().stream().map(Tag::getId).collect(Collectors.toSet());
-        Set<Long> newTagIds = articleDto.getTags() != null ? 
-                articleDto.getTags().stream().map(TagDto::getId).filter(id -> id != null).collect(Collectors.toSet()) : 
-                new HashSet<>();
-        
-        // 减少被移除标签的计数
-        oldTagIds.stream().filter(id -> !newTagIds.contains(id)).forEach(tagService::decreaseArticleCount);
-        // 增加新添加标签的计数
-        newTagIds.stream().filter(id -> !oldTagIds.contains(id)).forEach(tagService::increaseArticleCount);
-
+        boolean wasPublished = Boolean.TRUE.equals(article.getPublished());
         BeanConverter.updateEntity(article, articleDto);
         article.setUpdateTime(LocalDateTime.now());
+        renderContent(article);
 
         // 更新分类关联
         if (newCategoryId != null) {
@@ -154,29 +162,27 @@ public class ArticleServiceImpl implements ArticleService {
             article.setCategory(null);
         }
 
-        // 更新标签关联
+        // 更新标签关联，并按解析后的标签（含按名称新建的标签）计算计数变化
         if (articleDto.getTags() != null) {
-            Set<Tag> tags = new HashSet<>();
-            for (TagDto tagDto : articleDto.getTags()) {
-                Tag tag = null;
-                if (tagDto.getId() != null) {
-                    tag = tagRepository.findById(tagDto.getId()).orElse(null);
-                } else if (tagDto.getName() != null && !tagDto.getName().isBlank()) {
-                    tag = tagRepository.findByName(tagDto.getName()).orElseGet(() -> {
-                        Tag newTag = new Tag();
-                        newTag.setName(tagDto.getName());
-                        newTag.setArticleCount(0);
-                        return tagRepository.save(newTag);
-                    });
-                }
-                if (tag != null) {
-                    tags.add(tag);
-                }
-            }
+            Set<Tag> tags = resolveTags(articleDto.getTags());
+            Set<Long> oldTagIds = article.getTags().stream().map(Tag::getId).collect(Collectors.toSet());
+            Set<Long> newTagIds = tags.stream().map(Tag::getId).collect(Collectors.toSet());
+
+            // 减少被移除标签的计数
+            tagService.adjustArticleCounts(oldTagIds.stream().filter(id -> !newTagIds.contains(id)).collect(Collectors.toSet()), -1);
+            // 增加新添加标签的计数
+            tagService.adjustArticleCounts(newTagIds.stream().filter(id -> !oldTagIds.contains(id)).collect(Collectors.toSet()), 1);
             article.setTags(tags);
         }
 
-        return BeanConverter.toDto(articleRepository.save(article));
+        Article savedArticle = articleRepository.save(article);
+        boolean isPublished = Boolean.TRUE.equals(savedArticle.getPublished());
+        if (wasPublished != isPublished) {
+            publishPublicationChange(savedArticle, isPublished ? 1 : -1);
+        }
+        eventPublisher.publishEvent(ContentChangedEvent.updated(
+                ContentChangedEvent.ContentType.ARTICLE, savedArticle.getId(), savedArticle.getTenantId()));
+        return BeanConverter.toDto(savedArticle);
     }
 
     @Override
@@ -189,9 +195,14 @@ public class ArticleServiceImpl implements ArticleService {
             }
             // 减少标签计数
             if (article.getTags() != null) {
-                article.getTags().forEach(tag -> tagService.decreaseArticleCount(tag.getId()));
+                tagService.adjustArticleCounts(article.getTags().stream().map(Tag::getId).collect(Collectors.toSet()), -1);
             }
             articleRepository.delete(article);
+            if (Boolean.TRUE.equals(article.getPublished())) {
+                publishPublicationChange(article, -1);
+            }
+            eventPublisher.publishEvent(ContentChangedEvent.removed(
+                    ContentChangedEvent.ContentType.ARTICLE, article.getId(), article.getTenantId()));
         });
     }
 
@@ -202,7 +213,7 @@ public class ArticleServiceImpl implements ArticleService {
                 .map(article -> {
                     ArticleDto dto = BeanConverter.toDto(article);
                     if (dto.getContent() != null) {
-                        dto.setRenderedContent(MarkdownUtils.renderHtml(dto.getContent()));
+                        dto.setRenderedContent(resolveRenderedContent(article));
                     }
                     return dto;
                 })
@@ -211,66 +222,47 @@ public class ArticleServiceImpl implements ArticleService {
 
     @Override
     @Transactional(readOnly = true)
-    public Page<ArticleDto> listAllArticles(String title, Boolean published, Pageable pageable) {
-        Specification<Article> spec = (root, query, cb) -> {
-            List<Predicate> predicates = new ArrayList<>();
-            if (title != null && !title.isBlank()) {
-                predicates.add(cb.like(cb.lower(root.get("title")), "%" + title.toLowerCase() + "%"));
-            }
-            if (published != null) {
-                predicates.add(cb.equal(root.get("published"), published));
-            }
-            return cb.and(predicates.toArray(new Predicate[0]));
-        };
-        return articleRepository.findAll(spec, pageable)
-                .map(BeanConverter::toDto);
+    public Page<ArticleSummaryDto> listAllArticles(String title, Boolean published, Pageable pageable) {
+        String titlePattern = title != null && !title.isBlank() ? "%" + title.toLowerCase() + "%" : null;
+        return withTags(articleRepository.findSummaries(titlePattern, published, pageable));
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Page<ArticleDto> listPublishedArticles(Pageable pageable) {
-        return articleRepository.findByPublishedTrue(pageable)
-                .map(BeanConverter::toDto);
+    public Page<ArticleSummaryDto> listPublishedArticles(Pageable pageable) {
+        return withTags(articleRepository.findPublishedSummaries(pageable));
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Page<ArticleDto> listArticlesByCategory(Long categoryId, Pageable pageable) {
+    public Page<ArticleSummaryDto> listArticlesByCategory(Long categoryId, Pageable pageable) {
         List<Long> categoryIds = categoryService.getAllDescendantIds(categoryId);
-        return articleRepository.findByCategoryIdIn(categoryIds, pageable)
-                .map(BeanConverter::toDto);
+        return withTags(articleRepository.findSummariesByCategoryIdIn(categoryIds, pageable));
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Page<ArticleDto> listPublishedArticlesByCategory(Long categoryId, Pageable pageable) {
+    public Page<ArticleSummaryDto> listPublishedArticlesByCategory(Long categoryId, Pageable pageable) {
         List<Long> categoryIds = categoryService.getAllDescendantIds(categoryId);
-        return articleRepository.findByCategoryIdInAndPublishedTrue(categoryIds, pageable)
-                .map(BeanConverter::toDto);
+        return withTags(articleRepository.findPublishedSummariesByCategoryIdIn(categoryIds, pageable));
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Page<ArticleDto> listArticlesByTag(Long tagId, Pageable pageable) {
-        return articleRepository.findByTagsId(tagId, pageable)
-                .map(BeanConverter::toDto);
+    public Page<ArticleSummaryDto> listArticlesByTag(Long tagId, Pageable pageable) {
+        return withTags(articleRepository.findSummariesByTagId(tagId, pageable));
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Page<ArticleDto> listPublishedArticlesByTag(Long tagId, Pageable pageable) {
-        return articleRepository.findByTagsIdAndPublishedTrue(tagId, pageable)
-                .map(BeanConverter::toDto);
+    public Page<ArticleSummaryDto> listPublishedArticlesByTag(Long tagId, Pageable pageable) {
+        return withTags(articleRepository.findPublishedSummariesByTagId(tagId, pageable));
     }
 
     @Override
-    @Transactional
     public void incrementViewCount(Long id) {
-        articleRepository.findById(id).ifPresent(article -> {
-            Integer currentViewCount = article.getViewCount();
-            article.setViewCount(currentViewCount == null ? 1 : currentViewCount + 1);
-            articleRepository.save(article);
-        });
+        // 写入内存缓冲，由 ViewCountBuffer 定时批量落库
+        viewCountBuffer.increment(id);
     }
 
     @Override
@@ -282,36 +274,164 @@ public class ArticleServiceImpl implements ArticleService {
     @Override
     @Transactional(readOnly = true)
     public List<ArchiveDto> listArchives() {
-        return articleRepository.countArticlesByYear().stream()
-                .map(obj -> new ArchiveDto((String) obj[0], (Long) obj[1]))
-                .collect(Collectors.toList());
+        return archiveCountIndex.listYears();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ArchiveDto> listMonthArchives(String year) {
+        return archiveCountIndex.listMonths(parseYear(year).getYear());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<ArticleSummaryDto> listPublishedArticlesByYear(String year, Pageable pageable) {
+        LocalDateTime start = parseYear(year);
+        return withTags(articleRepository.findPublishedSummariesBetween(start, start.plusYears(1), pageable));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<ArticleSummaryDto> listPublishedArticlesByMonth(String year, int month, Pageable pageable) {
+        LocalDateTime start = parseMonth(parseYear(year).getYear(), month);
+        return withTags(articleRepository.findPublishedSummariesBetween(start, start.plusMonths(1), pageable));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<ArticleSummaryDto> scrollPublishedArticles(String cursor, int size) {
+        KeysetScrollPosition position = ArticleCursor.decode(cursor);
+        return toCursorPage(articleRepository.scrollPublishedSummaries(
+                cursorTime(position), cursorId(position), scrollLimit(size)), size);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<ArticleSummaryDto> scrollPublishedArticlesByCategory(Long categoryId, String cursor, int size) {
+        List<Long> categoryIds = categoryService.getAllDescendantIds(categoryId);
+        KeysetScrollPosition position = ArticleCursor.decode(cursor);
+        return toCursorPage(articleRepository.scrollPublishedSummariesByCategoryIdIn(
+                categoryIds, cursorTime(position), cursorId(position), scrollLimit(size)), size);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Page<ArticleDto> listPublishedArticlesByYear(String year, Pageable pageable) {
-        return articleRepository.findByPublishedTrueAndYear(year, pageable)
-                .map(BeanConverter::toDto);
+    public CursorPage<ArticleSummaryDto> scrollPublishedArticlesByTag(Long tagId, String cursor, int size) {
+        KeysetScrollPosition position = ArticleCursor.decode(cursor);
+        return toCursorPage(articleRepository.scrollPublishedSummariesByTagId(
+                tagId, cursorTime(position), cursorId(position), scrollLimit(size)), size);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<ArticleSummaryDto> scrollPublishedArticlesByYear(String year, String cursor, int size) {
+        LocalDateTime start = parseYear(year);
+        KeysetScrollPosition position = ArticleCursor.decode(cursor);
+        return toCursorPage(articleRepository.scrollPublishedSummariesBetween(
+                start, start.plusYears(1), cursorTime(position), cursorId(position), scrollLimit(size)), size);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<ArticleSummaryDto> scrollPublishedArticlesByMonth(String year, int month, String cursor, int size) {
+        LocalDateTime start = parseMonth(parseYear(year).getYear(), month);
+        KeysetScrollPosition position = ArticleCursor.decode(cursor);
+        return toCursorPage(articleRepository.scrollPublishedSummariesBetween(
+                start, start.plusMonths(1), cursorTime(position), cursorId(position), scrollLimit(size)), size);
+    }
+
+    /**
+     * 归档年份与月份的唯一解析入口，格式错误统一返回 BAD_REQUEST
+     */
+    private LocalDateTime parseYear(String year) {
+        try {
+            return parseMonth(Integer.parseInt(year), 1);
+        } catch (NumberFormatException e) {
+            throw new BusinessException(ResultCode.BAD_REQUEST.getCode(), "年份格式不正确");
+        }
+    }
+
+    private LocalDateTime parseMonth(int year, int month) {
+        try {
+            return YearMonth.of(year, month).atDay(1).atStartOfDay();
+        } catch (DateTimeException e) {
+            throw new BusinessException(ResultCode.BAD_REQUEST.getCode(), "归档日期格式不正确");
+        }
+    }
+
+    private void publishPublicationChange(Article article, int delta) {
+        YearMonth month = article.getCreateTime() != null ? YearMonth.from(article.getCreateTime()) : null;
+        eventPublisher.publishEvent(new ArticlePublicationChangedEvent(article.getTenantId(), month, delta));
+    }
+
+    /**
+     * 多取一条用于判断是否存在下一页
+     */
+    private Limit scrollLimit(int size) {
+        return Limit.of(scrollSize(size) + 1);
+    }
+
+    private int scrollSize(int size) {
+        return Math.max(1, Math.min(size, MAX_SCROLL_SIZE));
+    }
+
+    private LocalDateTime cursorTime(KeysetScrollPosition position) {
+        return (LocalDateTime) position.getKeys().get(ArticleCursor.CREATE_TIME);
+    }
+
+    private Long cursorId(KeysetScrollPosition position) {
+        return (Long) position.getKeys().get(ArticleCursor.ID);
+    }
+
+    private CursorPage<ArticleSummaryDto> toCursorPage(List<ArticleSummaryDto> rows, int size) {
+        int pageSize = scrollSize(size);
+        boolean hasNext = rows.size() > pageSize;
+        List<ArticleSummaryDto> content = fillTags(hasNext ? new ArrayList<>(rows.subList(0, pageSize)) : rows);
+        String nextCursor = null;
+        if (hasNext) {
+            ArticleSummaryDto last = content.get(content.size() - 1);
+            nextCursor = ArticleCursor.encode(last.getCreateTime(), last.getId());
+        }
+        return new CursorPage<>(content, nextCursor);
+    }
+
+    private Page<ArticleSummaryDto> withTags(Page<ArticleSummaryDto> page) {
+        fillTags(page.getContent());
+        return page;
+    }
+
+    /**
+     * 一次 IN 查询填充整页文章的标签，避免逐行懒加载
+     */
+    private List<ArticleSummaryDto> fillTags(List<ArticleSummaryDto> summaries) {
+        if (summaries.isEmpty()) {
+            return summaries;
+        }
+        Map<Long, Set<TagDto>> tagsByArticle = new HashMap<>();
+        List<Long> ids = summaries.stream().map(ArticleSummaryDto::getId).collect(Collectors.toList());
+        for (Object[] row : articleRepository.findTagsByArticleIdIn(ids)) {
+            tagsByArticle.computeIfAbsent((Long) row[0], k -> new HashSet<>()).add(BeanConverter.toDto((Tag) row[1]));
+        }
+        for (ArticleSummaryDto summary : summaries) {
+            summary.setTags(tagsByArticle.getOrDefault(summary.getId(), new HashSet<>()));
+        }
+        return summaries;
     }
 
     @Override
     @Transactional(readOnly = true)
     public LocalDateTime getLastUpdateTime() {
-        return articleRepository.findFirstByPublishedTrueOrderByUpdateTimeDesc()
-                .map(Article::getUpdateTime)
-                .orElse(LocalDateTime.now());
+        LocalDateTime lastUpdateTime = articleRepository.findLastPublishedUpdateTime();
+        return lastUpdateTime != null ? lastUpdateTime : LocalDateTime.now();
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<ArticleDto> listRelatedArticles(Long articleId, Long categoryId) {
+    public List<ArticleSummaryDto> listRelatedArticles(Long articleId, Long categoryId) {
         if (categoryId == null) {
             return java.util.Collections.emptyList();
         }
-        return articleRepository.findTop3ByPublishedTrueAndCategoryIdAndIdNotOrderByCreateTimeDesc(categoryId, articleId)
-                .stream()
-                .map(BeanConverter::toDto)
-                .collect(Collectors.toList());
+        return fillTags(articleRepository.findRelatedSummaries(categoryId, articleId, Limit.of(3)));
     }
 
     @Override
@@ -332,8 +452,116 @@ public class ArticleServiceImpl implements ArticleService {
 
     @Override
     @Transactional(readOnly = true)
-    public Page<ArticleDto> searchArticles(String keyword, Pageable pageable) {
-        return articleRepository.searchArticles(keyword, pageable)
-                .map(BeanConverter::toDto);
+    public Page<ArticleSummaryDto> searchArticles(String keyword, Pageable pageable) {
+        SearchResult result = articleSearchIndex.search(TenantContext.getCurrentTenantId(), keyword,
+                (int) pageable.getOffset(), pageable.getPageSize());
+        if (result.getHits().isEmpty()) {
+            return new PageImpl<>(new ArrayList<>(), pageable, result.getTotal());
+        }
+
+        // 索引只负责排序与高亮，文章数据按主键批量投影查询，保持命中顺序
+        List<Long> ids = result.getHits().stream().map(SearchHit::getArticleId).collect(Collectors.toList());
+        Map<Long, ArticleSummaryDto> articles = articleRepository.findSummariesByIdIn(ids).stream()
+                .collect(Collectors.toMap(ArticleSummaryDto::getId, Function.identity()));
+        List<ArticleSummaryDto> content = new ArrayList<>();
+        for (SearchHit hit : result.getHits()) {
+            ArticleSummaryDto article = articles.get(hit.getArticleId());
+            if (article != null) {
+                article.setHighlight(hit.getHighlight());
+                content.add(article);
+            }
+        }
+        return new PageImpl<>(fillTags(content), pageable, result.getTotal());
+    }
+
+    @Override
+    @Transactional
+    @GlobalOperation
+    public int refreshStaleRenderedContent(int batchSize) {
+        List<Object[]> rows = articleRepository.findStaleRenderedContent(MarkdownUtils.RENDER_VERSION, PageRequest.of(0, batchSize));
+        for (Object[] row : rows) {
+            String content = (String) row[1];
+            articleRepository.updateRenderedContent((Long) row[0], MarkdownUtils.renderHtml(content),
+                    MarkdownUtils.contentHash(content), MarkdownUtils.RENDER_VERSION);
+        }
+        return rows.size();
+    }
+
+    /**
+     * 批量解析文章标签：按 ID 与名称各查询一次，不存在的名称批量新建
+     */
+    private Set<Tag> resolveTags(Collection<TagDto> tagDtos) {
+        Set<Tag> tags = new HashSet<>();
+        if (tagDtos == null || tagDtos.isEmpty()) {
+            return tags;
+        }
+        Set<Long> ids = tagDtos.stream()
+                .map(TagDto::getId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Set<String> names = tagDtos.stream()
+                .filter(tagDto -> tagDto.getId() == null && tagDto.getName() != null && !tagDto.getName().isBlank())
+                .map(TagDto::getName)
+                .collect(Collectors.toSet());
+
+        if (!ids.isEmpty()) {
+            tags.addAll(tagRepository.findAllById(ids));
+        }
+        if (!names.isEmpty()) {
+            tags.addAll(resolveTagsByName(names));
+        }
+        return tags;
+    }
+
+    private List<Tag> resolveTagsByName(Set<String> names) {
+        List<Tag> found = tagRepository.findByNameIn(names);
+        for (int attempt = 0; ; attempt++) {
+            // 数据库按不区分大小写的排序规则比较名称，这里保持一致
+            Set<String> existing = found.stream()
+                    .map(tag -> tag.getName().toLowerCase())
+                    .collect(Collectors.toSet());
+            Set<String> missing = names.stream()
+                    .filter(name -> !existing.contains(name.toLowerCase()))
+                    .collect(Collectors.toSet());
+            if (missing.isEmpty()) {
+                return found;
+            }
+            if (attempt >= MAX_TAG_CREATE_ATTEMPTS) {
+                throw new BusinessException("标签创建失败，请稍后重试");
+            }
+            try {
+                tagService.createTags(missing);
+            } catch (DataIntegrityViolationException e) {
+                // 其他编辑者同时创建了同名标签，重新读取后再补建剩余部分
+            }
+            // 新标签在独立事务中提交，使用锁定读以读取到最新提交的数据
+            found = tagRepository.findLockedByNameIn(names);
+        }
+    }
+
+    /**
+     * 预渲染文章 HTML，仅在原文或渲染策略版本发生变化时重新渲染
+     */
+    private void renderContent(Article article) {
+        String hash = MarkdownUtils.contentHash(article.getContent());
+        if (article.getRenderedContent() != null
+                && hash != null && hash.equals(article.getContentHash())
+                && Integer.valueOf(MarkdownUtils.RENDER_VERSION).equals(article.getRenderVersion())) {
+            return;
+        }
+        article.setRenderedContent(MarkdownUtils.renderHtml(article.getContent()));
+        article.setContentHash(hash);
+        article.setRenderVersion(MarkdownUtils.RENDER_VERSION);
+    }
+
+    /**
+     * 读取预渲染 HTML；历史数据或渲染策略已升级时即时渲染兜底，等待后台任务回写
+     */
+    private String resolveRenderedContent(Article article) {
+        if (article.getRenderedContent() != null
+                && Integer.valueOf(MarkdownUtils.RENDER_VERSION).equals(article.getRenderVersion())) {
+            return article.getRenderedContent();
+        }
+        return MarkdownUtils.renderHtml(article.getContent());
     }
 }
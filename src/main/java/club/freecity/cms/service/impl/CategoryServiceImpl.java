@@ -1,11 +1,15 @@
 package club.freecity.cms.service.impl;
 
+import club.freecity.cms.common.GlobalOperation;
 import club.freecity.cms.dto.CategoryDto;
 import club.freecity.cms.entity.Category;
 import club.freecity.cms.converter.BeanConverter;
+import club.freecity.cms.event.ContentChangedEvent;
 import club.freecity.cms.repository.CategoryRepository;
 import club.freecity.cms.service.CategoryService;
+import club.freecity.cms.support.category.CategoryTreeIndex;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
@@ -21,6 +25,8 @@ import java.util.stream.Collectors;
 public class CategoryServiceImpl implements CategoryService {
 
     private final CategoryRepository categoryRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CategoryTreeIndex categoryTreeIndex;
 
     @Override
     @Transactional
@@ -58,20 +64,23 @@ public class CategoryServiceImpl implements CategoryService {
             category.setParentId(0L);
         }
 
-        return BeanConverter.toDto(categoryRepository.save(category));
+        Category savedCategory = categoryRepository.save(category);
+        eventPublisher.publishEvent(ContentChangedEvent.updated(
+                ContentChangedEvent.ContentType.CATEGORY, savedCategory.getId(), savedCategory.getTenantId()));
+        return BeanConverter.toDto(savedCategory);
     }
 
     @Override
     @Transactional
     public void deleteCategory(Long id) {
-        // 如果有子分类，递归删除或抛出异常
-        List<Category> children = categoryRepository.findByParentId(id);
-        if (!children.isEmpty()) {
-            for (Category child : children) {
-                deleteCategory(child.getId());
-            }
+        Category category = categoryRepository.findById(id).orElse(null);
+        if (category == null) {
+            return;
         }
-        categoryRepository.deleteById(id);
+        // 连同全部子孙分类一次性删除
+        categoryRepository.deleteAllByIdInBatch(categoryTreeIndex.getDescendantIds(id));
+        eventPublisher.publishEvent(ContentChangedEvent.removed(
+                ContentChangedEvent.ContentType.CATEGORY, id, category.getTenantId()));
     }
 
     @Override
@@ -138,18 +147,7 @@ public class CategoryServiceImpl implements CategoryService {
     @Override
     @Transactional(readOnly = true)
     public List<Long> getAllDescendantIds(Long parentId) {
-        List<Long> ids = new ArrayList<>();
-        ids.add(parentId);
-        fetchDescendantIds(parentId, ids);
-        return ids;
-    }
-
-    private void fetchDescendantIds(Long parentId, List<Long> ids) {
-        List<Category> children = categoryRepository.findByParentId(parentId);
-        for (Category child : children) {
-            ids.add(child.getId());
-            fetchDescendantIds(child.getId(), ids);
-        }
+        return categoryTreeIndex.getDescendantIds(parentId);
     }
 
     @Override
@@ -169,21 +167,24 @@ public class CategoryServiceImpl implements CategoryService {
     @Override
     @Transactional
     public void increaseArticleCount(Long id) {
-        categoryRepository.findById(id).ifPresent(category -> {
-            Integer count = category.getArticleCount();
-            category.setArticleCount(count == null ? 1 : count + 1);
-            categoryRepository.save(category);
-        });
+        categoryRepository.adjustArticleCount(id, 1);
     }
 
     @Override
     @Transactional
     public void decreaseArticleCount(Long id) {
-        categoryRepository.findById(id).ifPresent(category -> {
-            if (category.getArticleCount() > 0) {
-                category.setArticleCount(category.getArticleCount() - 1);
-                categoryRepository.save(category);
-            }
-        });
+        categoryRepository.adjustArticleCount(id, -1);
+    }
+
+    @Override
+    @Transactional
+    @GlobalOperation
+    public int reconcileArticleCounts() {
+        int repaired = 0;
+        for (Object[] row : categoryRepository.findArticleCountDrift()) {
+            repaired += categoryRepository.repairArticleCount(((Number) row[0]).longValue(),
+                    ((Number) row[1]).intValue(), ((Number) row[2]).intValue());
+        }
+        return repaired;
     }
 }
@@ -0,0 +1,256 @@
+package club.freecity.cms.service.impl;
+
+import club.freecity.cms.common.GlobalOperation;
+import club.freecity.cms.common.ResultCode;
+import club.freecity.cms.common.RoleConstants;
+import club.freecity.cms.common.TenantContext;
+import club.freecity.cms.converter.BeanConverter;
+import club.freecity.cms.dto.CommentModerationTaskDto;
+import club.freecity.cms.entity.CommentModerationTask;
+import club.freecity.cms.enums.CommentStatus;
+import club.freecity.cms.enums.ModerationAction;
+import club.freecity.cms.enums.ModerationTaskStatus;
+import club.freecity.cms.event.ContentChangedEvent;
+import club.freecity.cms.exception.BusinessException;
+import club.freecity.cms.repository.ArticleRepository;
+import club.freecity.cms.repository.CommentModerationTaskRepository;
+import club.freecity.cms.repository.CommentRepository;
+import club.freecity.cms.service.CommentModerationService;
+import club.freecity.cms.support.comment.ArticleCommentCount;
+import club.freecity.cms.support.comment.CommentModerationScope;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+import org.springframework.validation.annotation.Validated;
+
+import java.util.List;
+
+/**
+ * 按条件批量处理评论
+ * 提交时一次聚合查询确定命中数量与 ID 范围；后台按租户内评论 ID 分段，每段一个事务：
+ * 先以 GROUP BY 算出各文章评论数变化，再以一条 UPDATE / DELETE 处理整段，最后推进游标，
+ * 不加载评论实体。提交之后新增的评论（ID 大于提交时的上界）不在处理范围内
+ */
+@Slf4j
+@Service
+@Validated
+public class CommentModerationServiceImpl implements CommentModerationService {
+
+    private final CommentModerationTaskRepository taskRepository;
+    private final CommentRepository commentRepository;
+    private final ArticleRepository articleRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public CommentModerationServiceImpl(CommentModerationTaskRepository taskRepository,
+                                        CommentRepository commentRepository,
+                                        ArticleRepository articleRepository,
+                                        ApplicationEventPublisher eventPublisher,
+                                        TransactionTemplate transactionTemplate,
+                                        @Value("${app.comment.moderation.chunk-size:1000}") int chunkSize) {
+        this.taskRepository = taskRepository;
+        this.commentRepository = commentRepository;
+        this.articleRepository = articleRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    @Override
+    @Transactional
+    public CommentModerationTaskDto submit(CommentModerationTaskDto taskDto) {
+        ModerationAction action = ModerationAction.fromValue(taskDto.getAction());
+        if (action == null) {
+            throw new BusinessException(400, "不支持的处理动作");
+        }
+        checkDeletePermission(action);
+        if (action == ModerationAction.AUDIT && (taskDto.getTargetStatus() == null
+                || CommentStatus.fromValue(taskDto.getTargetStatus()).getValue() != taskDto.getTargetStatus())) {
+            throw new BusinessException(400, "目标审核状态无效");
+        }
+
+        CommentModerationTask task = new CommentModerationTask();
+        task.setAction(action.getValue());
+        task.setTargetStatus(action == ModerationAction.AUDIT ? taskDto.getTargetStatus() : null);
+        task.setFilterStatus(taskDto.getFilterStatus());
+        task.setIp(StringUtils.hasText(taskDto.getIp()) ? taskDto.getIp().trim() : null);
+        task.setEmail(StringUtils.hasText(taskDto.getEmail()) ? taskDto.getEmail().trim() : null);
+        task.setStartTime(taskDto.getStartTime());
+        task.setEndTime(taskDto.getEndTime());
+        task.setKeyword(StringUtils.hasText(taskDto.getKeyword()) ? taskDto.getKeyword().trim() : null);
+        if (task.getFilterStatus() == null && task.getIp() == null && task.getEmail() == null
+                && task.getStartTime() == null && task.getEndTime() == null && task.getKeyword() == null) {
+            throw new BusinessException(400, "请至少指定一个筛选条件");
+        }
+        task.setTenantId(TenantContext.getCurrentTenantId());
+
+        CommentModerationScope scope = commentRepository.findModerationScope(task, Long.MAX_VALUE);
+        task.setTotal(scope.total());
+        if (scope.total() == 0) {
+            task.setState(ModerationTaskStatus.COMPLETED.getValue());
+        } else {
+            task.setState(ModerationTaskStatus.RUNNING.getValue());
+            task.setMinId(scope.minId());
+            task.setMaxId(scope.maxId());
+            task.setCursorId(scope.minId() - 1);
+        }
+        return BeanConverter.toDto(taskRepository.save(task));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CommentModerationTaskDto getTask(Long id) {
+        return BeanConverter.toDto(findTask(id));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<CommentModerationTaskDto> listTasks(Pageable pageable) {
+        return taskRepository.findAllByOrderByIdDesc(pageable).map(BeanConverter::toDto);
+    }
+
+    @Override
+    @Transactional
+    public void cancel(Long id) {
+        CommentModerationTask task = findTask(id);
+        if (ModerationTaskStatus.RUNNING.getValue().equals(task.getState())) {
+            task.setState(ModerationTaskStatus.CANCELLED.getValue());
+            taskRepository.save(task);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void resume(Long id) {
+        CommentModerationTask task = findTask(id);
+        checkDeletePermission(ModerationAction.fromValue(task.getAction()));
+        if (ModerationTaskStatus.FAILED.getValue().equals(task.getState())
+                || ModerationTaskStatus.CANCELLED.getValue().equals(task.getState())) {
+            task.setState(ModerationTaskStatus.RUNNING.getValue());
+            task.setMessage(null);
+            taskRepository.save(task);
+        }
+    }
+
+    @Override
+    @GlobalOperation
+    public long runPendingTasks(int maxChunks) {
+        long total = 0;
+        for (Long taskId : taskRepository.findIdsByState(ModerationTaskStatus.RUNNING.getValue())) {
+            try {
+                for (int i = 0; i < maxChunks; i++) {
+                    ChunkResult result = transactionTemplate.execute(status -> processChunk(taskId));
+                    total += result.processed();
+                    if (!result.hasMore()) {
+                        break;
+                    }
+                }
+            } catch (RuntimeException e) {
+                // 出错的段已整体回滚，游标停在上一段，恢复后从该段重新执行
+                log.error("评论批量处理任务 {} 执行失败", taskId, e);
+                transactionTemplate.executeWithoutResult(status -> markFailed(taskId, e));
+            }
+        }
+        return total;
+    }
+
+    /**
+     * 处理下一段：段上界取租户内游标之后第 chunkSize 条评论的 ID，每段扫描的行数与筛选条件的命中率无关
+     */
+    ChunkResult processChunk(Long taskId) {
+        CommentModerationTask task = taskRepository.findForUpdate(taskId).orElse(null);
+        if (task == null || !ModerationTaskStatus.RUNNING.getValue().equals(task.getState())) {
+            return ChunkResult.DONE;
+        }
+        List<Long> bound = commentRepository.findIdsAfter(task.getTenantId(), task.getCursorId(),
+                PageRequest.of(chunkSize - 1, 1));
+        long toId = bound.isEmpty() ? task.getMaxId() : Math.min(bound.get(0), task.getMaxId());
+
+        int processed;
+        if (ModerationAction.DELETE.getValue().equals(task.getAction())) {
+            applyCounts(task, commentRepository.countModerationByArticle(task, toId,
+                    List.of(CommentStatus.PUBLISHED.getValue())), -1);
+            processed = commentRepository.deleteModeration(task, toId);
+        } else {
+            // 进度按段内命中数累计（与 total 口径一致），已是目标状态的评论不更新，但同样计为已处理；
+            // 须在更新前统计，按状态筛选时更新后的评论不再命中
+            processed = (int) commentRepository.countModeration(task, toId);
+            if (CommentStatus.PUBLISHED.getValue() == task.getTargetStatus()) {
+                applyCounts(task, commentRepository.countModerationByArticle(task, toId, CommentStatus.unpublishedValues()), 1);
+            } else {
+                applyCounts(task, commentRepository.countModerationByArticle(task, toId,
+                        List.of(CommentStatus.PUBLISHED.getValue())), -1);
+            }
+            commentRepository.updateModerationStatus(task, toId, task.getTargetStatus());
+        }
+
+        task.setCursorId(toId);
+        task.setProcessed(task.getProcessed() + processed);
+        boolean hasMore = toId < task.getMaxId();
+        if (!hasMore) {
+            task.setState(ModerationTaskStatus.COMPLETED.getValue());
+            log.info("评论批量处理任务 {} 完成：命中 {} 条，处理 {} 条", taskId, task.getTotal(), task.getProcessed());
+        }
+        taskRepository.save(task);
+        return new ChunkResult(processed, hasMore);
+    }
+
+    private void markFailed(Long taskId, RuntimeException e) {
+        taskRepository.findById(taskId).ifPresent(task -> {
+            task.setState(ModerationTaskStatus.FAILED.getValue());
+            String message = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            task.setMessage(message.length() > 500 ? message.substring(0, 500) : message);
+            taskRepository.save(task);
+        });
+    }
+
+    /**
+     * 按文章更新评论数并通知缓存失效（与 CommentServiceImpl 中单条处理的口径一致：只统计已发布评论）
+     */
+    private void applyCounts(CommentModerationTask task, List<ArticleCommentCount> counts, int sign) {
+        for (ArticleCommentCount count : counts) {
+            articleRepository.incrementCommentCount(count.articleId(), sign * count.count().intValue());
+            eventPublisher.publishEvent(ContentChangedEvent.commentsChanged(count.articleId(), task.getTenantId()));
+        }
+    }
+
+    /**
+     * 删除评论仅限管理员（与单条、批量删除接口一致），按解析后的动作校验，不依赖请求中动作的大小写
+     */
+    private void checkDeletePermission(ModerationAction action) {
+        if (action != ModerationAction.DELETE) {
+            return;
+        }
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        boolean admin = authentication != null && authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .anyMatch(authority -> RoleConstants.ROLE_SUPER_ADMIN.equals(authority)
+                        || RoleConstants.ROLE_TENANT_ADMIN.equals(authority));
+        if (!admin) {
+            throw new BusinessException(ResultCode.FORBIDDEN.getCode(), "仅管理员可批量删除评论");
+        }
+    }
+
+    private CommentModerationTask findTask(Long id) {
+        // 按主键查找不经过租户过滤器，需显式校验归属
+        Long tenantId = TenantContext.getCurrentTenantId();
+        return taskRepository.findById(id)
+                .filter(task -> tenantId == null || tenantId.equals(task.getTenantId()))
+                .orElseThrow(() -> new BusinessException(404, "任务不存在"));
+    }
+
+    record ChunkResult(int processed, boolean hasMore) {
+        static final ChunkResult DONE = new ChunkResult(0, false);
+    }
+}
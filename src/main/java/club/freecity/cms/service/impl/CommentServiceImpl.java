@@ -1,17 +1,23 @@
 package club.freecity.cms.service.impl;
 
+import club.freecity.cms.common.TenantContext;
 import club.freecity.cms.dto.CommentDto;
 import club.freecity.cms.entity.Comment;
 import club.freecity.cms.converter.BeanConverter;
 import club.freecity.cms.enums.CommentStatus;
+import club.freecity.cms.event.ContentChangedEvent;
 import club.freecity.cms.exception.BusinessException;
 import club.freecity.cms.repository.CommentRepository;
 import club.freecity.cms.repository.ArticleRepository;
 import club.freecity.cms.service.CommentService;
 import club.freecity.cms.service.VerificationService;
+import club.freecity.cms.support.comment.ArticleCommentCount;
+import club.freecity.cms.support.comment.CommentThread;
+import club.freecity.cms.support.comment.CommentThreadCache;
 import club.freecity.cms.util.MarkdownUtils;
 import jakarta.persistence.criteria.Predicate;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -32,6 +38,8 @@ public class CommentServiceImpl implements CommentService {
     private final CommentRepository commentRepository;
     private final ArticleRepository articleRepository;
     private final VerificationService verificationService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CommentThreadCache commentThreadCache;
 
     @Override
     @Transactional
@@ -88,9 +96,11 @@ public class CommentServiceImpl implements CommentService {
     @Override
     @Transactional(readOnly = true)
     public Page<CommentDto> listCommentsByArticle(Long articleId, Pageable pageable) {
-        // 读者端只查询已发布的评论
-        return commentRepository.findByArticleIdAndParentIsNullAndStatus(
-                articleId, CommentStatus.PUBLISHED.getValue(), pageable).map(BeanConverter::toDto);
+        // 读者端只展示已发布的评论：整棵评论树按文章缓存，分页在根评论上进行
+        CommentThread thread = commentThreadCache.get(TenantContext.getCurrentTenantId(), articleId,
+                () -> CommentThread.assemble(articleId,
+                        commentRepository.findThreadRows(articleId, CommentStatus.PUBLISHED.getValue())));
+        return thread.page(pageable);
     }
 
     @Override
@@ -151,41 +161,17 @@ public class CommentServiceImpl implements CommentService {
             return;
         }
 
-        List<Comment> comments = commentRepository.findAllById(ids);
-        if (comments.isEmpty()) {
-            return;
-        }
-
-        // 统计各文章评论数变化
-        Map<Long, Integer> articleDeltas = comments.stream()
-                .filter(c -> !c.getStatus().equals(status)) // 只处理状态有变化的
-                .collect(Collectors.groupingBy(
-                        Comment::getArticleId,
-                        Collectors.summingInt(c -> {
-                            int delta = 0;
-                            // 状态从非 PUBLISHED 变为 PUBLISHED，+1
-                            if (!c.getStatus().equals(CommentStatus.PUBLISHED.getValue()) && 
-                                status.equals(CommentStatus.PUBLISHED.getValue())) {
-                                delta = 1;
-                            }
-                            // 状态从 PUBLISHED 变为非 PUBLISHED，-1
-                            else if (c.getStatus().equals(CommentStatus.PUBLISHED.getValue()) && 
-                                     !status.equals(CommentStatus.PUBLISHED.getValue())) {
-                                delta = -1;
-                            }
-                            return delta;
-                        })
-                ));
+        // 按文章聚合统计评论数变化，不加载评论实体：发布时统计未发布的评论，取消发布时统计已发布的评论
+        boolean publish = status.equals(CommentStatus.PUBLISHED.getValue());
+        List<ArticleCommentCount> counts = commentRepository.countByArticle(ids,
+                publish ? CommentStatus.unpublishedValues() : List.of(CommentStatus.PUBLISHED.getValue()));
 
         // 批量更新评论状态
         commentRepository.updateStatusByIds(ids, status);
 
         // 批量更新文章评论数
-        articleDeltas.forEach((articleId, delta) -> {
-            if (delta != 0) {
-                articleRepository.incrementCommentCount(articleId, delta);
-            }
-        });
+        counts.forEach(count -> updateArticleCommentCount(count.articleId(),
+                (publish ? 1 : -1) * count.count().intValue()));
     }
 
     @Override
@@ -195,28 +181,15 @@ public class CommentServiceImpl implements CommentService {
             return;
         }
 
-        List<Comment> comments = commentRepository.findAllById(ids);
-        if (comments.isEmpty()) {
-            return;
-        }
-
         // 统计各文章评论数变化（只有已发布的评论被删除时才需要减1）
-        Map<Long, Integer> articleDeltas = comments.stream()
-                .filter(c -> c.getStatus().equals(CommentStatus.PUBLISHED.getValue()))
-                .collect(Collectors.groupingBy(
-                        Comment::getArticleId,
-                        Collectors.summingInt(c -> -1)
-                ));
+        List<ArticleCommentCount> counts = commentRepository.countByArticle(ids,
+                List.of(CommentStatus.PUBLISHED.getValue()));
 
         // 批量删除评论
         commentRepository.deleteAllByIdInBatch(ids);
 
         // 批量更新文章评论数
-        articleDeltas.forEach((articleId, delta) -> {
-            if (delta != 0) {
-                articleRepository.incrementCommentCount(articleId, delta);
-            }
-        });
+        counts.forEach(count -> updateArticleCommentCount(count.articleId(), -count.count().intValue()));
     }
 
     @Override
@@ -256,14 +229,16 @@ public class CommentServiceImpl implements CommentService {
                 ));
 
         // 批量更新文章评论数
-        articleDeltas.forEach((articleId, delta) -> {
-            articleRepository.incrementCommentCount(articleId, delta);
-        });
+        articleDeltas.forEach(this::updateArticleCommentCount);
     }
 
+    /**
+     * 更新文章评论数，并通知页面缓存、评论树缓存失效该文章（只有已发布评论的变化才会反映到读者页面）
+     */
     private void updateArticleCommentCount(Long articleId, int delta) {
         if (delta != 0) {
             articleRepository.incrementCommentCount(articleId, delta);
+            eventPublisher.publishEvent(ContentChangedEvent.commentsChanged(articleId, TenantContext.getCurrentTenantId()));
         }
     }
 }
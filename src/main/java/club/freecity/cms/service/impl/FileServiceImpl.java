@@ -1,19 +1,26 @@
 package club.freecity.cms.service.impl;
 
+import club.freecity.cms.common.GlobalOperation;
 import club.freecity.cms.common.TenantContext;
 import club.freecity.cms.converter.BeanConverter;
 import club.freecity.cms.dto.MediaAssetDto;
 import club.freecity.cms.dto.StorageStatsDto;
 import club.freecity.cms.entity.MediaAsset;
-import club.freecity.cms.entity.Tenant;
+import club.freecity.cms.entity.MediaBlob;
+import club.freecity.cms.entity.StorageUsage;
+import club.freecity.cms.event.ImageUploadedEvent;
 import club.freecity.cms.exception.BusinessException;
 import club.freecity.cms.repository.MediaAssetRepository;
+import club.freecity.cms.repository.MediaBlobRepository;
+import club.freecity.cms.repository.StorageUsageRepository;
 import club.freecity.cms.repository.TenantRepository;
 import club.freecity.cms.service.FileService;
+import club.freecity.cms.support.media.ImageVariants;
 import jakarta.persistence.criteria.Predicate;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
@@ -24,10 +31,17 @@ import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
 import java.util.*;
 
@@ -39,11 +53,25 @@ public class FileServiceImpl implements FileService {
     @Value("${app.upload.path}")
     private String uploadPath;
 
+    /**
+     * 上传临时目录，须位于 app.upload.path 之外（上传目录对外公开访问）；为空时使用上传目录的同级目录
+     */
+    @Value("${app.upload.temp-path:}")
+    private String tempPath;
+
     @Value("${app.upload.max-size:10MB}")
     private DataSize maxFileSize;
 
     private final MediaAssetRepository mediaAssetRepository;
     private final TenantRepository tenantRepository;
+    private final StorageUsageRepository storageUsageRepository;
+    private final MediaBlobRepository mediaBlobRepository;
+    private final ImageVariants imageVariants;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private static final String BLOB_DIR = "blobs";
+    private static final int MAGIC_HEAD_LENGTH = 4;
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
 
     // 允许上传的文件后缀白名单
     private static final List<String> ALLOWED_EXTENSIONS = Arrays.asList(
@@ -80,21 +108,15 @@ public class FileServiceImpl implements FileService {
     public StorageStatsDto getStorageStats() {
         Long tenantId = TenantContext.getCurrentTenantId();
         if (tenantId == null) {
-            return new StorageStatsDto(0L, 0L, 0.0);
+            return new StorageStatsDto(0L, 0L, 0.0, 0L, 0L, 0L);
         }
 
-        // 1. 获取已用空间 (Byte)
-        // 注意：由于启用了租户过滤器，这里只会查到当前租户的记录
-        Long usedSize = mediaAssetRepository.findAll().stream()
-                .mapToLong(MediaAsset::getSize)
-                .sum();
+        // 1. 已用空间 (Byte)：读取用量计数行，不加载媒体资源实体
+        StorageUsage usage = storageUsageRepository.findById(tenantId).orElseGet(StorageUsage::new);
+        Long usedSize = usage.getUsedSize();
 
-        // 2. 获取总容量限制 (MB -> Byte)
-        Long totalSizeInBytes = 100 * 1024 * 1024L; // 默认 100MB
-        Optional<Tenant> tenantOpt = tenantRepository.findById(tenantId);
-        if (tenantOpt.isPresent() && tenantOpt.get().getPackageInfo() != null) {
-            totalSizeInBytes = tenantOpt.get().getPackageInfo().getMaxStorage() * 1024 * 1024L;
-        }
+        // 2. 总容量限制 (MB -> Byte)
+        Long totalSizeInBytes = getQuotaBytes(tenantId);
 
         // 3. 计算百分比
         Double percentage = totalSizeInBytes > 0 ? (usedSize.doubleValue() / totalSizeInBytes.doubleValue()) * 100 : 0.0;
@@ -103,9 +125,26 @@ public class FileServiceImpl implements FileService {
                 .usedSize(usedSize)
                 .totalSize(totalSizeInBytes)
                 .percentage(Math.min(100.0, percentage))
+                .imageSize(usage.getImageSize())
+                .documentSize(usage.getDocumentSize())
+                .otherSize(usage.getOtherSize())
                 .build();
     }
 
+    @Override
+    @Transactional
+    @GlobalOperation
+    public int reconcileStorageUsage() {
+        storageUsageRepository.initializeMissing();
+        int repaired = 0;
+        for (Object[] row : storageUsageRepository.findUsageDrift()) {
+            repaired += storageUsageRepository.repair(((Number) row[0]).longValue(), ((Number) row[1]).longValue(),
+                    ((Number) row[2]).longValue(), ((Number) row[3]).longValue(),
+                    ((Number) row[4]).longValue(), ((Number) row[5]).longValue());
+        }
+        return repaired;
+    }
+
     @Override
     @Transactional
     public String uploadFile(MultipartFile file) {
@@ -135,80 +174,262 @@ public class FileServiceImpl implements FileService {
             throw new BusinessException("不支持的文件类型: " + contentType);
         }
 
-        // 3. 深度安全校验：校验文件头 Magic Number
-        validateMagicNumber(file, extension);
-
         String tenantCode = TenantContext.getCurrentTenantCode();
         if (tenantCode == null) {
             tenantCode = "default";
         }
-
-        // 租户目录隔离: uploads/{tenantCode}/yyyyMM/uuid.ext
-        String datePath = java.time.format.DateTimeFormatter.ofPattern("yyyyMM").format(java.time.LocalDate.now());
-        String fileName = UUID.randomUUID().toString() + extension;
+        Long tenantId = TenantContext.getCurrentTenantId();
 
         // 确保路径是绝对路径，避免被 Tomcat 解释为相对临时目录的路径
         Path rootPath = Paths.get(uploadPath).toAbsolutePath().normalize();
-        Path tenantDir = rootPath.resolve(Paths.get(tenantCode, datePath));
-        
-        try {
-            if (!Files.exists(tenantDir)) {
-                Files.createDirectories(tenantDir);
-            }
-            Path targetFile = tenantDir.resolve(fileName);
-            // 使用绝对路径的 File 对象
-            file.transferTo(targetFile.toFile());
+        Path tempFile = resolveTempDirectory(rootPath).resolve(UUID.randomUUID() + ".upload");
 
-            log.debug("文件已上传至: {}", targetFile);
+        try {
+            // 3. 单次读取上传流：校验文件头 Magic Number，同时写入临时文件并计算 SHA-256
+            StreamedUpload upload = streamToTempFile(file, extension, tempFile);
 
-            // 返回相对路径，用于前端访问 (保持原样，WebMvcConfig 应该处理了 /uploads 的映射)
-            String url = "/" + uploadPath + "/" + tenantCode + "/" + datePath + "/" + fileName;
+            // 4. 按内容去重：相同内容复用已有文件，仅新文件占用存储配额
+            MediaBlob blob = acquireBlob(tenantId, tenantCode, rootPath, tempFile, upload, contentType, extension);
 
             // 保存到数据库
             MediaAsset asset = new MediaAsset();
             asset.setName(originalFilename);
-            asset.setUrl(url);
-            asset.setFilePath(targetFile.toString());
-            asset.setType(file.getContentType());
-            asset.setSize(file.getSize());
+            asset.setUrl(blob.getUrl());
+            asset.setFilePath(blob.getFilePath());
+            asset.setType(contentType);
+            asset.setSize(upload.size());
+            asset.setContentHash(upload.hash());
             mediaAssetRepository.save(asset);
 
-            return url;
+            return blob.getUrl();
         } catch (IOException e) {
-            log.error("文件上传失败, targetDir: {}", tenantDir, e);
+            log.error("文件上传失败, tempFile: {}", tempFile, e);
             throw new BusinessException("文件上传失败");
+        } finally {
+            deleteQuietly(tempFile);
         }
     }
 
-    private void validateMagicNumber(MultipartFile file, String extension) {
-        // 对于文本类文件（.txt, .md, .svg），跳过二进制头校验
-        if (Arrays.asList(".txt", ".md", ".svg").contains(extension)) {
-            return;
+    /**
+     * 以直接缓冲区读取上传流：读满文件头后先校验 Magic Number（失败时不落盘），随后边写临时文件边计算摘要
+     */
+    private StreamedUpload streamToTempFile(MultipartFile file, String extension, Path tempFile) throws IOException {
+        MessageDigest digest = newSha256();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(COPY_BUFFER_SIZE);
+        long size = 0;
+        try (ReadableByteChannel in = Channels.newChannel(file.getInputStream())) {
+            while (buffer.position() < MAGIC_HEAD_LENGTH && in.read(buffer) != -1) {
+                // 继续读取，直到拿到完整文件头或流结束
+            }
+            validateMagicNumber(file.getOriginalFilename(), buffer, extension);
+
+            Files.createDirectories(tempFile.getParent());
+            try (FileChannel out = FileChannel.open(tempFile, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                do {
+                    buffer.flip();
+                    digest.update(buffer.duplicate());
+                    while (buffer.hasRemaining()) {
+                        size += out.write(buffer);
+                    }
+                    buffer.clear();
+                } while (in.read(buffer) != -1);
+            }
         }
+        return new StreamedUpload(HexFormat.of().formatHex(digest.digest()), size);
+    }
 
-        try (InputStream is = file.getInputStream()) {
-            byte[] head = new byte[4];
-            if (is.read(head) != -1) {
-                String hexHead = bytesToHex(head);
-                log.debug("文件 [{}] 的 Magic Number: {}", file.getOriginalFilename(), hexHead);
-                
-                boolean match = false;
-                for (Map.Entry<String, String> entry : MAGIC_NUMBERS.entrySet()) {
-                    if (hexHead.startsWith(entry.getKey())) {
-                        match = true;
-                        break;
-                    }
-                }
-                
-                if (!match) {
-                    log.warn("文件内容安全校验失败: 疑似伪造文件, filename={}, magicNumber={}", 
-                            file.getOriginalFilename(), hexHead);
-                    throw new BusinessException("文件安全校验失败: 内容与后缀不符");
-                }
+    /**
+     * 获取内容对应的文件：已存在则增加引用并丢弃临时文件，否则占用配额后将临时文件移动到内容寻址路径
+     * 路径: uploads/{tenantCode}/blobs/{hash 前两位}/{hash}.ext
+     */
+    private MediaBlob acquireBlob(Long tenantId, String tenantCode, Path rootPath, Path tempFile,
+                                  StreamedUpload upload, String contentType, String extension) throws IOException {
+        Optional<MediaBlob> existing = mediaBlobRepository.findByTenantIdAndHash(tenantId, upload.hash());
+        if (existing.isPresent() && mediaBlobRepository.incrementRefCount(existing.get().getId()) > 0) {
+            log.debug("文件内容已存在，复用: {}", existing.get().getFilePath());
+            return existing.get();
+        }
+
+        reserveStorage(upload.size(), contentType);
+
+        String shard = upload.hash().substring(0, 2);
+        String fileName = upload.hash() + extension;
+        Path targetFile = rootPath.resolve(Paths.get(tenantCode, BLOB_DIR, shard, fileName));
+        Files.createDirectories(targetFile.getParent());
+        Files.move(tempFile, targetFile, StandardCopyOption.REPLACE_EXISTING);
+        log.debug("文件已上传至: {}", targetFile);
+
+        MediaBlob blob = new MediaBlob();
+        blob.setHash(upload.hash());
+        // 返回相对路径，用于前端访问 (保持原样，WebMvcConfig 应该处理了 /uploads 的映射)
+        blob.setUrl("/" + uploadPath + "/" + tenantCode + "/" + BLOB_DIR + "/" + shard + "/" + fileName);
+        blob.setFilePath(targetFile.toString());
+        blob.setType(contentType);
+        blob.setSize(upload.size());
+        blob.setRefCount(1);
+        if (mediaBlobRepository.insertIfAbsent(tenantId, blob.getHash(), blob.getUrl(), blob.getFilePath(),
+                blob.getType(), blob.getSize()) == 0) {
+            // 并发上传相同内容，对方已插入记录：改为引用对方的文件并退还本次占用的配额（目标文件内容相同，无需删除）
+            releaseStorage(StorageDelta.of(upload.size(), contentType));
+            MediaBlob winner = mediaBlobRepository.findLockedByTenantIdAndHash(tenantId, upload.hash())
+                    .filter(b -> mediaBlobRepository.incrementRefCount(b.getId()) > 0)
+                    .orElseThrow(() -> new BusinessException("文件上传冲突，请重试"));
+            log.debug("并发上传相同内容，复用: {}", winner.getFilePath());
+            return winner;
+        }
+        blob.setId(mediaBlobRepository.findIdByTenantIdAndHash(tenantId, blob.getHash()));
+        if (imageVariants.isResizable(contentType)) {
+            // 提交后异步生成缩放图
+            eventPublisher.publishEvent(new ImageUploadedEvent(blob.getId(), blob.getFilePath(), contentType));
+        }
+        return blob;
+    }
+
+    /**
+     * 临时文件不能位于对外公开的上传目录内，否则未校验完成的内容可被直接访问
+     */
+    private Path resolveTempDirectory(Path rootPath) {
+        Path dir = StringUtils.hasText(tempPath)
+                ? Paths.get(tempPath).toAbsolutePath().normalize()
+                : rootPath.resolveSibling(rootPath.getFileName() + "-tmp");
+        if (dir.startsWith(rootPath)) {
+            throw new IllegalStateException("app.upload.temp-path 不能位于 app.upload.path 目录内: " + dir);
+        }
+        return dir;
+    }
+
+    /**
+     * 释放媒体资源对应的文件引用，最后一个引用删除时删除物理文件
+     * @return 释放的存储用量
+     */
+    private StorageDelta releaseAsset(MediaAsset asset) {
+        if (asset.getContentHash() == null) {
+            // 去重前上传的独立文件
+            deletePhysicalFile(asset.getUrl());
+            return asset.getSize() != null ? StorageDelta.of(asset.getSize(), asset.getType()) : StorageDelta.NONE;
+        }
+        Optional<MediaBlob> blob = mediaBlobRepository.findByTenantIdAndHash(asset.getTenantId(), asset.getContentHash());
+        if (blob.isEmpty()) {
+            return StorageDelta.NONE;
+        }
+        mediaBlobRepository.decrementRefCount(blob.get().getId());
+        if (mediaBlobRepository.deleteIfUnreferenced(blob.get().getId()) == 0) {
+            return StorageDelta.NONE;
+        }
+        Path blobFile = Paths.get(blob.get().getFilePath());
+        deleteQuietly(blobFile);
+        if (blob.get().getVariants() != null) {
+            try {
+                imageVariants.deleteVariants(blobFile);
+            } catch (IOException e) {
+                log.error("衍生图删除失败: {}", blobFile, e);
             }
+        }
+        return StorageDelta.of(blob.get().getSize(), blob.get().getType());
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
         } catch (IOException e) {
-            log.error("读取文件头失败", e);
-            throw new BusinessException("文件安全校验失败: 无法读取内容");
+            log.error("物理文件删除失败: {}", path, e);
+        }
+    }
+
+    private static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record StreamedUpload(String hash, long size) {
+    }
+
+    private void reserveStorage(long size, String contentType) {
+        Long tenantId = TenantContext.getCurrentTenantId();
+        if (tenantId == null) {
+            return;
+        }
+        long quota = getQuotaBytes(tenantId);
+        StorageDelta delta = StorageDelta.of(size, contentType);
+        if (reserve(tenantId, delta, quota) == 0) {
+            // 计数行可能尚不存在：按已有文件补建（并发补建时忽略）后重试
+            storageUsageRepository.initialize(tenantId);
+            if (reserve(tenantId, delta, quota) == 0) {
+                throw new BusinessException("存储空间不足 (配额 " + quota / 1024 / 1024 + "MB)");
+            }
+        }
+    }
+
+    private int reserve(Long tenantId, StorageDelta delta, long quota) {
+        return storageUsageRepository.reserve(tenantId, delta.size(), delta.imageSize(),
+                delta.documentSize(), delta.otherSize(), quota);
+    }
+
+    private void releaseStorage(StorageDelta delta) {
+        Long tenantId = TenantContext.getCurrentTenantId();
+        if (tenantId == null || delta.size() == 0) {
+            return;
+        }
+        storageUsageRepository.release(tenantId, delta.size(), delta.imageSize(), delta.documentSize(), delta.otherSize());
+    }
+
+    private long getQuotaBytes(Long tenantId) {
+        // 默认 100MB
+        return tenantRepository.findMaxStorageById(tenantId).orElse(100L) * 1024 * 1024L;
+    }
+
+    /**
+     * 按文件分类拆分的用量增量，分类规则与 {@link StorageUsageRepository#DOCUMENT_CONDITION} 一致
+     */
+    private record StorageDelta(long size, long imageSize, long documentSize, long otherSize) {
+
+        static final StorageDelta NONE = new StorageDelta(0, 0, 0, 0);
+
+        static StorageDelta of(long size, String contentType) {
+            String type = contentType != null ? contentType.toLowerCase() : "";
+            if (type.startsWith("image/")) {
+                return new StorageDelta(size, size, 0, 0);
+            }
+            if (type.equals("application/pdf") || type.equals("application/msword")
+                    || type.startsWith("application/vnd.") || type.startsWith("text/")) {
+                return new StorageDelta(size, 0, size, 0);
+            }
+            return new StorageDelta(size, 0, 0, size);
+        }
+
+        StorageDelta plus(StorageDelta other) {
+            return new StorageDelta(size + other.size, imageSize + other.imageSize,
+                    documentSize + other.documentSize, otherSize + other.otherSize);
+        }
+    }
+
+    private void validateMagicNumber(String filename, ByteBuffer buffer, String extension) {
+        // 对于文本类文件（.txt, .md, .svg），跳过二进制头校验；空文件无文件头可校验
+        if (Arrays.asList(".txt", ".md", ".svg").contains(extension) || buffer.position() == 0) {
+            return;
+        }
+
+        byte[] head = new byte[MAGIC_HEAD_LENGTH];
+        for (int i = 0; i < Math.min(MAGIC_HEAD_LENGTH, buffer.position()); i++) {
+            head[i] = buffer.get(i);
+        }
+        String hexHead = bytesToHex(head);
+        log.debug("文件 [{}] 的 Magic Number: {}", filename, hexHead);
+
+        boolean match = false;
+        for (Map.Entry<String, String> entry : MAGIC_NUMBERS.entrySet()) {
+            if (hexHead.startsWith(entry.getKey())) {
+                match = true;
+                break;
+            }
+        }
+
+        if (!match) {
+            log.warn("文件内容安全校验失败: 疑似伪造文件, filename={}, magicNumber={}", filename, hexHead);
+            throw new BusinessException("文件安全校验失败: 内容与后缀不符");
         }
     }
 
@@ -287,10 +508,9 @@ public class FileServiceImpl implements FileService {
     @Transactional
     public void permanentlyDeleteAsset(Long id) {
         mediaAssetRepository.findById(id).ifPresent(asset -> {
-            // 先删除物理文件
-            deletePhysicalFile(asset.getUrl());
-            // 再删除数据库记录
+            // 删除数据库记录，再释放文件引用（最后一个引用时删除物理文件）与用量
             mediaAssetRepository.delete(asset);
+            releaseStorage(releaseAsset(asset));
         });
     }
 
@@ -301,10 +521,13 @@ public class FileServiceImpl implements FileService {
         Specification<MediaAsset> spec = (root, query, cb) -> cb.equal(root.get("deleted"), true);
         List<MediaAsset> deletedAssets = mediaAssetRepository.findAll(spec);
         
+        StorageDelta released = StorageDelta.NONE;
         for (MediaAsset asset : deletedAssets) {
-            deletePhysicalFile(asset.getUrl());
             mediaAssetRepository.delete(asset);
+            released = released.plus(releaseAsset(asset));
         }
+        // 一次性释放用量
+        releaseStorage(released);
     }
 
     private void deletePhysicalFile(String url) {
@@ -4,22 +4,25 @@ import club.freecity.cms.annotation.SecurityAudit;
 import club.freecity.cms.common.TenantContext;
 import club.freecity.cms.dto.AuditContextDto;
 import club.freecity.cms.entity.SecurityLog;
-import club.freecity.cms.repository.SecurityLogRepository;
 import club.freecity.cms.service.SecurityAuditService;
+import club.freecity.cms.support.audit.AuditJson;
+import club.freecity.cms.support.audit.AuditLogWriter;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import jakarta.servlet.ServletRequest;
 import jakarta.servlet.ServletResponse;
 import jakarta.servlet.http.HttpSession;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.reflect.MethodSignature;
 import org.springframework.core.DefaultParameterNameDiscoverer;
 import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.expression.Expression;
 import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.expression.spel.support.StandardEvaluationContext;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.ui.Model;
 import org.springframework.ui.ModelMap;
@@ -27,29 +30,47 @@ import org.springframework.validation.BindingResult;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.lang.reflect.Method;
+import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 安全审计日志服务实现
  */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class SecurityAuditServiceImpl implements SecurityAuditService {
 
-    private final SecurityLogRepository securityLogRepository;
-    private final ObjectMapper objectMapper;
-    private final ExpressionParser parser = new SpelExpressionParser();
-    private final ParameterNameDiscoverer discoverer = new DefaultParameterNameDiscoverer();
-
     private static final Set<String> SENSITIVE_KEYS = new HashSet<>(Arrays.asList(
             "password", "oldPassword", "newPassword", "confirmPassword",
             "token", "accessToken", "refreshToken", "secret", "appSecret"
     ));
 
+    private static final Set<Class<?>> UNLOGGABLE_TYPES = Set.of(
+            ServletRequest.class, ServletResponse.class, HttpSession.class, MultipartFile.class,
+            BindingResult.class, Model.class, ModelMap.class
+    );
+
+    private final AuditLogWriter auditLogWriter;
+    private final ObjectWriter auditJsonWriter;
+    private final ExpressionParser parser = new SpelExpressionParser(
+            new SpelParserConfiguration(SpelCompilerMode.MIXED, SecurityAuditServiceImpl.class.getClassLoader()));
+    private final ParameterNameDiscoverer discoverer = new DefaultParameterNameDiscoverer();
+
+    /**
+     * 按方法缓存审计元数据（消息表达式、参数名、可记录参数），避免每次调用重复解析
+     */
+    private final Map<Method, AuditMethodMetadata> metadataCache = new ConcurrentHashMap<>();
+
+    public SecurityAuditServiceImpl(AuditLogWriter auditLogWriter, ObjectMapper objectMapper) {
+        this.auditLogWriter = auditLogWriter;
+        this.auditJsonWriter = AuditJson.createWriter(objectMapper, SENSITIVE_KEYS);
+    }
+
+    /**
+     * 在调用线程组装日志后交给 {@link AuditLogWriter} 批量异步写入，队列满时丢弃而不阻塞调用方
+     */
     @Override
-    @Async("auditLogExecutor")
     public void log(JoinPoint joinPoint, SecurityAudit securityAudit, Object result, Throwable throwable, long executionTime, AuditContextDto context) {
         saveLog(joinPoint, securityAudit, result, throwable, executionTime, context);
     }
@@ -85,26 +106,28 @@ public class SecurityAuditServiceImpl implements SecurityAuditService {
             securityLog.setLocation(context.getLocation());
 
             // 4. 详情消息处理 (SpEL)
-            String message = parseMessage(securityAudit.message(), joinPoint);
+            AuditMethodMetadata metadata = metadataOf(joinPoint, securityAudit);
+            Object[] args = joinPoint.getArgs();
+            String message = parseMessage(securityAudit.message(), metadata, args);
             StringBuilder detail = new StringBuilder(message);
 
-            // 5. 请求参数记录
+            // 5. 请求参数记录（脱敏与截断在序列化时完成）
+            ObjectWriter writer = AuditJson.withLimits(auditJsonWriter, securityAudit.maxFieldLength(), securityAudit.maxCollectionSize());
             if (securityAudit.logArgs()) {
-                Object[] args = joinPoint.getArgs();
-                List<Object> processedArgs = new ArrayList<>();
-                if (args != null && args.length > 0) {
-                    for (Object arg : args) {
-                        if (isLoggableArg(arg)) {
-                            processedArgs.add(processLogData(arg, securityAudit));
+                List<Object> loggableArgs = new ArrayList<>();
+                if (args != null) {
+                    for (int i = 0; i < args.length; i++) {
+                        if (metadata.isLoggable(i, args[i])) {
+                            loggableArgs.add(args[i]);
                         }
                     }
                 }
-                detail.append("\n[Args]: ").append(objectMapper.writeValueAsString(processedArgs));
+                detail.append("\n[Args]: ").append(writer.writeValueAsString(loggableArgs.toArray()));
             }
 
             // 6. 响应结果记录
             if (securityAudit.logResponse()) {
-                detail.append("\n[Response]: ").append(objectMapper.writeValueAsString(processLogData(result, securityAudit)));
+                detail.append("\n[Response]: ").append(writer.writeValueAsString(result));
             }
 
             if (throwable != null) {
@@ -113,119 +136,89 @@ public class SecurityAuditServiceImpl implements SecurityAuditService {
             
             detail.append("\n[ExecutionTime]: ").append(executionTime).append("ms");
             securityLog.setMessage(detail.toString());
+            securityLog.setCreateTime(LocalDateTime.now());
 
-            securityLogRepository.save(securityLog);
+            auditLogWriter.offer(securityLog);
         } catch (Exception e) {
             log.error("保存审计日志失败", e);
         }
     }
 
-    /**
-     * 对审计数据进行脱敏和长度/数量限制处理
-     */
-    private Object processLogData(Object data, SecurityAudit config) {
-        if (data == null) return null;
-
-        try {
-            // 1. 处理字符串：长度限制
-            if (data instanceof String str) {
-                if (str.length() > config.maxFieldLength()) {
-                    return str.substring(0, config.maxFieldLength()) + "...(truncated, total " + str.length() + ")";
-                }
-                return str;
-            }
-
-            // 2. 处理基本类型及其包装类
-            if (isPrimitiveOrWrapper(data.getClass())) {
-                return data;
-            }
-
-            // 3. 处理集合：数量限制 + 递归处理元素
-            if (data instanceof Collection<?> collection) {
-                int originalSize = collection.size();
-                return collection.stream()
-                        .limit(config.maxCollectionSize())
-                        .map(item -> processLogData(item, config))
-                        .collect(Collectors.toList())
-                        .stream().collect(Collectors.collectingAndThen(Collectors.toList(), list -> {
-                            if (originalSize > config.maxCollectionSize()) {
-                                list.add("...(truncated, total " + originalSize + " items)");
-                            }
-                            return list;
-                        }));
-            }
-
-            // 4. 处理 Map：脱敏 + 递归处理 Value
-            if (data instanceof Map<?, ?> map) {
-                return processMap(map, config);
-            }
-
-            // 5. 其他 POJO 对象：先转 Map 再处理
-            Map<String, Object> map = objectMapper.convertValue(data, new com.fasterxml.jackson.core.type.TypeReference<Map<String, Object>>() {});
-            return processMap(map, config);
-        } catch (Exception e) {
-            log.warn("处理审计日志数据失败: {}", e.getMessage());
-            return data;
+    private AuditMethodMetadata metadataOf(JoinPoint joinPoint, SecurityAudit securityAudit) {
+        if (joinPoint.getSignature() instanceof MethodSignature signature) {
+            return metadataCache.computeIfAbsent(signature.getMethod(), method -> buildMetadata(method, securityAudit));
         }
+        return buildMetadata(null, securityAudit);
     }
 
-    private Map<String, Object> processMap(Map<?, ?> map, SecurityAudit config) {
-        Map<String, Object> processedMap = new LinkedHashMap<>();
-        for (Map.Entry<?, ?> entry : map.entrySet()) {
-            String key = String.valueOf(entry.getKey());
-            Object value = entry.getValue();
-
-            // 脱敏判断
-            if (SENSITIVE_KEYS.stream().anyMatch(key::equalsIgnoreCase)) {
-                processedMap.put(key, "******");
-            } else {
-                processedMap.put(key, processLogData(value, config));
+    private AuditMethodMetadata buildMetadata(Method method, SecurityAudit securityAudit) {
+        Expression expression = null;
+        String template = securityAudit.message();
+        if (template != null && !template.isEmpty()) {
+            try {
+                expression = parser.parseExpression(template);
+            } catch (Exception e) {
+                log.warn("解析审计日志消息模板失败: {}", template);
             }
         }
-        return processedMap;
-    }
-
-    private boolean isPrimitiveOrWrapper(Class<?> clazz) {
-        return clazz.isPrimitive() ||
-                clazz == Double.class || clazz == Float.class || clazz == Long.class ||
-                clazz == Integer.class || clazz == Short.class || clazz == Character.class ||
-                clazz == Byte.class || clazz == Boolean.class;
+        if (method == null) {
+            return new AuditMethodMetadata(expression, null, null);
+        }
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        boolean[] loggable = new boolean[parameterTypes.length];
+        for (int i = 0; i < parameterTypes.length; i++) {
+            loggable[i] = isLoggableType(parameterTypes[i]);
+        }
+        return new AuditMethodMetadata(expression, discoverer.getParameterNames(method), loggable);
     }
 
     /**
-     * 判断参数是否适合记录到日志（排除掉 Request, Response, MultipartFile 等无法序列化或内容过大的对象）
+     * 判断参数类型是否适合记录到日志（排除掉 Request, Response, MultipartFile 等无法序列化或内容过大的对象）
      */
-    private boolean isLoggableArg(Object arg) {
-        if (arg == null) return false;
-        return !(arg instanceof ServletRequest)
-                && !(arg instanceof ServletResponse)
-                && !(arg instanceof HttpSession)
-                && !(arg instanceof MultipartFile)
-                && !(arg instanceof BindingResult)
-                && !(arg instanceof Model)
-                && !(arg instanceof ModelMap);
+    private static boolean isLoggableType(Class<?> type) {
+        for (Class<?> unloggable : UNLOGGABLE_TYPES) {
+            if (unloggable.isAssignableFrom(type)) {
+                return false;
+            }
+        }
+        return true;
     }
 
-    private String parseMessage(String template, JoinPoint joinPoint) {
+    private String parseMessage(String template, AuditMethodMetadata metadata, Object[] args) {
         if (template == null || template.isEmpty()) {
             return "";
         }
+        if (metadata.message() == null) {
+            return template;
+        }
         try {
-            MethodSignature signature = (MethodSignature) joinPoint.getSignature();
-            Method method = signature.getMethod();
-            Object[] args = joinPoint.getArgs();
-            String[] params = discoverer.getParameterNames(method);
-
             StandardEvaluationContext context = new StandardEvaluationContext();
-            if (params != null) {
-                for (int i = 0; i < params.length; i++) {
+            String[] params = metadata.parameterNames();
+            if (params != null && args != null) {
+                for (int i = 0; i < params.length && i < args.length; i++) {
                     context.setVariable(params[i], args[i]);
                 }
             }
-            return parser.parseExpression(template).getValue(context, String.class);
+            return metadata.message().getValue(context, String.class);
         } catch (Exception e) {
             log.warn("解析审计日志消息模板失败: {}", template);
             return template;
         }
     }
+
+    /**
+     * 审计方法元数据：编译后的消息表达式（MIXED 模式，多次执行后编译为字节码）、参数名与按声明类型判定的可记录参数
+     */
+    private record AuditMethodMetadata(Expression message, String[] parameterNames, boolean[] loggableArgs) {
+
+        boolean isLoggable(int index, Object arg) {
+            if (arg == null) {
+                return false;
+            }
+            if (loggableArgs == null || index >= loggableArgs.length) {
+                return isLoggableType(arg.getClass());
+            }
+            return loggableArgs[index];
+        }
+    }
 }
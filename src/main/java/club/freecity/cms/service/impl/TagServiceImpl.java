@@ -1,15 +1,21 @@
 package club.freecity.cms.service.impl;
 
+import club.freecity.cms.common.TenantContext;
+import club.freecity.cms.common.GlobalOperation;
 import club.freecity.cms.dto.TagDto;
 import club.freecity.cms.entity.Tag;
 import club.freecity.cms.converter.BeanConverter;
+import club.freecity.cms.event.ContentChangedEvent;
 import club.freecity.cms.repository.TagRepository;
 import club.freecity.cms.service.TagService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -19,6 +25,7 @@ import java.util.stream.Collectors;
 public class TagServiceImpl implements TagService {
 
     private final TagRepository tagRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -36,13 +43,18 @@ public class TagServiceImpl implements TagService {
                 tag.setArticleCount(0);
             }
         }
-        return BeanConverter.toDto(tagRepository.save(tag));
+        Tag savedTag = tagRepository.save(tag);
+        eventPublisher.publishEvent(ContentChangedEvent.updated(
+                ContentChangedEvent.ContentType.TAG, savedTag.getId(), savedTag.getTenantId()));
+        return BeanConverter.toDto(savedTag);
     }
 
     @Override
     @Transactional
     public void deleteTag(Long id) {
         tagRepository.deleteById(id);
+        eventPublisher.publishEvent(ContentChangedEvent.removed(
+                ContentChangedEvent.ContentType.TAG, id, TenantContext.getCurrentTenantId()));
     }
 
     @Override
@@ -78,21 +90,47 @@ public class TagServiceImpl implements TagService {
     @Override
     @Transactional
     public void increaseArticleCount(Long id) {
-        tagRepository.findById(id).ifPresent(tag -> {
-            Integer count = tag.getArticleCount();
-            tag.setArticleCount(count == null ? 1 : count + 1);
-            tagRepository.save(tag);
-        });
+        tagRepository.adjustArticleCounts(List.of(id), 1);
     }
 
     @Override
     @Transactional
     public void decreaseArticleCount(Long id) {
-        tagRepository.findById(id).ifPresent(tag -> {
-            if (tag.getArticleCount() > 0) {
-                tag.setArticleCount(tag.getArticleCount() - 1);
-                tagRepository.save(tag);
-            }
-        });
+        tagRepository.adjustArticleCounts(List.of(id), -1);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void createTags(Collection<String> names) {
+        List<Tag> tags = names.stream().map(name -> {
+            Tag tag = new Tag();
+            tag.setName(name);
+            tag.setArticleCount(0);
+            return tag;
+        }).collect(Collectors.toList());
+        tagRepository.saveAll(tags);
+        tags.forEach(tag -> eventPublisher.publishEvent(ContentChangedEvent.updated(
+                ContentChangedEvent.ContentType.TAG, tag.getId(), tag.getTenantId())));
+    }
+
+    @Override
+    @Transactional
+    public void adjustArticleCounts(Collection<Long> ids, int delta) {
+        if (ids == null || ids.isEmpty() || delta == 0) {
+            return;
+        }
+        tagRepository.adjustArticleCounts(ids, delta);
+    }
+
+    @Override
+    @Transactional
+    @GlobalOperation
+    public int reconcileArticleCounts() {
+        int repaired = 0;
+        for (Object[] row : tagRepository.findArticleCountDrift()) {
+            repaired += tagRepository.repairArticleCount(((Number) row[0]).longValue(),
+                    ((Number) row[1]).intValue(), ((Number) row[2]).intValue());
+        }
+        return repaired;
     }
 }
@@ -0,0 +1,118 @@
+package club.freecity.cms.support.archive;
+
+import club.freecity.cms.common.TenantContext;
+import club.freecity.cms.dto.ArchiveDto;
+import club.freecity.cms.event.ArticlePublicationChangedEvent;
+import club.freecity.cms.repository.ArticleRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 按月归档计数（按租户）
+ * 每个租户首次访问时由一次分组查询加载，之后随文章发布状态变更增量维护；
+ * 加载期间收到增量时不写入缓存（按租户版本号校验，与 CategoryTreeIndex 一致），避免增量丢失或重复计入；
+ * 定期过期重建，兜底提交与事件之间加载造成的少量偏差
+ */
+@Component
+@RequiredArgsConstructor
+public class ArchiveCountIndex {
+
+    private final ArticleRepository articleRepository;
+
+    private final Cache<Long, ConcurrentSkipListMap<YearMonth, Long>> counts = Caffeine.newBuilder()
+            .expireAfterWrite(6, TimeUnit.HOURS)
+            .maximumSize(10_000)
+            .build();
+
+    /**
+     * 租户计数版本，每次收到增量或失效时递增
+     */
+    private final Map<Long, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    /**
+     * 按年份倒序返回当前租户的年度归档
+     */
+    public List<ArchiveDto> listYears() {
+        Map<Integer, Long> years = new TreeMap<>(Comparator.reverseOrder());
+        currentCounts().forEach((month, count) -> years.merge(month.getYear(), count, Long::sum));
+        List<ArchiveDto> result = new ArrayList<>(years.size());
+        years.forEach((year, count) -> result.add(new ArchiveDto(String.valueOf(year), count)));
+        return result;
+    }
+
+    /**
+     * 按月份倒序返回当前租户指定年份的月度归档
+     */
+    public List<ArchiveDto> listMonths(int year) {
+        List<ArchiveDto> result = new ArrayList<>();
+        currentCounts().subMap(YearMonth.of(year, 1), true, YearMonth.of(year, 12), true)
+                .descendingMap()
+                .forEach((month, count) -> result.add(new ArchiveDto(String.valueOf(year), month.getMonthValue(), count)));
+        return result;
+    }
+
+    /**
+     * 事务提交后应用增量；租户尚未加载时忽略，下次访问按数据库结果加载
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPublicationChanged(ArticlePublicationChangedEvent event) {
+        if (event.getTenantId() == null || event.getMonth() == null) {
+            generations.values().forEach(AtomicLong::incrementAndGet);
+            counts.invalidateAll();
+            return;
+        }
+        generations.computeIfAbsent(event.getTenantId(), id -> new AtomicLong()).incrementAndGet();
+        ConcurrentSkipListMap<YearMonth, Long> tenantCounts = counts.getIfPresent(event.getTenantId());
+        if (tenantCounts != null) {
+            tenantCounts.compute(event.getMonth(), (month, count) -> {
+                long value = (count != null ? count : 0L) + event.getDelta();
+                return value > 0 ? value : null;
+            });
+        }
+    }
+
+    private ConcurrentSkipListMap<YearMonth, Long> currentCounts() {
+        Long tenantId = TenantContext.getCurrentTenantId();
+        if (tenantId == null) {
+            return new ConcurrentSkipListMap<>();
+        }
+        ConcurrentSkipListMap<YearMonth, Long> cached = counts.getIfPresent(tenantId);
+        if (cached != null) {
+            return cached;
+        }
+        AtomicLong generation = generations.computeIfAbsent(tenantId, id -> new AtomicLong());
+        long loadedGeneration = generation.get();
+        ConcurrentSkipListMap<YearMonth, Long> loaded = load(tenantId);
+        if (generation.get() == loadedGeneration) {
+            counts.put(tenantId, loaded);
+            // 写入期间收到增量时撤销本次写入
+            if (generation.get() != loadedGeneration) {
+                counts.asMap().remove(tenantId, loaded);
+            }
+        }
+        return loaded;
+    }
+
+    private ConcurrentSkipListMap<YearMonth, Long> load(Long tenantId) {
+        ConcurrentSkipListMap<YearMonth, Long> result = new ConcurrentSkipListMap<>();
+        for (Object[] row : articleRepository.countPublishedByMonth(tenantId)) {
+            YearMonth month = YearMonth.of(((Number) row[0]).intValue(), ((Number) row[1]).intValue());
+            result.put(month, ((Number) row[2]).longValue());
+        }
+        return result;
+    }
+}
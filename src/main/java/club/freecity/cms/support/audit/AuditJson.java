@@ -0,0 +1,162 @@
+package club.freecity.cms.support.audit;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 审计日志专用 JSON 序列化
+ * 在写出时完成脱敏与截断，不再先把对象转换为 Map：敏感字段在每个类的 Bean 序列化器构建时一次性替换（随序列化器按类缓存），
+ * 字符串长度与集合数量上限通过 ObjectWriter 属性按调用传入
+ */
+public final class AuditJson {
+
+    private static final String MASK = "******";
+    private static final String MAX_FIELD_LENGTH = "audit.maxFieldLength";
+    private static final String MAX_COLLECTION_SIZE = "audit.maxCollectionSize";
+
+    private AuditJson() {
+    }
+
+    /**
+     * 基于应用 ObjectMapper 的配置创建审计专用 Writer，不影响全局 ObjectMapper
+     */
+    public static ObjectWriter createWriter(ObjectMapper base, Set<String> sensitiveKeys) {
+        Set<String> keys = sensitiveKeys.stream().map(key -> key.toLowerCase(Locale.ROOT)).collect(Collectors.toUnmodifiableSet());
+        SimpleModule module = new SimpleModule("audit-json");
+        module.setSerializerModifier(new MaskingSerializerModifier(keys));
+        module.addSerializer(String.class, new TruncatingStringSerializer());
+        module.addSerializer(new LimitedCollectionSerializer());
+        module.addSerializer(new MaskingMapSerializer(keys));
+        return base.copy()
+                .registerModule(module)
+                .disable(SerializationFeature.FAIL_ON_EMPTY_BEANS)
+                .writer();
+    }
+
+    public static ObjectWriter withLimits(ObjectWriter writer, int maxFieldLength, int maxCollectionSize) {
+        return writer.withAttribute(MAX_FIELD_LENGTH, maxFieldLength).withAttribute(MAX_COLLECTION_SIZE, maxCollectionSize);
+    }
+
+    private static int limit(SerializerProvider provider, String name) {
+        Object value = provider.getAttribute(name);
+        return value instanceof Integer limit ? limit : Integer.MAX_VALUE;
+    }
+
+    private static class MaskingSerializerModifier extends BeanSerializerModifier {
+
+        private final Set<String> sensitiveKeys;
+
+        MaskingSerializerModifier(Set<String> sensitiveKeys) {
+            this.sensitiveKeys = sensitiveKeys;
+        }
+
+        @Override
+        public List<BeanPropertyWriter> changeProperties(SerializationConfig config, BeanDescription beanDesc,
+                                                         List<BeanPropertyWriter> beanProperties) {
+            for (int i = 0; i < beanProperties.size(); i++) {
+                BeanPropertyWriter writer = beanProperties.get(i);
+                if (sensitiveKeys.contains(writer.getName().toLowerCase(Locale.ROOT))) {
+                    beanProperties.set(i, new MaskedPropertyWriter(writer));
+                }
+            }
+            return beanProperties;
+        }
+    }
+
+    private static class MaskedPropertyWriter extends BeanPropertyWriter {
+
+        MaskedPropertyWriter(BeanPropertyWriter base) {
+            super(base);
+        }
+
+        @Override
+        public void serializeAsField(Object bean, JsonGenerator gen, SerializerProvider prov) throws IOException {
+            gen.writeStringField(getName(), MASK);
+        }
+    }
+
+    private static class TruncatingStringSerializer extends StdSerializer<String> {
+
+        TruncatingStringSerializer() {
+            super(String.class);
+        }
+
+        @Override
+        public void serialize(String value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            int maxLength = limit(provider, MAX_FIELD_LENGTH);
+            if (value.length() > maxLength) {
+                gen.writeString(value.substring(0, maxLength) + "...(truncated, total " + value.length() + ")");
+            } else {
+                gen.writeString(value);
+            }
+        }
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static class LimitedCollectionSerializer extends StdSerializer<Collection> {
+
+        LimitedCollectionSerializer() {
+            super(Collection.class);
+        }
+
+        @Override
+        public void serialize(Collection value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            int maxSize = limit(provider, MAX_COLLECTION_SIZE);
+            gen.writeStartArray(value, Math.min(value.size(), maxSize) + (value.size() > maxSize ? 1 : 0));
+            int count = 0;
+            for (Object item : (Collection<Object>) value) {
+                if (count++ >= maxSize) {
+                    break;
+                }
+                provider.defaultSerializeValue(item, gen);
+            }
+            if (value.size() > maxSize) {
+                gen.writeString("...(truncated, total " + value.size() + " items)");
+            }
+            gen.writeEndArray();
+        }
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static class MaskingMapSerializer extends StdSerializer<Map> {
+
+        private final Set<String> sensitiveKeys;
+
+        MaskingMapSerializer(Set<String> sensitiveKeys) {
+            super(Map.class);
+            this.sensitiveKeys = sensitiveKeys;
+        }
+
+        @Override
+        public void serialize(Map value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(value);
+            for (Map.Entry<Object, Object> entry : ((Map<Object, Object>) value).entrySet()) {
+                String key = String.valueOf(entry.getKey());
+                gen.writeFieldName(key);
+                if (sensitiveKeys.contains(key.toLowerCase(Locale.ROOT))) {
+                    gen.writeString(MASK);
+                } else {
+                    provider.defaultSerializeValue(entry.getValue(), gen);
+                }
+            }
+            gen.writeEndObject();
+        }
+    }
+}
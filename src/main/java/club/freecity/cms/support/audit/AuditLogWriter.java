@@ -0,0 +1,206 @@
+package club.freecity.cms.support.audit;
+
+import club.freecity.cms.common.NamedThreadFactory;
+import club.freecity.cms.entity.SecurityLog;
+import club.freecity.cms.service.SecurityAuditService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 审计日志批量写入器
+ * 调用方只做无锁入队，永不阻塞；单个写线程每 flush-interval 毫秒或攒够 batch-size 条时以 JDBC 批量插入，停机时排空队列。
+ * 队列超过 3/4 容量后成功日志按 busy-sample-rate 抽样保留（失败日志全部保留），队列满时丢弃新日志并计数
+ */
+@Slf4j
+@Component
+public class AuditLogWriter {
+
+    private static final String INSERT_SQL = "INSERT INTO security_log (tenant_id, user_id, username, action, status, ip, " +
+            "location, device, browser, os, message, create_time) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int capacity;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final int busySampleRate;
+
+    private final ConcurrentLinkedQueue<SecurityLog> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicLong sampleSequence = new AtomicLong();
+
+    private final LongAdder queued = new LongAdder();
+    private final LongAdder flushed = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private volatile long lastFlushLatencyMillis;
+    private volatile long maxFlushLatencyMillis;
+
+    private volatile boolean running;
+    private volatile boolean closed;
+    private Thread writerThread;
+
+    public AuditLogWriter(JdbcTemplate jdbcTemplate,
+                          @Value("${app.audit.queue-capacity:10000}") int capacity,
+                          @Value("${app.audit.batch-size:200}") int batchSize,
+                          @Value("${app.audit.flush-interval:1000}") long flushIntervalMillis,
+                          @Value("${app.audit.busy-sample-rate:10}") int busySampleRate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        this.busySampleRate = Math.max(1, busySampleRate);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        writerThread = new NamedThreadFactory("audit-log-writer", true).newThread(this::runLoop);
+        writerThread.start();
+    }
+
+    /**
+     * 提交一条审计日志，被丢弃时返回 false
+     */
+    public boolean offer(SecurityLog securityLog) {
+        if (closed) {
+            dropped.increment();
+            return false;
+        }
+        int current = size.get();
+        if (current >= capacity * 3 / 4
+                && !SecurityAuditService.STATUS_FAILURE.equals(securityLog.getStatus())
+                && sampleSequence.incrementAndGet() % busySampleRate != 0) {
+            dropped.increment();
+            return false;
+        }
+        if (size.incrementAndGet() > capacity) {
+            size.decrementAndGet();
+            dropped.increment();
+            return false;
+        }
+        queue.offer(securityLog);
+        queued.increment();
+        if (size.get() == batchSize && writerThread != null) {
+            LockSupport.unpark(writerThread);
+        }
+        return true;
+    }
+
+    public long getQueuedCount() {
+        return queued.sum();
+    }
+
+    public long getFlushedCount() {
+        return flushed.sum();
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    public long getFailedCount() {
+        return failed.sum();
+    }
+
+    public int getPendingCount() {
+        return size.get();
+    }
+
+    public long getLastFlushLatencyMillis() {
+        return lastFlushLatencyMillis;
+    }
+
+    public long getMaxFlushLatencyMillis() {
+        return maxFlushLatencyMillis;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        closed = true;
+        running = false;
+        if (writerThread != null) {
+            LockSupport.unpark(writerThread);
+            writerThread.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    private void runLoop() {
+        List<SecurityLog> batch = new ArrayList<>(batchSize);
+        long deadline = 0;
+        while (running) {
+            boolean wasEmpty = batch.isEmpty();
+            drainTo(batch);
+            if (wasEmpty && !batch.isEmpty()) {
+                deadline = System.nanoTime() + flushIntervalNanos;
+            }
+            if (batch.size() >= batchSize || (!batch.isEmpty() && System.nanoTime() - deadline >= 0)) {
+                write(batch);
+                continue;
+            }
+            LockSupport.parkNanos(this, batch.isEmpty() ? flushIntervalNanos : Math.max(0, deadline - System.nanoTime()));
+        }
+        // 停机：写完队列中剩余的日志
+        do {
+            drainTo(batch);
+            if (!batch.isEmpty()) {
+                write(batch);
+            }
+        } while (!queue.isEmpty());
+    }
+
+    private void drainTo(List<SecurityLog> batch) {
+        SecurityLog securityLog;
+        while (batch.size() < batchSize && (securityLog = queue.poll()) != null) {
+            size.decrementAndGet();
+            batch.add(securityLog);
+        }
+    }
+
+    private void write(List<SecurityLog> batch) {
+        long start = System.nanoTime();
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, securityLog) -> {
+                ps.setLong(1, securityLog.getTenantId());
+                ps.setObject(2, securityLog.getUserId());
+                ps.setString(3, securityLog.getUsername());
+                ps.setString(4, securityLog.getAction());
+                ps.setString(5, securityLog.getStatus());
+                ps.setString(6, securityLog.getIp());
+                ps.setString(7, securityLog.getLocation());
+                ps.setString(8, securityLog.getDevice());
+                ps.setString(9, securityLog.getBrowser());
+                ps.setString(10, securityLog.getOs());
+                ps.setString(11, securityLog.getMessage());
+                LocalDateTime createTime = securityLog.getCreateTime() != null ? securityLog.getCreateTime() : LocalDateTime.now();
+                ps.setTimestamp(12, Timestamp.valueOf(createTime));
+            });
+            flushed.add(batch.size());
+        } catch (Exception e) {
+            // 审计日志不重试，避免故障时在内存中无限堆积
+            failed.add(batch.size());
+            log.error("审计日志批量写入失败，丢弃 {} 条", batch.size(), e);
+        } finally {
+            long latency = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            lastFlushLatencyMillis = latency;
+            if (latency > maxFlushLatencyMillis) {
+                maxFlushLatencyMillis = latency;
+            }
+            batch.clear();
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package club.freecity.cms.support.category;
+
+import club.freecity.cms.common.TenantContext;
+import club.freecity.cms.event.ContentChangedEvent;
+import club.freecity.cms.repository.CategoryRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 分类树内存索引（按租户）
+ * 每个租户的父子关系由一次查询加载，后代查询改为内存遍历；分类变更后整棵树失效，下次访问时重建。
+ * 加载期间发生失效时不写入缓存（按租户版本号校验），写入后定期过期，兜底长事务中读到旧快照的情况
+ */
+@Component
+@RequiredArgsConstructor
+public class CategoryTreeIndex {
+
+    private final CategoryRepository categoryRepository;
+
+    private final Cache<Long, Map<Long, List<Long>>> trees = Caffeine.newBuilder()
+            .expireAfterWrite(10, TimeUnit.MINUTES)
+            .maximumSize(10_000)
+            .build();
+
+    /**
+     * 租户分类树版本，每次失效递增
+     */
+    private final Map<Long, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    /**
+     * 获取分类自身及其全部后代分类 ID
+     */
+    public List<Long> getDescendantIds(Long categoryId) {
+        Long tenantId = TenantContext.getCurrentTenantId();
+        Map<Long, List<Long>> children = tenantId != null ? tree(tenantId) : null;
+        if (children == null || !children.containsKey(categoryId)) {
+            // 不属于当前租户（如超级管理员跨租户操作）时按分类所属租户加载
+            Long ownerTenantId = categoryRepository.findTenantIdById(categoryId).orElse(null);
+            children = ownerTenantId != null ? tree(ownerTenantId) : Map.of();
+        }
+
+        List<Long> ids = new ArrayList<>();
+        Set<Long> visited = new HashSet<>();
+        Deque<Long> queue = new ArrayDeque<>();
+        queue.add(categoryId);
+        while (!queue.isEmpty()) {
+            Long id = queue.poll();
+            // 防御脏数据中的环
+            if (visited.add(id)) {
+                ids.add(id);
+                queue.addAll(children.getOrDefault(id, List.of()));
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * 事务结束（提交或回滚）后失效对应租户的分类树
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+    public void onContentChanged(ContentChangedEvent event) {
+        if (event.getType() != ContentChangedEvent.ContentType.CATEGORY) {
+            return;
+        }
+        if (event.getTenantId() == null) {
+            generations.values().forEach(AtomicLong::incrementAndGet);
+            trees.invalidateAll();
+        } else {
+            generations.computeIfAbsent(event.getTenantId(), id -> new AtomicLong()).incrementAndGet();
+            trees.invalidate(event.getTenantId());
+        }
+    }
+
+    private Map<Long, List<Long>> tree(Long tenantId) {
+        Map<Long, List<Long>> cached = trees.getIfPresent(tenantId);
+        if (cached != null) {
+            return cached;
+        }
+        AtomicLong generation = generations.computeIfAbsent(tenantId, id -> new AtomicLong());
+        long loadedGeneration = generation.get();
+        Map<Long, List<Long>> children = load(tenantId);
+        if (generation.get() == loadedGeneration) {
+            trees.put(tenantId, children);
+            // 写入期间发生失效时撤销本次写入
+            if (generation.get() != loadedGeneration) {
+                trees.asMap().remove(tenantId, children);
+            }
+        }
+        return children;
+    }
+
+    private Map<Long, List<Long>> load(Long tenantId) {
+        Map<Long, List<Long>> children = new HashMap<>();
+        for (Object[] row : categoryRepository.findTreeEdgesByTenantId(tenantId)) {
+            Long id = (Long) row[0];
+            Long parentId = (Long) row[1];
+            children.computeIfAbsent(id, k -> new ArrayList<>());
+            children.computeIfAbsent(parentId, k -> new ArrayList<>()).add(id);
+        }
+        children.replaceAll((id, list) -> List.copyOf(list));
+        return Map.copyOf(children);
+    }
+}
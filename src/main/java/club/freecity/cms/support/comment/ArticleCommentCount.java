@@ -0,0 +1,7 @@
+package club.freecity.cms.support.comment;
+
+/**
+ * 按文章分组的评论条数，用于批量处理时一次算出各文章评论数的变化
+ */
+public record ArticleCommentCount(Long articleId, Long count) {
+}
@@ -0,0 +1,7 @@
+package club.freecity.cms.support.comment;
+
+/**
+ * 批量处理任务提交时命中评论的数量与 ID 范围
+ */
+public record CommentModerationScope(Long total, Long minId, Long maxId) {
+}
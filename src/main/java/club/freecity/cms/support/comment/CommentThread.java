@@ -0,0 +1,126 @@
+package club.freecity.cms.support.comment;
+
+import club.freecity.cms.dto.CommentDto;
+import club.freecity.cms.enums.CommentStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 一篇文章的已发布评论树
+ * 由按创建时间升序的投影行一次遍历组装，回复按时间正序挂到父评论下；父评论未发布的回复不展示。
+ * 回复先收集在 ArrayList 中，以只读的 Set 视图暴露：组装时不计算 DTO 哈希（@Data 哈希含回复，入集合后再变化会破坏集合），
+ * 且缓存中共享的评论树不能被调用方修改
+ */
+public final class CommentThread {
+
+    private final List<CommentDto> roots;
+    private final int size;
+
+    private CommentThread(List<CommentDto> roots, int size) {
+        this.roots = roots;
+        this.size = size;
+    }
+
+    public static CommentThread assemble(Long articleId, List<CommentThreadRow> rows) {
+        Map<Long, CommentDto> byId = new HashMap<>(rows.size() * 2);
+        Map<Long, List<CommentDto>> replies = new HashMap<>(rows.size() * 2);
+        List<CommentDto> roots = new ArrayList<>();
+        for (CommentThreadRow row : rows) {
+            List<CommentDto> children = new ArrayList<>();
+            CommentDto dto = toDto(articleId, row, children);
+            byId.put(row.id(), dto);
+            replies.put(row.id(), children);
+            if (row.parentId() == null) {
+                roots.add(dto);
+                continue;
+            }
+            // 升序遍历时父评论总在回复之前出现
+            CommentDto parent = byId.get(row.parentId());
+            if (parent != null) {
+                dto.setParentId(parent.getId());
+                dto.setParentNickname(parent.getNickname());
+                replies.get(parent.getId()).add(dto);
+            }
+        }
+        return new CommentThread(Collections.unmodifiableList(roots), rows.size());
+    }
+
+    /**
+     * 按根评论分页，默认创建时间倒序；传入 createTime 升序时正序
+     */
+    public Page<CommentDto> page(Pageable pageable) {
+        int total = roots.size();
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(isAscending(pageable) ? roots : reversed(0, total), pageable, total);
+        }
+        int from = (int) Math.min(pageable.getOffset(), total);
+        int to = Math.min(from + pageable.getPageSize(), total);
+        List<CommentDto> content = isAscending(pageable) ? roots.subList(from, to) : reversed(from, to);
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    /**
+     * 评论总数（含回复），用于缓存权重
+     */
+    public int size() {
+        return size;
+    }
+
+    private List<CommentDto> reversed(int from, int to) {
+        List<CommentDto> content = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            content.add(roots.get(roots.size() - 1 - i));
+        }
+        return content;
+    }
+
+    private static boolean isAscending(Pageable pageable) {
+        Sort.Order order = pageable.getSort().getOrderFor("createTime");
+        return order != null && order.isAscending();
+    }
+
+    private static CommentDto toDto(Long articleId, CommentThreadRow row, List<CommentDto> children) {
+        CommentDto dto = new CommentDto();
+        dto.setId(row.id());
+        dto.setArticleId(articleId);
+        dto.setNickname(row.nickname());
+        dto.setContent(row.content());
+        dto.setAdminReply(row.adminReply());
+        dto.setStatus(CommentStatus.PUBLISHED.getValue());
+        dto.setCreateTime(row.createTime());
+        dto.setReplies(new ReplySet(children));
+        return dto;
+    }
+
+    /**
+     * 按时间正序的只读回复集合，元素唯一性由评论 ID 保证
+     */
+    private static final class ReplySet extends AbstractSet<CommentDto> {
+
+        private final List<CommentDto> replies;
+
+        private ReplySet(List<CommentDto> replies) {
+            this.replies = Collections.unmodifiableList(replies);
+        }
+
+        @Override
+        public Iterator<CommentDto> iterator() {
+            return replies.iterator();
+        }
+
+        @Override
+        public int size() {
+            return replies.size();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package club.freecity.cms.support.comment;
+
+import club.freecity.cms.event.ContentChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 文章评论树缓存
+ * 按 租户 + 文章 缓存组装好的已发布评论树；已发布评论增减（发表、审核、批量审核、删除）提交后失效对应文章
+ */
+@Component
+public class CommentThreadCache {
+
+    private final Cache<Key, CommentThread> cache;
+
+    public CommentThreadCache(@Value("${app.comment.thread-cache.max-comments:200000}") long maxComments,
+                              @Value("${app.comment.thread-cache.ttl:600}") long ttlSeconds) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxComments)
+                .weigher((Key key, CommentThread thread) -> Math.max(1, thread.size()))
+                .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                .build();
+    }
+
+    /**
+     * 获取评论树，未命中时在调用方事务内加载；加载期间发生的失效会等待加载完成后移除结果
+     */
+    public CommentThread get(Long tenantId, Long articleId, Supplier<CommentThread> loader) {
+        if (tenantId == null) {
+            return loader.get();
+        }
+        return cache.get(new Key(tenantId, articleId), key -> loader.get());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onContentChanged(ContentChangedEvent event) {
+        boolean articleRemoved = event.getType() == ContentChangedEvent.ContentType.ARTICLE && event.isRemoved();
+        if (event.getType() != ContentChangedEvent.ContentType.COMMENT && !articleRemoved) {
+            return;
+        }
+        if (event.getTenantId() == null) {
+            cache.asMap().keySet().removeIf(key -> key.articleId().equals(event.getId()));
+        } else {
+            cache.invalidate(new Key(event.getTenantId(), event.getId()));
+        }
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    private record Key(Long tenantId, Long articleId) {
+    }
+}
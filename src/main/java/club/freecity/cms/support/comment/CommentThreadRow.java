@@ -0,0 +1,10 @@
+package club.freecity.cms.support.comment;
+
+import java.time.LocalDateTime;
+
+/**
+ * 评论树投影行（读者端字段，不含邮箱、IP 等隐私信息）
+ */
+public record CommentThreadRow(Long id, Long parentId, String nickname, String content,
+                               Boolean adminReply, LocalDateTime createTime) {
+}
@@ -0,0 +1,102 @@
+package club.freecity.cms.support.counter;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 文章阅读量写缓冲
+ * 阅读请求只在内存中累加，由定时任务合并为批量增量 UPDATE 写回数据库，停机时再刷新一次。
+ * 一轮增量在同一事务中写回：失败时整批回滚后放回缓冲，不会部分落库后重复累加。
+ * 文章 ID 全局唯一，已隐含租户归属，因此直接以文章 ID 作为计数键。
+ */
+@Slf4j
+@Lazy(false)
+@Component
+@RequiredArgsConstructor
+public class ViewCountBuffer {
+
+    private static final String FLUSH_SQL = "UPDATE article SET view_count = COALESCE(view_count, 0) + ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ConcurrentHashMap<Long, LongAdder> counters = new ConcurrentHashMap<>();
+
+    private volatile long lastFlushTime = System.currentTimeMillis();
+
+    /**
+     * 累加一次阅读
+     */
+    public void increment(Long articleId) {
+        if (articleId == null) {
+            return;
+        }
+        counters.computeIfAbsent(articleId, k -> new LongAdder()).increment();
+    }
+
+    /**
+     * 获取尚未落库的阅读增量
+     */
+    public long getPendingCount(Long articleId) {
+        LongAdder adder = counters.get(articleId);
+        return adder == null ? 0 : adder.sum();
+    }
+
+    /**
+     * 所有尚未落库的阅读增量之和
+     */
+    public long getTotalPendingCount() {
+        return counters.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    /**
+     * 距上次成功刷新的毫秒数
+     */
+    public long getFlushLagMillis() {
+        return System.currentTimeMillis() - lastFlushTime;
+    }
+
+    @Scheduled(initialDelayString = "${app.article.view-count.flush-interval:10000}",
+            fixedDelayString = "${app.article.view-count.flush-interval:10000}")
+    public synchronized void flush() {
+        List<Object[]> batch = new ArrayList<>();
+        // 计数器键保留复用，避免并发 increment 命中已移除的计数器导致丢失
+        for (Map.Entry<Long, LongAdder> entry : counters.entrySet()) {
+            long delta = entry.getValue().sumThenReset();
+            if (delta > 0) {
+                batch.add(new Object[]{delta, entry.getKey()});
+            }
+        }
+        if (batch.isEmpty()) {
+            lastFlushTime = System.currentTimeMillis();
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(FLUSH_SQL, batch));
+            lastFlushTime = System.currentTimeMillis();
+        } catch (Exception e) {
+            // 写回失败时将增量放回缓冲，等待下一轮重试
+            for (Object[] row : batch) {
+                counters.computeIfAbsent((Long) row[1], k -> new LongAdder()).add((Long) row[0]);
+            }
+            log.error("阅读量刷新失败，{} 条增量将在下一轮重试", batch.size(), e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+}
@@ -0,0 +1,79 @@
+package club.freecity.cms.support.httpcache;
+
+import club.freecity.cms.annotation.ConditionalGet;
+import club.freecity.cms.common.TenantContext;
+import club.freecity.cms.support.counter.ViewCountBuffer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 处理带 {@link ConditionalGet} 注解的接口：在控制器查询数据之前完成条件请求校验，并按路由策略写入 Cache-Control
+ */
+@Component
+@RequiredArgsConstructor
+public class ConditionalGetInterceptor implements HandlerInterceptor {
+
+    private static final String POLICY_PREFIX = "app.http-cache.cache-control.";
+    private static final String DEFAULT_CACHE_CONTROL = "no-cache";
+
+    private final ContentVersions contentVersions;
+    private final ViewCountBuffer viewCountBuffer;
+    private final Environment environment;
+
+    private final Map<String, String> cacheControls = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+        ConditionalGet conditionalGet = handlerMethod.getMethodAnnotation(ConditionalGet.class);
+        Long tenantId = TenantContext.getCurrentTenantId();
+        if (conditionalGet == null || tenantId == null || !isEnabled()) {
+            return true;
+        }
+        // 304 响应同样需要携带 Cache-Control，且先于 Spring Security 默认的 no-store 写入
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl(conditionalGet.value()));
+        if (!contentVersions.checkNotModified(new ServletWebRequest(request, response), tenantId)) {
+            return true;
+        }
+        // 与页面缓存命中一致：客户端缓存的文章详情页同样计入阅读量
+        if (!conditionalGet.viewedArticle().isEmpty()) {
+            countView(request, conditionalGet.viewedArticle());
+        }
+        return false;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void countView(HttpServletRequest request, String variable) {
+        Map<String, String> variables = (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        if (variables == null || variables.get(variable) == null) {
+            return;
+        }
+        try {
+            viewCountBuffer.increment(Long.valueOf(variables.get(variable)));
+        } catch (NumberFormatException e) {
+            // 非法 ID 由控制器路径处理
+        }
+    }
+
+    private boolean isEnabled() {
+        return environment.getProperty("app.http-cache.enabled", Boolean.class, true);
+    }
+
+    private String cacheControl(String policy) {
+        return cacheControls.computeIfAbsent(policy, name -> environment.getProperty(POLICY_PREFIX + name,
+                environment.getProperty(POLICY_PREFIX + "default", DEFAULT_CACHE_CONTROL)));
+    }
+}
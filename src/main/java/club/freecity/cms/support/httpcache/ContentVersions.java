@@ -0,0 +1,72 @@
+package club.freecity.cms.support.httpcache;
+
+import club.freecity.cms.event.ContentChangedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 租户内容版本
+ * 租户下任何内容写入（事务提交后）版本递增，读者端以版本作为 ETag、以最近变更时间作为 Last-Modified；
+ * ETag 带启动时间戳，重启后旧 ETag 自然失效
+ */
+@Component
+public class ContentVersions {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private final Map<Long, Version> versions = new ConcurrentHashMap<>();
+
+    /**
+     * 无法确定租户的变更使所有租户的版本失效
+     */
+    private volatile Version global = new Version(0, System.currentTimeMillis());
+
+    public String etag(Long tenantId) {
+        Version version = versions.get(tenantId);
+        return "\"" + epoch + "-" + tenantId + "-" + global.counter() + "." + (version != null ? version.counter() : 0) + "\"";
+    }
+
+    public long lastModified(Long tenantId) {
+        Version version = versions.get(tenantId);
+        return version != null ? Math.max(version.lastModified(), global.lastModified()) : global.lastModified();
+    }
+
+    /**
+     * 校验 If-None-Match / If-Modified-Since，未变更时将响应置为 304 并返回 true；否则写入 ETag 与 Last-Modified
+     */
+    public boolean checkNotModified(ServletWebRequest webRequest, Long tenantId) {
+        return webRequest.checkNotModified(etag(tenantId), lastModified(tenantId));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onContentChanged(ContentChangedEvent event) {
+        Long tenantId = event.getType() == ContentChangedEvent.ContentType.TENANT ? event.getId() : event.getTenantId();
+        if (event.getType() == ContentChangedEvent.ContentType.TENANT && event.isRemoved()) {
+            versions.remove(tenantId);
+            return;
+        }
+        bump(tenantId);
+    }
+
+    /**
+     * 递增租户版本，tenantId 为空时递增全局版本
+     * 提交后异步完成的派生内容（侧边栏快照、全文索引）就绪时再次调用，避免重新校验期间拿到新版本的旧内容被长期 304
+     */
+    public void bump(Long tenantId) {
+        long now = System.currentTimeMillis();
+        if (tenantId == null) {
+            synchronized (this) {
+                global = new Version(global.counter() + 1, now);
+            }
+            return;
+        }
+        versions.merge(tenantId, new Version(1, now), (old, ignored) -> new Version(old.counter() + 1, now));
+    }
+
+    private record Version(long counter, long lastModified) {
+    }
+}
@@ -0,0 +1,211 @@
+package club.freecity.cms.support.media;
+
+import club.freecity.cms.common.NamedThreadFactory;
+import club.freecity.cms.event.ImageUploadedEvent;
+import club.freecity.cms.repository.MediaBlobRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.StringJoiner;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 图片衍生图生成器
+ * 新图片提交后在有界线程池中按配置宽度生成缩放图（原格式，ImageIO 支持时另生成 WebP），与原图同目录存放并回写到 media_blob；
+ * 队列满时放弃生成，读取时自动回退到原图；解码前先读取图片头中的尺寸，像素数超过上限的图片（可能是解压炸弹）不解码
+ */
+@Slf4j
+@Component
+public class ImageVariantGenerator {
+
+    private static final float JPEG_QUALITY = 0.82f;
+
+    private final ImageVariants imageVariants;
+    private final MediaBlobRepository mediaBlobRepository;
+    private final ThreadPoolExecutor executor;
+    private final long maxPixels;
+
+    private final LongAdder generated = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder oversized = new LongAdder();
+
+    public ImageVariantGenerator(ImageVariants imageVariants,
+                                 MediaBlobRepository mediaBlobRepository,
+                                 @Value("${app.upload.image.worker-threads:2}") int workerThreads,
+                                 @Value("${app.upload.image.queue-capacity:100}") int queueCapacity,
+                                 @Value("${app.upload.image.max-pixels:40000000}") long maxPixels) {
+        this.imageVariants = imageVariants;
+        this.mediaBlobRepository = mediaBlobRepository;
+        this.maxPixels = maxPixels;
+        this.executor = new ThreadPoolExecutor(workerThreads, workerThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new NamedThreadFactory("image-variant", true),
+                (task, pool) -> rejected.increment());
+    }
+
+    /**
+     * 事务提交后提交生成任务，回滚的上传不会生成衍生图
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onImageUploaded(ImageUploadedEvent event) {
+        if (!imageVariants.isResizable(event.getContentType())) {
+            return;
+        }
+        executor.execute(() -> generate(event.getBlobId(), Paths.get(event.getFilePath())));
+    }
+
+    public long getGeneratedCount() {
+        return generated.sum();
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    public long getFailedCount() {
+        return failed.sum();
+    }
+
+    public long getOversizedCount() {
+        return oversized.sum();
+    }
+
+    public int getPendingCount() {
+        return executor.getQueue().size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    void generate(Long blobId, Path original) {
+        try {
+            BufferedImage source = read(original);
+            if (source == null) {
+                return;
+            }
+            String format = ImageVariants.formatOf(original);
+            StringJoiner variants = new StringJoiner(",");
+            for (int width : imageVariants.getWidths()) {
+                // 不放大：原图不宽于目标宽度时跳过
+                if (width >= source.getWidth()) {
+                    break;
+                }
+                BufferedImage scaled = scale(source, width, format.equals("png"));
+                write(scaled, format, ImageVariants.variantPath(original, width, format));
+                if (imageVariants.isWebpSupported()) {
+                    write(scaled, ImageVariants.WEBP, ImageVariants.variantPath(original, width, ImageVariants.WEBP));
+                }
+                variants.add(String.valueOf(width));
+            }
+            if (variants.length() > 0) {
+                mediaBlobRepository.updateVariants(blobId, variants.toString());
+                generated.increment();
+            }
+        } catch (Exception e) {
+            failed.increment();
+            log.warn("生成图片衍生图失败: {}", original, e);
+        }
+    }
+
+    /**
+     * 先只解析图片头取得尺寸，像素数在上限内才解码整张图片；无法识别的格式返回 null
+     */
+    private BufferedImage read(Path original) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(original.toFile())) {
+            if (in == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > maxPixels) {
+                    oversized.increment();
+                    log.warn("图片像素数超过上限，跳过生成衍生图: {} ({}x{})", original, reader.getWidth(0), reader.getHeight(0));
+                    return null;
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * 逐级减半后再缩放到目标宽度，双线性插值在大比例缩小时也能保持清晰
+     */
+    private BufferedImage scale(BufferedImage source, int targetWidth, boolean keepAlpha) {
+        int imageType = keepAlpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        int targetHeight = Math.max(1, (int) Math.round((double) source.getHeight() * targetWidth / source.getWidth()));
+        BufferedImage current = source;
+        int width = source.getWidth();
+        int height = source.getHeight();
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = width == targetWidth ? targetHeight : Math.max(targetHeight, height / 2);
+            BufferedImage next = new BufferedImage(width, height, imageType);
+            Graphics2D g = next.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                g.drawImage(current, 0, 0, width, height, null);
+            } finally {
+                g.dispose();
+            }
+            current = next;
+        } while (width > targetWidth);
+        return current;
+    }
+
+    /**
+     * 先写临时文件再原子替换，读取方不会看到写了一半的衍生图
+     */
+    private void write(BufferedImage image, String format, Path target) throws IOException {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName(format);
+        if (!writers.hasNext()) {
+            return;
+        }
+        ImageWriter writer = writers.next();
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(temp.toFile())) {
+            writer.setOutput(out);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if (format.equals("jpg") && param.canWriteCompressed()) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(JPEG_QUALITY);
+            }
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
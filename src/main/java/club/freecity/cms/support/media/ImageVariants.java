@@ -0,0 +1,124 @@
+package club.freecity.cms.support.media;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.ImageIO;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 图片衍生图命名与选择规则
+ * 衍生图与原图同目录存放：{hash}.jpg -> {hash}_w640.jpg / {hash}_w640.webp，
+ * 读取时只按约定路径检查文件是否存在，不查询数据库
+ */
+@Component
+public class ImageVariants {
+
+    public static final String WEBP = "webp";
+
+    private static final List<String> RESIZABLE_TYPES = List.of("image/jpeg", "image/jfif", "image/png");
+    private static final List<String> RESIZABLE_EXTENSIONS = List.of(".jpg", ".jpeg", ".jfif", ".png");
+
+    private final int[] widths;
+    private final String urlPrefix;
+    private final boolean webpSupported;
+
+    public ImageVariants(@Value("${app.upload.image.variant-widths:320,640,1280}") int[] widths,
+                         @Value("${app.upload.path}") String uploadPath) {
+        this.widths = Arrays.stream(widths).filter(width -> width > 0).sorted().distinct().toArray();
+        this.urlPrefix = "/" + uploadPath + "/";
+        // JDK 自带 ImageIO 不含 WebP 编码器，引入 ImageIO 插件后自动启用
+        this.webpSupported = ImageIO.getImageWritersByFormatName(WEBP).hasNext();
+    }
+
+    public int[] getWidths() {
+        return widths.clone();
+    }
+
+    public boolean isWebpSupported() {
+        return webpSupported;
+    }
+
+    /**
+     * 是否生成衍生图：仅 JPEG/PNG（GIF 缩放会丢失动画，SVG/ICO 无需缩放）
+     */
+    public boolean isResizable(String contentType) {
+        return contentType != null && RESIZABLE_TYPES.contains(contentType.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * 原图同格式的编码名（jpg / png）
+     */
+    public static String formatOf(Path original) {
+        return original.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".png") ? "png" : "jpg";
+    }
+
+    public static Path variantPath(Path original, int width, String format) {
+        String fileName = original.getFileName().toString();
+        int dot = fileName.lastIndexOf('.');
+        String baseName = dot > 0 ? fileName.substring(0, dot) : fileName;
+        return original.resolveSibling(baseName + "_w" + width + "." + format);
+    }
+
+    /**
+     * 选择不小于请求宽度的最小衍生图，客户端接受 WebP 时优先 WebP；没有合适的衍生图时返回原图
+     */
+    public Path resolve(Path original, Integer width, boolean acceptsWebp) {
+        if (width == null || width <= 0 || !isResizableFile(original)) {
+            return original;
+        }
+        String format = formatOf(original);
+        for (int candidate : widths) {
+            if (candidate < width) {
+                continue;
+            }
+            if (acceptsWebp && webpSupported) {
+                Path webp = variantPath(original, candidate, WEBP);
+                if (Files.isRegularFile(webp)) {
+                    return webp;
+                }
+            }
+            Path variant = variantPath(original, candidate, format);
+            if (Files.isRegularFile(variant)) {
+                return variant;
+            }
+        }
+        return original;
+    }
+
+    /**
+     * 为上传目录下的图片地址附加宽度参数，供模板输出列表缩略图；其他地址原样返回
+     */
+    public String url(String url, int width) {
+        if (url == null || !url.startsWith(urlPrefix) || url.indexOf('?') >= 0
+                || !RESIZABLE_EXTENSIONS.contains(extensionOf(url))) {
+            return url;
+        }
+        return url + "?w=" + width;
+    }
+
+    /**
+     * 删除原图的全部衍生图
+     */
+    public void deleteVariants(Path original) throws IOException {
+        String format = formatOf(original);
+        for (int width : widths) {
+            Files.deleteIfExists(variantPath(original, width, format));
+            Files.deleteIfExists(variantPath(original, width, WEBP));
+        }
+    }
+
+    private boolean isResizableFile(Path path) {
+        return RESIZABLE_EXTENSIONS.contains(extensionOf(path.getFileName().toString()));
+    }
+
+    private static String extensionOf(String name) {
+        int dot = name.lastIndexOf('.');
+        return dot >= 0 ? name.substring(dot).toLowerCase(Locale.ROOT) : "";
+    }
+}
@@ -0,0 +1,307 @@
+package club.freecity.cms.support.media;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * 上传文件输出
+ * 文件元数据（长度、修改时间、校验值、类型、所选衍生图）短期缓存，热点文件无需 stat 或查询数据库；
+ * 支持 Range / 多段 Range 与条件请求，Tomcat 支持 sendfile 时整段交给连接器零拷贝发送，不占用请求线程与堆内缓冲，
+ * 否则以 FileChannel.transferTo 写出
+ */
+@Slf4j
+@Component
+public class UploadedFileServer {
+
+    private static final String SENDFILE_SUPPORT_ATTR = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME_ATTR = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START_ATTR = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END_ATTR = "org.apache.tomcat.sendfile.end";
+
+    /**
+     * 内容寻址文件名：{sha256}.ext 或衍生图 {sha256}_w640.ext，内容不可变，可直接作为强校验值
+     */
+    private static final Pattern CONTENT_ADDRESSED = Pattern.compile("[0-9a-f]{64}(_w\\d+)?");
+    private static final String IMMUTABLE_CACHE_CONTROL = "public, max-age=31536000, immutable";
+
+    private final Path rootPath;
+    private final ImageVariants imageVariants;
+    private final String cacheControl;
+    private final long sendfileThreshold;
+    private final Cache<String, FileMeta> metadata;
+
+    public UploadedFileServer(ImageVariants imageVariants,
+                              @Value("${app.upload.path}") String uploadPath,
+                              @Value("${app.upload.serve.cache-control:public, max-age=86400}") String cacheControl,
+                              @Value("${app.upload.serve.sendfile-threshold:49152}") long sendfileThreshold,
+                              @Value("${app.upload.serve.metadata-ttl:60}") long metadataTtlSeconds) {
+        this.rootPath = Paths.get(uploadPath).toAbsolutePath().normalize();
+        this.imageVariants = imageVariants;
+        this.cacheControl = cacheControl;
+        this.sendfileThreshold = sendfileThreshold;
+        this.metadata = Caffeine.newBuilder()
+                .expireAfterWrite(metadataTtlSeconds, TimeUnit.SECONDS)
+                .maximumSize(10_000)
+                .build();
+    }
+
+    /**
+     * 输出租户目录下的文件，文件不存在或路径非法时返回 404
+     * @param tenantCode 租户编码（路径第一段）
+     * @param path 租户目录内的相对路径
+     */
+    public void serve(HttpServletRequest request, HttpServletResponse response, String tenantCode, String path)
+            throws IOException {
+        Integer width = parseWidth(request.getParameter("w"));
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        boolean acceptsWebp = width != null && accept != null && accept.contains("image/webp");
+        String key = tenantCode + "/" + path + "|" + width + "|" + acceptsWebp;
+
+        FileMeta meta = metadata.getIfPresent(key);
+        if (meta == null) {
+            meta = load(tenantCode, path, width, acceptsWebp);
+            if (meta == null) {
+                response.sendError(HttpServletResponse.SC_NOT_FOUND);
+                return;
+            }
+            if (!meta.fallback()) {
+                // 衍生图尚未生成时回退的原图不缓存，生成后即可切换
+                metadata.put(key, meta);
+            }
+        }
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, meta.immutable() ? IMMUTABLE_CACHE_CONTROL : cacheControl);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (width != null) {
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        }
+        if (new ServletWebRequest(request, response).checkNotModified(meta.etag(), meta.lastModified())) {
+            return;
+        }
+
+        try {
+            List<HttpRange> ranges = parseRanges(request, meta);
+            if (ranges == null) {
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + meta.length());
+                return;
+            }
+            boolean head = "HEAD".equals(request.getMethod());
+            if (ranges.isEmpty()) {
+                response.setContentType(meta.contentType());
+                response.setContentLengthLong(meta.length());
+                if (!head) {
+                    send(request, response, meta, 0, meta.length());
+                }
+            } else if (ranges.size() == 1) {
+                long start = ranges.get(0).getRangeStart(meta.length());
+                long end = ranges.get(0).getRangeEnd(meta.length());
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setContentType(meta.contentType());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + meta.length());
+                response.setContentLengthLong(end - start + 1);
+                if (!head) {
+                    send(request, response, meta, start, end - start + 1);
+                }
+            } else {
+                sendMultipart(response, meta, ranges, head);
+            }
+        } catch (NoSuchFileException e) {
+            // 缓存期内文件已被删除
+            metadata.invalidate(key);
+            if (!response.isCommitted()) {
+                response.reset();
+                response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            }
+        }
+    }
+
+    private FileMeta load(String tenantCode, String path, Integer width, boolean acceptsWebp) throws IOException {
+        Path tenantDir = rootPath.resolve(tenantCode).normalize();
+        Path file = tenantDir.resolve(path).normalize();
+        if (!tenantDir.getParent().equals(rootPath) || !file.startsWith(tenantDir) || file.equals(tenantDir)) {
+            return null;
+        }
+        Path original = file;
+        file = imageVariants.resolve(original, width, acceptsWebp);
+        // 请求了宽度却输出原图：该地址之后会输出衍生图，不能按不可变内容缓存
+        boolean fallback = width != null && file.equals(original);
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+        if (!attributes.isRegularFile()) {
+            return null;
+        }
+
+        String fileName = file.getFileName().toString();
+        int dot = fileName.lastIndexOf('.');
+        String baseName = dot > 0 ? fileName.substring(0, dot) : fileName;
+        boolean contentAddressed = CONTENT_ADDRESSED.matcher(baseName).matches();
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        String etag = contentAddressed
+                ? "\"" + baseName + "\""
+                : "W/\"" + Long.toHexString(attributes.size()) + "-" + Long.toHexString(lastModified) + "\"";
+        String contentType = MediaTypeFactory.getMediaType(fileName)
+                .orElse(MediaType.APPLICATION_OCTET_STREAM).toString();
+        return new FileMeta(file, attributes.size(), lastModified, etag, contentType,
+                contentAddressed && !fallback, fallback);
+    }
+
+    /**
+     * 解析 Range 请求头：无 Range 或 If-Range 不匹配时返回空列表（输出完整文件），无法满足时返回 null
+     * 重叠或相邻的段按起点合并；各段总长超过文件长度时（重复请求同一区间放大输出）同样输出完整文件
+     */
+    private List<HttpRange> parseRanges(HttpServletRequest request, FileMeta meta) {
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader == null || !ifRangeMatches(request, meta)) {
+            return List.of();
+        }
+        List<long[]> bounds = new ArrayList<>();
+        long requested = 0;
+        try {
+            for (HttpRange range : HttpRange.parseRanges(rangeHeader)) {
+                long start = range.getRangeStart(meta.length());
+                long end = range.getRangeEnd(meta.length());
+                if (start > end) {
+                    return null;
+                }
+                bounds.add(new long[]{start, end});
+                requested += end - start + 1;
+            }
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (bounds.isEmpty() || requested > meta.length()) {
+            return List.of();
+        }
+
+        bounds.sort(Comparator.comparingLong(b -> b[0]));
+        List<HttpRange> merged = new ArrayList<>();
+        long[] current = bounds.get(0);
+        for (long[] next : bounds.subList(1, bounds.size())) {
+            if (next[0] <= current[1] + 1) {
+                current[1] = Math.max(current[1], next[1]);
+            } else {
+                merged.add(HttpRange.createByteRange(current[0], current[1]));
+                current = next;
+            }
+        }
+        merged.add(HttpRange.createByteRange(current[0], current[1]));
+        return merged;
+    }
+
+    private boolean ifRangeMatches(HttpServletRequest request, FileMeta meta) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            // If-Range 要求强校验
+            return !meta.etag().startsWith("W/") && ifRange.equals(meta.etag());
+        }
+        try {
+            return request.getDateHeader(HttpHeaders.IF_RANGE) / 1000 == meta.lastModified() / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private void send(HttpServletRequest request, HttpServletResponse response, FileMeta meta, long start, long count)
+            throws IOException {
+        if (count >= sendfileThreshold && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT_ATTR))) {
+            // 交给 Tomcat 连接器在轮询线程中以 sendfile 发送，请求线程立即返回
+            request.setAttribute(SENDFILE_FILENAME_ATTR, meta.path().toString());
+            request.setAttribute(SENDFILE_START_ATTR, start);
+            request.setAttribute(SENDFILE_END_ATTR, start + count);
+            return;
+        }
+        OutputStream out = response.getOutputStream();
+        transfer(meta.path(), start, count, Channels.newChannel(out));
+        out.flush();
+    }
+
+    private void sendMultipart(HttpServletResponse response, FileMeta meta, List<HttpRange> ranges, boolean head)
+            throws IOException {
+        String boundary = UUID.randomUUID().toString();
+        response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+        response.setContentType("multipart/byteranges; boundary=" + boundary);
+        if (head) {
+            return;
+        }
+        OutputStream out = response.getOutputStream();
+        WritableByteChannel channel = Channels.newChannel(out);
+        for (HttpRange range : ranges) {
+            long start = range.getRangeStart(meta.length());
+            long end = range.getRangeEnd(meta.length());
+            out.write(("\r\n--" + boundary + "\r\n"
+                    + HttpHeaders.CONTENT_TYPE + ": " + meta.contentType() + "\r\n"
+                    + HttpHeaders.CONTENT_RANGE + ": bytes " + start + "-" + end + "/" + meta.length() + "\r\n\r\n")
+                    .getBytes(StandardCharsets.US_ASCII));
+            transfer(meta.path(), start, end - start + 1, channel);
+        }
+        out.write(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+    }
+
+    private static void transfer(Path path, long start, long count, WritableByteChannel target) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long transferred = channel.transferTo(position, remaining, target);
+                if (transferred <= 0) {
+                    break;
+                }
+                position += transferred;
+                remaining -= transferred;
+            }
+        }
+    }
+
+    private static Integer parseWidth(String value) {
+        if (value == null || value.isEmpty() || value.length() > 5) {
+            return null;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private record FileMeta(Path path, long length, long lastModified, String etag, String contentType,
+                            boolean immutable, boolean fallback) {
+    }
+}
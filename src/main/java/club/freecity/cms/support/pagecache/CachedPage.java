@@ -0,0 +1,33 @@
+package club.freecity.cms.support.pagecache;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Set;
+
+/**
+ * 缓存的整页响应（gzip 压缩后的 HTML）
+ */
+@Getter
+@AllArgsConstructor
+public class CachedPage {
+
+    private final byte[] gzipBody;
+
+    private final String contentType;
+
+    /**
+     * 首次渲染时按路由策略写入的 Cache-Control
+     */
+    private final String cacheControl;
+
+    /**
+     * 依赖标签，如 article:42、category:7、sidebar
+     */
+    private final Set<String> tags;
+
+    /**
+     * 文章详情页对应的文章 ID，命中缓存时用于继续累计阅读量
+     */
+    private final Long viewedArticleId;
+}
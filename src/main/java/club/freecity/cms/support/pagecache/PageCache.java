@@ -0,0 +1,145 @@
+package club.freecity.cms.support.pagecache;
+
+import club.freecity.cms.event.ContentChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 匿名读者页面缓存（按租户）
+ * 以 gzip 字节存储，按字节数限制总内存；每个条目带依赖标签，内容变更事务提交后按标签失效
+ */
+@Component
+public class PageCache {
+
+    private final Cache<String, CachedPage> pages;
+
+    /**
+     * 租户 + 标签 -> 缓存键
+     */
+    private final Map<String, Set<String>> tagIndex = new ConcurrentHashMap<>();
+
+    /**
+     * 租户内容版本，每次失效递增；渲染期间版本变化的页面不写入缓存，避免回填旧内容
+     */
+    private final Map<Long, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    public PageCache(@Value("${app.page-cache.max-size-mb:64}") long maxSizeMb,
+                     @Value("${app.page-cache.ttl:300}") long ttlSeconds) {
+        this.pages = Caffeine.newBuilder()
+                .maximumWeight(maxSizeMb * 1024 * 1024)
+                .weigher((String key, CachedPage page) -> key.length() * 2 + page.getGzipBody().length)
+                .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                // 同步执行移除回调，避免异步回调把重新写入的条目从标签索引中摘除；替换时新条目已重新登记，无需摘除
+                .executor(Runnable::run)
+                .removalListener((String key, CachedPage page, RemovalCause cause) -> {
+                    if (cause != RemovalCause.REPLACED) {
+                        unindex(key, page);
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    public CachedPage get(String key) {
+        return pages.getIfPresent(key);
+    }
+
+    /**
+     * 当前租户内容版本，渲染前读取，写入缓存时校验
+     */
+    public long generation(Long tenantId) {
+        return generations.computeIfAbsent(tenantId, id -> new AtomicLong()).get();
+    }
+
+    public void put(Long tenantId, String key, CachedPage page, long generation) {
+        if (generation(tenantId) != generation) {
+            return;
+        }
+        for (String tag : page.getTags()) {
+            tagIndex.compute(indexKey(tenantId, tag), (k, keys) -> {
+                Set<String> result = keys != null ? keys : ConcurrentHashMap.newKeySet();
+                result.add(key);
+                return result;
+            });
+        }
+        pages.put(key, page);
+        // 写入期间发生失效时撤销本次写入
+        if (generation(tenantId) != generation) {
+            pages.invalidate(key);
+        }
+    }
+
+    /**
+     * 失效租户下带有任一标签的页面
+     */
+    public void evict(Long tenantId, String... tags) {
+        generations.computeIfAbsent(tenantId, id -> new AtomicLong()).incrementAndGet();
+        for (String tag : tags) {
+            Set<String> keys = tagIndex.remove(indexKey(tenantId, tag));
+            if (keys != null) {
+                pages.invalidateAll(keys);
+            }
+        }
+    }
+
+    /**
+     * 失效租户的全部页面
+     */
+    public void evictTenant(Long tenantId) {
+        evict(tenantId, PageCacheTags.SIDEBAR);
+    }
+
+    public long size() {
+        return pages.estimatedSize();
+    }
+
+    public double hitRate() {
+        return pages.stats().hitRate();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onContentChanged(ContentChangedEvent event) {
+        Long tenantId = event.getType() == ContentChangedEvent.ContentType.TENANT ? event.getId() : event.getTenantId();
+        if (tenantId == null) {
+            pages.invalidateAll();
+            generations.values().forEach(AtomicLong::incrementAndGet);
+            return;
+        }
+        switch (event.getType()) {
+            // 侧边栏展示最新文章、分类与标签统计，文章、分类、标签变更均影响全部页面
+            case ARTICLE -> evict(tenantId, PageCacheTags.article(event.getId()), PageCacheTags.ARTICLE_LIST, PageCacheTags.SIDEBAR);
+            case CATEGORY -> evict(tenantId, PageCacheTags.category(event.getId()), PageCacheTags.SIDEBAR);
+            case TAG -> evict(tenantId, PageCacheTags.tag(event.getId()), PageCacheTags.SIDEBAR);
+            // 评论只影响所属文章的详情页与出现该文章的列表页
+            case COMMENT -> evict(tenantId, PageCacheTags.article(event.getId()));
+            case TENANT -> evictTenant(tenantId);
+        }
+    }
+
+    private void unindex(String key, CachedPage page) {
+        if (key == null || page == null) {
+            return;
+        }
+        String tenantPrefix = key.substring(0, key.indexOf('|') + 1);
+        for (String tag : page.getTags()) {
+            tagIndex.computeIfPresent(tenantPrefix + tag, (k, keys) -> {
+                keys.remove(key);
+                return keys.isEmpty() ? null : keys;
+            });
+        }
+    }
+
+    static String indexKey(Long tenantId, String tag) {
+        return tenantId + "|" + tag;
+    }
+}
@@ -0,0 +1,168 @@
+package club.freecity.cms.support.pagecache;
+
+import club.freecity.cms.common.TenantContext;
+import club.freecity.cms.support.counter.ViewCountBuffer;
+import club.freecity.cms.support.httpcache.ContentVersions;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 匿名读者页面整页缓存
+ * 位于 Spring Security 之后执行，以便沿用安全响应头并识别登录用户；仅缓存控制器登记了依赖标签的 HTML 页面
+ */
+@Slf4j
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER + 1)
+public class PageCacheFilter extends OncePerRequestFilter {
+
+    private static final String CACHE_STATUS_HEADER = "X-Page-Cache";
+
+    private final PageCache pageCache;
+    private final ViewCountBuffer viewCountBuffer;
+    private final ContentVersions contentVersions;
+    private final boolean enabled;
+    private final boolean conditionalGetEnabled;
+
+    public PageCacheFilter(PageCache pageCache, ViewCountBuffer viewCountBuffer, ContentVersions contentVersions,
+                           @Value("${app.page-cache.enabled:true}") boolean enabled,
+                           @Value("${app.http-cache.enabled:true}") boolean conditionalGetEnabled) {
+        this.pageCache = pageCache;
+        this.viewCountBuffer = viewCountBuffer;
+        this.contentVersions = contentVersions;
+        this.enabled = enabled;
+        this.conditionalGetEnabled = conditionalGetEnabled;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!enabled || !"GET".equals(request.getMethod())) {
+            return true;
+        }
+        String path = request.getServletPath();
+        return !(path.equals("/")
+                || path.startsWith("/article/")
+                || path.startsWith("/category/")
+                || path.startsWith("/tag/")
+                || path.startsWith("/archives"));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Long tenantId = TenantContext.getCurrentTenantId();
+        if (tenantId == null || !isAnonymous(request)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String key = cacheKey(tenantId, request);
+        CachedPage cached = pageCache.get(key);
+        if (cached != null) {
+            if (cached.getViewedArticleId() != null) {
+                viewCountBuffer.increment(cached.getViewedArticleId());
+            }
+            if (cached.getCacheControl() != null) {
+                response.setHeader(HttpHeaders.CACHE_CONTROL, cached.getCacheControl());
+            }
+            // 命中缓存时同样响应条件请求，与控制器路径的 ETag 保持一致
+            if (conditionalGetEnabled && contentVersions.checkNotModified(new ServletWebRequest(request, response), tenantId)) {
+                return;
+            }
+            writeCached(request, response, cached);
+            return;
+        }
+
+        long generation = pageCache.generation(tenantId);
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        wrapper.setHeader(CACHE_STATUS_HEADER, "MISS");
+        try {
+            filterChain.doFilter(request, wrapper);
+            store(request, wrapper, tenantId, key, generation);
+        } finally {
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void store(HttpServletRequest request, ContentCachingResponseWrapper wrapper,
+                       Long tenantId, String key, long generation) {
+        Set<String> tags = (Set<String>) request.getAttribute(PageCacheTags.TAGS_ATTRIBUTE);
+        String contentType = wrapper.getContentType();
+        if (tags == null || tags.isEmpty()
+                || wrapper.getStatus() != HttpServletResponse.SC_OK
+                || contentType == null || !contentType.startsWith(MediaType.TEXT_HTML_VALUE)
+                || wrapper.containsHeader(HttpHeaders.SET_COOKIE)) {
+            return;
+        }
+        try {
+            Long viewedArticleId = (Long) request.getAttribute(PageCacheTags.VIEWED_ARTICLE_ATTRIBUTE);
+            CachedPage page = new CachedPage(gzip(wrapper.getContentAsByteArray()), contentType,
+                    wrapper.getHeader(HttpHeaders.CACHE_CONTROL), Set.copyOf(tags), viewedArticleId);
+            pageCache.put(tenantId, key, page, generation);
+        } catch (IOException e) {
+            log.warn("页面缓存写入失败: {}", key, e);
+        }
+    }
+
+    private void writeCached(HttpServletRequest request, HttpServletResponse response, CachedPage cached) throws IOException {
+        response.setContentType(cached.getContentType());
+        response.setHeader(CACHE_STATUS_HEADER, "HIT");
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            response.setContentLength(cached.getGzipBody().length);
+            response.getOutputStream().write(cached.getGzipBody());
+        } else {
+            try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(cached.getGzipBody()))) {
+                in.transferTo(response.getOutputStream());
+            }
+        }
+    }
+
+    private boolean isAnonymous(HttpServletRequest request) {
+        if (request.getHeader(HttpHeaders.AUTHORIZATION) != null) {
+            return false;
+        }
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication == null
+                || authentication instanceof AnonymousAuthenticationToken
+                || !authentication.isAuthenticated();
+    }
+
+    private String cacheKey(Long tenantId, HttpServletRequest request) {
+        String query = request.getQueryString();
+        return tenantId + "|" + request.getRequestURI() + (query != null ? "?" + query : "");
+    }
+
+    private byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        }
+        return out.toByteArray();
+    }
+}
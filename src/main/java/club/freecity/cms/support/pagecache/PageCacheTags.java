@@ -0,0 +1,64 @@
+package club.freecity.cms.support.pagecache;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * 页面缓存依赖标签登记
+ * 控制器在渲染页面时声明页面依赖的内容，只有登记过标签的页面才会被缓存
+ */
+public final class PageCacheTags {
+
+    public static final String SIDEBAR = "sidebar";
+    public static final String ARTICLE_LIST = "article-list";
+
+    static final String TAGS_ATTRIBUTE = PageCacheTags.class.getName() + ".tags";
+    static final String VIEWED_ARTICLE_ATTRIBUTE = PageCacheTags.class.getName() + ".viewedArticle";
+
+    private PageCacheTags() {
+    }
+
+    public static String article(Long id) {
+        return "article:" + id;
+    }
+
+    public static String category(Long id) {
+        return "category:" + id;
+    }
+
+    public static String tag(Long id) {
+        return "tag:" + id;
+    }
+
+    /**
+     * 为当前请求的页面添加依赖标签
+     */
+    @SuppressWarnings("unchecked")
+    public static void add(String... tags) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return;
+        }
+        Set<String> current = (Set<String>) attributes.getAttribute(TAGS_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (current == null) {
+            current = new LinkedHashSet<>();
+            attributes.setAttribute(TAGS_ATTRIBUTE, current, RequestAttributes.SCOPE_REQUEST);
+        }
+        for (String tag : tags) {
+            current.add(tag);
+        }
+    }
+
+    /**
+     * 标记当前页面为文章详情页，命中缓存时仍需累计该文章的阅读量
+     */
+    public static void viewedArticle(Long articleId) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            attributes.setAttribute(VIEWED_ARTICLE_ATTRIBUTE, articleId, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+}
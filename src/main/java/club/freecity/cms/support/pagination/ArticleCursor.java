@@ -0,0 +1,56 @@
+package club.freecity.cms.support.pagination;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 文章列表游标编解码
+ * <p>
+ * 游标记录上一页最后一条的 (createTime, id)，以 Base64URL 形式对外暴露，调用方不应解析其内容。
+ * 非法或被篡改的游标一律退化为从第一页开始。
+ */
+public final class ArticleCursor {
+
+    public static final String CREATE_TIME = "createTime";
+    public static final String ID = "id";
+
+    private static final char SEPARATOR = '|';
+
+    private ArticleCursor() {
+    }
+
+    public static String encode(LocalDateTime createTime, Long id) {
+        if (createTime == null || id == null) {
+            return null;
+        }
+        String raw = createTime + String.valueOf(SEPARATOR) + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetScrollPosition decode(String token) {
+        if (!StringUtils.hasText(token)) {
+            return ScrollPosition.keyset();
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int index = raw.lastIndexOf(SEPARATOR);
+            if (index <= 0) {
+                return ScrollPosition.keyset();
+            }
+            Map<String, Object> keys = new LinkedHashMap<>();
+            keys.put(CREATE_TIME, LocalDateTime.parse(raw.substring(0, index)));
+            keys.put(ID, Long.parseLong(raw.substring(index + 1)));
+            return ScrollPosition.forward(keys);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return ScrollPosition.keyset();
+        }
+    }
+}
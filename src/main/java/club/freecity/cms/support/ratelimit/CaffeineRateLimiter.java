@@ -3,13 +3,15 @@ package club.freecity.cms.support.ratelimit;
 import club.freecity.cms.config.CacheConfig;
 import com.github.benmanes.caffeine.cache.Cache;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.cache.CacheManager;
 import org.springframework.stereotype.Component;
 
 /**
- * 基于 Caffeine 缓存令牌桶的单机限流实现
+ * 基于 Caffeine 缓存令牌桶的单机限流实现（默认），多实例部署时每个实例各自计数
  */
 @Component
+@ConditionalOnProperty(name = "app.rate-limit.backend", havingValue = "caffeine", matchIfMissing = true)
 @RequiredArgsConstructor
 public class CaffeineRateLimiter implements RateLimiter {
 
@@ -0,0 +1,175 @@
+package club.freecity.cms.support.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * 基于共享数据库的分布式限流实现（app.rate-limit.backend=jdbc），多实例部署时各实例共用同一份配额
+ * 每个 key 只保存一个 GCRA 理论到达时间（TAT，微秒）：发放 n 个令牌即 TAT 前移 n 个发放间隔，TAT 超出当前时间一个窗口则拒绝；
+ * 读取后以条件 UPDATE（TAT 未被修改）或 INSERT（key 不存在）比较并交换，冲突时重试。
+ * 本地按 key 预取一批令牌在短时间内消费，未用完的令牌过期作废（只会少放行、不会超发）；被拒绝时本地记住可重试时间，
+ * 限流期间的请求无需访问数据库
+ */
+@Slf4j
+@Lazy(false)
+@Component
+@ConditionalOnProperty(name = "app.rate-limit.backend", havingValue = "jdbc")
+public class JdbcRateLimiter implements RateLimiter {
+
+    private static final String SELECT_SQL = "SELECT tat FROM rate_limit_bucket WHERE bucket_key = ?";
+    private static final String INSERT_SQL = "INSERT INTO rate_limit_bucket (bucket_key, tat) VALUES (?, ?)";
+    private static final String UPDATE_SQL = "UPDATE rate_limit_bucket SET tat = ? WHERE bucket_key = ? AND tat = ?";
+    private static final String PURGE_SQL = "DELETE FROM rate_limit_bucket WHERE tat < ?";
+
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final int MAX_ATTEMPTS = 5;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int leaseSize;
+    private final long leaseTtlMillis;
+    private final LongSupplier clock;
+    private final Cache<String, Lease> leases;
+
+    @Autowired
+    public JdbcRateLimiter(JdbcTemplate jdbcTemplate,
+                           @Value("${app.rate-limit.jdbc.lease-size:10}") int leaseSize,
+                           @Value("${app.rate-limit.jdbc.lease-ttl:1000}") long leaseTtlMillis) {
+        this(jdbcTemplate, leaseSize, leaseTtlMillis, System::currentTimeMillis);
+    }
+
+    JdbcRateLimiter(JdbcTemplate jdbcTemplate, int leaseSize, long leaseTtlMillis, LongSupplier clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.leaseSize = Math.max(1, leaseSize);
+        this.leaseTtlMillis = leaseTtlMillis;
+        this.clock = clock;
+        this.leases = Caffeine.newBuilder()
+                .expireAfterAccess(Math.max(leaseTtlMillis, 1000) * 10, TimeUnit.MILLISECONDS)
+                .maximumSize(10_000)
+                .build();
+    }
+
+    @Override
+    public boolean isAllowed(String key, int count, int window) {
+        if (count <= 0 || window <= 0) {
+            return false;
+        }
+        Lease lease = leases.get(key, k -> new Lease());
+        // 同一 key 的请求在本地排队，批量预取时只有一个线程访问数据库
+        synchronized (lease) {
+            long now = clock.getAsLong();
+            if (lease.remaining > 0 && now < lease.expiresAt) {
+                lease.remaining--;
+                return true;
+            }
+            if (now < lease.blockedUntil) {
+                return false;
+            }
+            Grant grant;
+            try {
+                grant = acquire(key, count, window, leaseSize(count), now);
+            } catch (DataAccessException e) {
+                // 数据库不可用时放行，避免限流故障扩大为全站不可用
+                log.warn("分布式限流不可用，放行请求: key={}", key, e);
+                return true;
+            }
+            if (grant.granted() == 0) {
+                lease.remaining = 0;
+                lease.blockedUntil = grant.retryAt();
+                return false;
+            }
+            lease.remaining = grant.granted() - 1;
+            lease.expiresAt = now + leaseTtlMillis;
+            lease.blockedUntil = 0;
+            return true;
+        }
+    }
+
+    /**
+     * 清理已回到满额的桶：TAT 早于当前时间的记录与不存在等价
+     */
+    @Scheduled(fixedDelayString = "${app.rate-limit.jdbc.purge-interval:600000}")
+    public void purgeExpired() {
+        int purged = jdbcTemplate.update(PURGE_SQL, TimeUnit.MILLISECONDS.toMicros(clock.getAsLong()));
+        if (purged > 0) {
+            log.debug("已清理 {} 个过期限流桶", purged);
+        }
+    }
+
+    /**
+     * 每次预取的令牌数：不超过 lease-size，也不超过配额的 1/10，避免某个实例囤积小配额（如每分钟 1 次）
+     */
+    int leaseSize(int count) {
+        return Math.max(1, Math.min(leaseSize, count / 10));
+    }
+
+    /**
+     * 按 GCRA 从共享桶中申请最多 requested 个令牌，配额不足时只发放剩余部分
+     */
+    Grant acquire(String key, int count, int window, int requested, long nowMillis) {
+        String bucketKey = bucketKey(key);
+        long now = TimeUnit.MILLISECONDS.toMicros(nowMillis);
+        long interval = Math.max(1, TimeUnit.SECONDS.toMicros(window) / count);
+        long burst = interval * count;
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            List<Long> rows = jdbcTemplate.queryForList(SELECT_SQL, Long.class, bucketKey);
+            Long tat = rows.isEmpty() ? null : rows.get(0);
+            long base = tat == null ? now : Math.max(tat, now);
+            long available = (now + burst - base) / interval;
+            int granted = (int) Math.min(requested, available);
+            if (granted <= 0) {
+                // 再过一个发放间隔才有令牌
+                return new Grant(0, TimeUnit.MICROSECONDS.toMillis(base - burst + interval) + 1);
+            }
+            long newTat = base + granted * interval;
+            if (tat == null) {
+                try {
+                    jdbcTemplate.update(INSERT_SQL, bucketKey, newTat);
+                    return new Grant(granted, 0);
+                } catch (DuplicateKeyException e) {
+                    // 其他实例刚创建了该 key，重新读取
+                    continue;
+                }
+            }
+            if (jdbcTemplate.update(UPDATE_SQL, newTat, bucketKey, tat) == 1) {
+                return new Grant(granted, 0);
+            }
+        }
+        // 竞争激烈时说明配额正被快速消耗，按限流处理
+        return new Grant(0, nowMillis + 1);
+    }
+
+    private static String bucketKey(String key) {
+        if (key.length() <= MAX_KEY_LENGTH) {
+            return key;
+        }
+        return key.substring(0, MAX_KEY_LENGTH - 33) + ":" + DigestUtils.md5DigestAsHex(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    record Grant(int granted, long retryAt) {
+    }
+
+    /**
+     * 本地预取的令牌与拒绝状态，按 key 加锁访问
+     */
+    private static class Lease {
+        private int remaining;
+        private long expiresAt;
+        private long blockedUntil;
+    }
+}
@@ -1,7 +1,7 @@
 package club.freecity.cms.support.ratelimit;
 
 /**
- * 限流器接口，支持后续扩展 Redis 实现
+ * 限流器接口，按 app.rate-limit.backend 选择实现：caffeine（单机，默认）或 jdbc（多实例共享数据库）
  */
 public interface RateLimiter {
     /**
@@ -10,7 +10,7 @@ public interface RateLimiter {
      * @param key    限流唯一标识
      * @param count  限制次数
      * @param window 时间窗口（秒）
-     * @return true 如果已被限流，false 如果允许访问
+     * @return true 如果允许访问，false 如果已被限流
      */
     boolean isAllowed(String key, int count, int window);
 }
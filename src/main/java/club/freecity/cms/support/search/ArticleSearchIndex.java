@@ -0,0 +1,94 @@
+package club.freecity.cms.support.search;
+
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 文章全文检索索引（进程内，按租户隔离）
+ * 只收录已发布文章；写操作很少，统一串行化，查询走各租户索引的读锁
+ */
+@Component
+public class ArticleSearchIndex {
+
+    private volatile Map<Long, TenantSearchIndex> indexes = new ConcurrentHashMap<>();
+
+    private boolean rebuilding;
+    private final Set<Long> changedDuringRebuild = new HashSet<>();
+
+    public synchronized void put(Long tenantId, SearchDocument document) {
+        if (tenantId == null) {
+            return;
+        }
+        markChanged(document.getId());
+        indexes.computeIfAbsent(tenantId, k -> new TenantSearchIndex()).put(document);
+    }
+
+    /**
+     * 从索引中移除文章，租户未知时在所有租户索引中移除
+     */
+    public synchronized void remove(Long tenantId, Long articleId) {
+        markChanged(articleId);
+        if (tenantId == null) {
+            indexes.values().forEach(index -> index.remove(articleId));
+            return;
+        }
+        TenantSearchIndex index = indexes.get(tenantId);
+        if (index != null) {
+            index.remove(articleId);
+        }
+    }
+
+    public SearchResult search(Long tenantId, String query, int offset, int limit) {
+        if (tenantId == null || query == null || query.isBlank()) {
+            return SearchResult.empty();
+        }
+        TenantSearchIndex index = indexes.get(tenantId);
+        return index == null ? SearchResult.empty() : index.search(query, offset, limit);
+    }
+
+    public int size(Long tenantId) {
+        TenantSearchIndex index = indexes.get(tenantId);
+        return index == null ? 0 : index.size();
+    }
+
+    /**
+     * 开始全量重建：在新索引中构建，期间的增量变更照常写入当前索引并记录文章 ID
+     */
+    public synchronized RebuildSession beginRebuild() {
+        rebuilding = true;
+        changedDuringRebuild.clear();
+        return new RebuildSession();
+    }
+
+    /**
+     * 切换到新索引
+     * @return 重建期间发生过变更的文章 ID，调用方需重新加载这些文章以免被扫描时的旧数据覆盖
+     */
+    public synchronized Set<Long> completeRebuild(RebuildSession session) {
+        indexes = new ConcurrentHashMap<>(session.indexes);
+        rebuilding = false;
+        Set<Long> changed = new HashSet<>(changedDuringRebuild);
+        changedDuringRebuild.clear();
+        return changed;
+    }
+
+    private void markChanged(Long articleId) {
+        if (rebuilding) {
+            changedDuringRebuild.add(articleId);
+        }
+    }
+
+    public static class RebuildSession {
+
+        private final Map<Long, TenantSearchIndex> indexes = new HashMap<>();
+
+        public void add(Long tenantId, SearchDocument document) {
+            indexes.computeIfAbsent(tenantId, k -> new TenantSearchIndex()).put(document);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package club.freecity.cms.support.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 待索引的文章文档（content 为去除 Markdown 标记后的纯文本）
+ */
+@Getter
+@AllArgsConstructor
+public class SearchDocument {
+
+    private final Long id;
+    private final String title;
+    private final String summary;
+    private final String content;
+}
@@ -0,0 +1,88 @@
+package club.freecity.cms.support.search;
+
+import org.springframework.web.util.HtmlUtils;
+
+import java.util.Collection;
+
+/**
+ * 搜索结果片段高亮
+ * 截取首个命中位置附近的文本，转义后以 mark 标签包裹命中词
+ */
+final class SearchHighlighter {
+
+    private static final int SNIPPET_LENGTH = 120;
+    private static final int LEADING_CONTEXT = 30;
+
+    private SearchHighlighter() {
+    }
+
+    /**
+     * @return 高亮片段，文本中没有任何命中时返回 null
+     */
+    static String highlight(String text, Collection<String> terms) {
+        if (text == null || text.isEmpty()) {
+            return null;
+        }
+        int first = -1;
+        for (String term : terms) {
+            int index = indexOfIgnoreCase(text, term, 0);
+            if (index >= 0 && (first < 0 || index < first)) {
+                first = index;
+            }
+        }
+        if (first < 0) {
+            return null;
+        }
+
+        int start = Math.max(0, first - LEADING_CONTEXT);
+        int end = Math.min(text.length(), start + SNIPPET_LENGTH);
+        // 避免从代理对中间截断
+        if (start > 0 && Character.isLowSurrogate(text.charAt(start))) {
+            start--;
+        }
+        if (end < text.length() && Character.isLowSurrogate(text.charAt(end))) {
+            end++;
+        }
+
+        // 仅在片段范围内标记命中字符，重叠的命中自然合并
+        boolean[] marked = new boolean[end - start];
+        for (String term : terms) {
+            int index = indexOfIgnoreCase(text, term, Math.max(0, start - term.length() + 1));
+            while (index >= 0 && index < end) {
+                for (int j = Math.max(index, start); j < Math.min(index + term.length(), end); j++) {
+                    marked[j - start] = true;
+                }
+                index = indexOfIgnoreCase(text, term, index + 1);
+            }
+        }
+
+        StringBuilder sb = new StringBuilder();
+        if (start > 0) {
+            sb.append("…");
+        }
+        int i = 0;
+        while (i < marked.length) {
+            int runStart = i;
+            boolean state = marked[i];
+            while (i < marked.length && marked[i] == state) {
+                i++;
+            }
+            String segment = HtmlUtils.htmlEscape(text.substring(start + runStart, start + i));
+            sb.append(state ? "<mark>" + segment + "</mark>" : segment);
+        }
+        if (end < text.length()) {
+            sb.append("…");
+        }
+        return sb.toString();
+    }
+
+    private static int indexOfIgnoreCase(String text, String term, int fromIndex) {
+        int length = term.length();
+        for (int i = fromIndex; i + length <= text.length(); i++) {
+            if (text.regionMatches(true, i, term, 0, length)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,20 @@
+package club.freecity.cms.support.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 单条搜索命中
+ */
+@Getter
+@AllArgsConstructor
+public class SearchHit {
+
+    private final Long articleId;
+    private final double score;
+
+    /**
+     * 命中片段（已转义的 HTML，关键词以 mark 标签包裹），无可用片段时为 null
+     */
+    private final String highlight;
+}
@@ -0,0 +1,21 @@
+package club.freecity.cms.support.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 分页搜索结果
+ */
+@Getter
+@AllArgsConstructor
+public class SearchResult {
+
+    private final long total;
+    private final List<SearchHit> hits;
+
+    public static SearchResult empty() {
+        return new SearchResult(0, List.of());
+    }
+}
@@ -0,0 +1,175 @@
+package club.freecity.cms.support.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 单个租户的倒排索引
+ * 词项按字典序存放以支持前缀匹配，打分采用 BM25，标题、摘要、正文按不同权重计入词频
+ */
+class TenantSearchIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private static final int TITLE_WEIGHT = 3;
+    private static final int SUMMARY_WEIGHT = 2;
+    private static final int CONTENT_WEIGHT = 1;
+
+    /**
+     * 前缀匹配时单个查询词最多展开的索引词数量
+     */
+    private static final int MAX_PREFIX_EXPANSION = 64;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+    private final Map<Long, IndexedDocument> documents = new HashMap<>();
+    private long totalLength;
+
+    private record IndexedDocument(SearchDocument document, Set<String> terms, int length) {
+    }
+
+    void put(SearchDocument document) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        int length = accumulate(frequencies, document.getTitle(), TITLE_WEIGHT)
+                + accumulate(frequencies, document.getSummary(), SUMMARY_WEIGHT)
+                + accumulate(frequencies, document.getContent(), CONTENT_WEIGHT);
+
+        lock.writeLock().lock();
+        try {
+            removeInternal(document.getId());
+            frequencies.forEach((term, frequency) ->
+                    postings.computeIfAbsent(term, k -> new HashMap<>()).put(document.getId(), frequency));
+            documents.put(document.getId(), new IndexedDocument(document, frequencies.keySet(), length));
+            totalLength += length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(Long articleId) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(articleId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    SearchResult search(String query, int offset, int limit) {
+        List<String> tokens = new ArrayList<>(new LinkedHashSet<>(SearchTokenizer.tokenize(query)));
+        if (tokens.isEmpty()) {
+            return SearchResult.empty();
+        }
+        // 输入未以空白结尾时，最后一个词视为未输入完整，按前缀匹配（即时搜索场景）
+        boolean prefixLast = !Character.isWhitespace(query.charAt(query.length() - 1));
+
+        lock.readLock().lock();
+        try {
+            int documentCount = documents.size();
+            if (documentCount == 0) {
+                return SearchResult.empty();
+            }
+            double averageLength = (double) totalLength / documentCount;
+
+            Map<Long, Double> scores = null;
+            for (int i = 0; i < tokens.size(); i++) {
+                boolean prefix = prefixLast && i == tokens.size() - 1;
+                Map<Long, Double> tokenScores = scoreToken(tokens.get(i), prefix, documentCount, averageLength);
+                if (scores == null) {
+                    scores = tokenScores;
+                } else {
+                    // 多个查询词之间为“与”关系
+                    scores.keySet().retainAll(tokenScores.keySet());
+                    scores.replaceAll((id, score) -> score + tokenScores.get(id));
+                }
+                if (scores.isEmpty()) {
+                    return SearchResult.empty();
+                }
+            }
+
+            List<Map.Entry<Long, Double>> ranked = new ArrayList<>(scores.entrySet());
+            ranked.sort(Map.Entry.<Long, Double>comparingByValue().reversed()
+                    .thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder())));
+
+            List<SearchHit> hits = new ArrayList<>();
+            int end = Math.min(ranked.size(), offset + limit);
+            for (int i = offset; i < end; i++) {
+                Map.Entry<Long, Double> entry = ranked.get(i);
+                SearchDocument document = documents.get(entry.getKey()).document();
+                String highlight = SearchHighlighter.highlight(document.getSummary(), tokens);
+                if (highlight == null) {
+                    highlight = SearchHighlighter.highlight(document.getContent(), tokens);
+                }
+                hits.add(new SearchHit(entry.getKey(), entry.getValue(), highlight));
+            }
+            return new SearchResult(ranked.size(), hits);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<Long, Double> scoreToken(String token, boolean prefix, int documentCount, double averageLength) {
+        Map<Long, Double> tokenScores = new HashMap<>();
+        Map<String, Map<Long, Integer>> matched = prefix
+                ? postings.subMap(token, true, token + Character.MAX_VALUE, false)
+                : (postings.containsKey(token) ? Map.of(token, postings.get(token)) : Map.of());
+
+        int expanded = 0;
+        for (Map<Long, Integer> termPostings : matched.values()) {
+            if (expanded++ >= MAX_PREFIX_EXPANSION) {
+                break;
+            }
+            int df = termPostings.size();
+            double idf = Math.log(1 + (documentCount - df + 0.5) / (df + 0.5));
+            termPostings.forEach((id, tf) -> {
+                double norm = K1 * (1 - B + B * documents.get(id).length() / averageLength);
+                double score = idf * tf * (K1 + 1) / (tf + norm);
+                // 同一查询词展开出的多个索引词只取最高分，避免短前缀放大得分
+                tokenScores.merge(id, score, Math::max);
+            });
+        }
+        return tokenScores;
+    }
+
+    private void removeInternal(Long articleId) {
+        IndexedDocument existing = documents.remove(articleId);
+        if (existing == null) {
+            return;
+        }
+        for (String term : existing.terms()) {
+            Map<Long, Integer> termPostings = postings.get(term);
+            if (termPostings != null) {
+                termPostings.remove(articleId);
+                if (termPostings.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+        totalLength -= existing.length();
+    }
+
+    private static int accumulate(Map<String, Integer> frequencies, String text, int weight) {
+        List<String> tokens = SearchTokenizer.tokenize(text);
+        for (String token : tokens) {
+            frequencies.merge(token, weight, Integer::sum);
+        }
+        return tokens.size() * weight;
+    }
+}
@@ -0,0 +1,24 @@
+package club.freecity.cms.tenant;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.orm.jpa.AbstractEntityManagerFactoryBean;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.stereotype.Component;
+
+/**
+ * 为每个新建的 EntityManager 注册租户过滤器初始化回调
+ * 覆盖事务内会话（JpaTransactionManager）与无事务时的共享 EntityManager 临时会话；两处回调幂等
+ */
+@Component
+public class TenantFilterPostProcessor implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof AbstractEntityManagerFactoryBean factoryBean) {
+            factoryBean.setEntityManagerInitializer(TenantSessionFilter::apply);
+        } else if (bean instanceof JpaTransactionManager transactionManager) {
+            transactionManager.setEntityManagerInitializer(TenantSessionFilter::apply);
+        }
+        return bean;
+    }
+}
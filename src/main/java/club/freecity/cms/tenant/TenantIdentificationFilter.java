@@ -2,22 +2,18 @@ package club.freecity.cms.tenant;
 
 import club.freecity.cms.enums.TenantStatus;
 import club.freecity.cms.common.TenantContext;
-import club.freecity.cms.entity.Tenant;
-import club.freecity.cms.repository.TenantRepository;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.Optional;
 
 @Slf4j
 @Component
@@ -25,24 +21,17 @@ import java.util.Optional;
 @Order(Ordered.HIGHEST_PRECEDENCE + 1) // 确保在 Spring Security 之前执行，或在 JWT 之前
 public class TenantIdentificationFilter extends OncePerRequestFilter {
 
-    private final TenantRepository tenantRepository;
-
-    @Value("${app.tenant.base-domain}")
-    private String baseDomain;
-
-    @Value("${app.tenant.default-code}")
-    private String defaultCode;
+    private final TenantResolver tenantResolver;
 
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) {
         String path = request.getServletPath();
-        // 排除静态资源路径，减少数据库查询
+        // 排除静态资源路径；上传文件需要识别租户以做目录隔离（租户识别走内存快照，无数据库查询）
         return path.startsWith("/css/") || 
                path.startsWith("/js/") || 
                path.startsWith("/img/") || 
                path.startsWith("/fonts/") || 
-               path.startsWith("/favicon.ico") ||
-               path.startsWith("/uploads/");
+               path.startsWith("/favicon.ico");
     }
 
     @Override
@@ -50,35 +39,32 @@ public class TenantIdentificationFilter extends OncePerRequestFilter {
             throws ServletException, IOException {
         
         String host = request.getServerName();
-        String tenantCode = extractTenantCode(host);
 
         try {
-            Optional<Tenant> tenantOpt = tenantRepository.findByCode(tenantCode);
-            if (tenantOpt.isPresent()) {
-                Tenant tenant = tenantOpt.get();
+            TenantResolver.ResolvedTenant tenant = tenantResolver.resolve(host);
+            if (tenant != null) {
                 // 检查租户状态
-                if (!TenantStatus.ACTIVE.getValue().equalsIgnoreCase(tenant.getStatus())) {
-                    log.warn("Tenant is disabled: {} (Status: {})", tenantCode, tenant.getStatus());
+                if (!TenantStatus.ACTIVE.getValue().equalsIgnoreCase(tenant.status())) {
+                    log.warn("Tenant is disabled: {} (Status: {})", tenant.code(), tenant.status());
                     response.sendError(HttpServletResponse.SC_FORBIDDEN, "Tenant is disabled");
                     return;
                 }
                 
                 // 检查租户是否过期
-                if (tenant.getExpireTime() != null && tenant.getExpireTime().isBefore(java.time.LocalDateTime.now())) {
-                    log.warn("Tenant is expired: {} (Expire Time: {})", tenantCode, tenant.getExpireTime());
+                if (tenant.expireTime() != null && tenant.expireTime().isBefore(java.time.LocalDateTime.now())) {
+                    log.warn("Tenant is expired: {} (Expire Time: {})", tenant.code(), tenant.expireTime());
                     response.sendError(HttpServletResponse.SC_FORBIDDEN, "Tenant service has expired");
                     return;
                 }
 
-                TenantContext.setCurrentTenant(tenant.getId(), tenant.getCode());
-                log.debug("Identified tenant: {} (ID: {}) from host: {}", tenantCode, tenant.getId(), host);
+                TenantContext.setCurrentTenant(tenant.id(), tenant.code());
+                log.debug("Identified tenant: {} (ID: {}) from host: {}", tenant.code(), tenant.id(), host);
                 filterChain.doFilter(request, response);
             } else {
-                log.warn("Unknown tenant code: {} from host: {}", tenantCode, host);
-                response.sendError(HttpServletResponse.SC_NOT_FOUND, "Tenant not found: " + tenantCode);
+                response.sendError(HttpServletResponse.SC_NOT_FOUND, "Tenant not found: " + host);
             }
         } catch (Exception e) {
-            log.error("租户识别失败: host={}, code={}", host, tenantCode, e);
+            log.error("租户识别失败: host={}", host, e);
             response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
             response.setContentType("application/json;charset=UTF-8");
             response.getWriter().write("{\"code\": 500, \"message\": \"系统初始化中或数据库连接失败，请检查后端日志\"}");
@@ -90,27 +76,4 @@ public class TenantIdentificationFilter extends OncePerRequestFilter {
             TenantContext.clear();
         }
     }
-
-    private String extractTenantCode(String host) {
-        if (host == null || host.equalsIgnoreCase(baseDomain) || host.equalsIgnoreCase("www." + baseDomain)) {
-            return defaultCode;
-        }
-
-        if (host.endsWith("." + baseDomain)) {
-            return host.substring(0, host.length() - baseDomain.length() - 1);
-        }
-
-        // 处理 localhost 或其他情况，默认返回 admin 或者解析第一段
-        // 如果是 IP 地址，直接返回默认租户
-        if (host.matches("^(?:[0-9]{1,3}\\.){3}[0-9]{1,3}$")) {
-            return defaultCode;
-        }
-
-        int firstDot = host.indexOf(".");
-        if (firstDot > 0) {
-            return host.substring(0, firstDot);
-        }
-
-        return defaultCode;
-    }
 }
@@ -0,0 +1,210 @@
+package club.freecity.cms.tenant;
+
+import club.freecity.cms.entity.Tenant;
+import club.freecity.cms.event.ContentChangedEvent;
+import club.freecity.cms.repository.TenantRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 根据请求域名识别租户
+ * 启动后加载全部租户生成 域名 -> 租户 快照（含平台子域名与已开通套餐的自定义域名），绝大多数请求只需一次哈希查找；
+ * 快照未命中的租户编码回查数据库，查不到的域名短期负缓存，避免探测请求反复打到数据库
+ */
+@Slf4j
+@Component
+public class TenantResolver {
+
+    private final TenantRepository tenantRepository;
+    private final String baseDomain;
+    private final String defaultCode;
+    private final long snapshotTtlMillis;
+
+    private final Cache<String, Boolean> unknownHosts;
+
+    private volatile Snapshot snapshot;
+
+    public TenantResolver(TenantRepository tenantRepository,
+                          @Value("${app.tenant.base-domain}") String baseDomain,
+                          @Value("${app.tenant.default-code}") String defaultCode,
+                          @Value("${app.tenant.snapshot-ttl:300}") long snapshotTtlSeconds,
+                          @Value("${app.tenant.negative-cache-ttl:30}") long negativeCacheTtlSeconds) {
+        this.tenantRepository = tenantRepository;
+        this.baseDomain = baseDomain.toLowerCase(Locale.ROOT);
+        this.defaultCode = defaultCode.toLowerCase(Locale.ROOT);
+        this.snapshotTtlMillis = TimeUnit.SECONDS.toMillis(snapshotTtlSeconds);
+        this.unknownHosts = Caffeine.newBuilder()
+                .expireAfterWrite(negativeCacheTtlSeconds, TimeUnit.SECONDS)
+                .maximumSize(10_000)
+                .build();
+    }
+
+    /**
+     * 解析域名对应的租户，未知租户返回 null
+     */
+    public ResolvedTenant resolve(String host) {
+        Snapshot current = snapshot();
+        if (host == null) {
+            return current.byCode().get(defaultCode);
+        }
+        // 已是小写时不会创建新字符串
+        String normalized = host.toLowerCase(Locale.ROOT);
+        ResolvedTenant tenant = current.byHost().get(normalized);
+        if (tenant != null) {
+            return tenant;
+        }
+
+        String code = extractTenantCode(normalized);
+        tenant = current.byCode().get(code);
+        if (tenant != null || unknownHosts.getIfPresent(normalized) != null) {
+            return tenant;
+        }
+
+        // 快照之后新建的租户（如其他实例创建）回查数据库
+        tenant = tenantRepository.findByCode(code).map(ResolvedTenant::of).orElse(null);
+        if (tenant == null) {
+            log.warn("Unknown tenant code: {} from host: {}", code, host);
+            unknownHosts.put(normalized, Boolean.TRUE);
+        } else {
+            invalidate();
+        }
+        return tenant;
+    }
+
+    /**
+     * 租户新增、修改、删除后重建快照
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onContentChanged(ContentChangedEvent event) {
+        if (event.getType() == ContentChangedEvent.ContentType.TENANT) {
+            invalidate();
+        }
+    }
+
+    public synchronized void invalidate() {
+        snapshot = null;
+        unknownHosts.invalidateAll();
+    }
+
+    String extractTenantCode(String host) {
+        if (host.endsWith(baseDomain)) {
+            int prefixLength = host.length() - baseDomain.length();
+            if (prefixLength == 0) {
+                return defaultCode;
+            }
+            if (host.charAt(prefixLength - 1) == '.') {
+                String code = host.substring(0, prefixLength - 1);
+                return code.equals("www") ? defaultCode : code;
+            }
+        }
+
+        // 处理 localhost 或其他情况：IP 地址返回默认租户，否则取第一段
+        if (isIpAddress(host)) {
+            return defaultCode;
+        }
+
+        int firstDot = host.indexOf('.');
+        if (firstDot > 0) {
+            return host.substring(0, firstDot);
+        }
+
+        return defaultCode;
+    }
+
+    /**
+     * 判断是否为 IPv4（四段 0-255 数字）或 IPv6 字面量，逐字符扫描不分配对象
+     */
+    static boolean isIpAddress(String host) {
+        int length = host.length();
+        if (length > 0 && (host.charAt(0) == '[' || host.indexOf(':') >= 0)) {
+            return true;
+        }
+        int segments = 0;
+        int digits = 0;
+        int value = 0;
+        for (int i = 0; i < length; i++) {
+            char c = host.charAt(i);
+            if (c >= '0' && c <= '9') {
+                value = value * 10 + (c - '0');
+                if (++digits > 3 || value > 255) {
+                    return false;
+                }
+            } else if (c == '.') {
+                if (digits == 0 || ++segments > 3) {
+                    return false;
+                }
+                digits = 0;
+                value = 0;
+            } else {
+                return false;
+            }
+        }
+        return segments == 3 && digits > 0;
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current != null && !current.isExpired(snapshotTtlMillis)) {
+            return current;
+        }
+        synchronized (this) {
+            current = snapshot;
+            if (current == null || current.isExpired(snapshotTtlMillis)) {
+                current = load();
+                snapshot = current;
+            }
+            return current;
+        }
+    }
+
+    private Snapshot load() {
+        List<Tenant> tenants = tenantRepository.findAllWithPackage();
+        Map<String, ResolvedTenant> byCode = new HashMap<>(tenants.size() * 2);
+        Map<String, ResolvedTenant> byHost = new HashMap<>(tenants.size() * 3);
+        for (Tenant tenant : tenants) {
+            ResolvedTenant resolved = ResolvedTenant.of(tenant);
+            String code = tenant.getCode().toLowerCase(Locale.ROOT);
+            byCode.put(code, resolved);
+            byHost.put(code + "." + baseDomain, resolved);
+            if (tenant.getCustomDomain() != null && tenant.getPackageInfo() != null
+                    && Boolean.TRUE.equals(tenant.getPackageInfo().getCustomDomainEnabled())) {
+                byHost.put(tenant.getCustomDomain().toLowerCase(Locale.ROOT), resolved);
+            }
+        }
+        ResolvedTenant defaultTenant = byCode.get(defaultCode);
+        if (defaultTenant != null) {
+            byHost.put(baseDomain, defaultTenant);
+            byHost.put("www." + baseDomain, defaultTenant);
+        }
+        log.debug("Loaded tenant snapshot: {} tenants, {} hosts", byCode.size(), byHost.size());
+        return new Snapshot(Map.copyOf(byCode), Map.copyOf(byHost), System.currentTimeMillis());
+    }
+
+    private record Snapshot(Map<String, ResolvedTenant> byCode, Map<String, ResolvedTenant> byHost, long loadedAt) {
+
+        boolean isExpired(long ttlMillis) {
+            return System.currentTimeMillis() - loadedAt > ttlMillis;
+        }
+    }
+
+    /**
+     * 租户识别所需的不可变快照
+     */
+    public record ResolvedTenant(Long id, String code, String status, LocalDateTime expireTime) {
+
+        static ResolvedTenant of(Tenant tenant) {
+            return new ResolvedTenant(tenant.getId(), tenant.getCode(), tenant.getStatus(), tenant.getExpireTime());
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package club.freecity.cms.tenant;
+
+import club.freecity.cms.common.RoleConstants;
+import club.freecity.cms.common.TenantContext;
+import club.freecity.cms.security.CustomUserDetails;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 租户过滤器的会话级开关
+ * 每个 EntityManager 创建时按当前上下文设置一次 tenantFilter（见 {@link TenantFilterPostProcessor}），
+ * 只有上下文在会话存续期间发生变化（进入 / 退出 @GlobalOperation、切换租户）时才需要重新设置当前会话
+ */
+@Component
+public class TenantSessionFilter {
+
+    static final String FILTER_NAME = "tenantFilter";
+
+    // 将忽略过滤器的状态内聚在租户包内部，不对外暴露
+    private static final ThreadLocal<Boolean> IGNORE_TENANT_FILTER = ThreadLocal.withInitial(() -> false);
+
+    private final ObjectProvider<EntityManagerFactory> entityManagerFactory;
+
+    public TenantSessionFilter(ObjectProvider<EntityManagerFactory> entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    /**
+     * 按当前上下文设置会话的租户过滤器
+     */
+    public static void apply(EntityManager entityManager) {
+        Session session = entityManager.unwrap(Session.class);
+        Long tenantId = currentFilterTenantId();
+        if (tenantId != null) {
+            session.enableFilter(FILTER_NAME).setParameter("tenantId", tenantId);
+        } else {
+            session.disableFilter(FILTER_NAME);
+        }
+    }
+
+    /**
+     * 上下文变化后重新设置当前线程已绑定的会话；未绑定会话时无需处理，后续新建会话会按新上下文初始化
+     */
+    public void refreshCurrentSession() {
+        EntityManagerFactory emf = entityManagerFactory.getIfAvailable();
+        if (emf == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.getResource(emf) instanceof EntityManagerHolder holder) {
+            apply(holder.getEntityManager());
+        }
+    }
+
+    static boolean enterGlobalOperation() {
+        boolean previousState = IGNORE_TENANT_FILTER.get();
+        IGNORE_TENANT_FILTER.set(true);
+        return previousState;
+    }
+
+    static void exitGlobalOperation(boolean previousState) {
+        IGNORE_TENANT_FILTER.set(previousState);
+    }
+
+    /**
+     * 需要过滤的租户 ID，返回 null 表示禁用过滤器
+     */
+    private static Long currentFilterTenantId() {
+        // 1. 如果处于 @GlobalOperation 标记的上下文中，禁用过滤器
+        if (IGNORE_TENANT_FILTER.get()) {
+            return null;
+        }
+
+        // 2. 如果是超级管理员，禁用过滤器
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof CustomUserDetails userDetails
+                && RoleConstants.SUPER_ADMIN.equals(userDetails.getRole())) {
+            return null;
+        }
+
+        // 3. 正常租户场景启用过滤器；既不是全局操作又没有租户上下文时默认禁用
+        return TenantContext.getCurrentTenantId();
+    }
+}
@@ -0,0 +1,36 @@
+package club.freecity.cms.util;
+
+import club.freecity.cms.common.SecurityConstants;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+
+/**
+ * 已验签的 JWT 只读视图，一次解析后提供全部业务声明
+ */
+@Getter
+@AllArgsConstructor
+public class JwtToken {
+
+    private final String username;
+    private final Long userId;
+    private final String role;
+    private final Long tenantId;
+    private final String tenantCode;
+    private final String type;
+    private final Long passwordUpdateTime;
+    private final Instant expiration;
+
+    public boolean isAccessToken() {
+        return SecurityConstants.TOKEN_TYPE_ACCESS.equals(type);
+    }
+
+    public boolean isRefreshToken() {
+        return SecurityConstants.TOKEN_TYPE_REFRESH.equals(type);
+    }
+
+    public boolean isExpired() {
+        return expiration != null && expiration.isBefore(Instant.now());
+    }
+}
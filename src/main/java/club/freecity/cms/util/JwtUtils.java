@@ -1,6 +1,11 @@
 package club.freecity.cms.util;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
@@ -12,6 +17,8 @@ import club.freecity.cms.common.SecurityConstants;
 
 import javax.crypto.SecretKey;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.Date;
@@ -27,12 +34,44 @@ public class JwtUtils {
 
     private SecretKey key;
 
+    /**
+     * 解析器线程安全，初始化后复用
+     */
+    private JwtParser parser;
+
+    /**
+     * 已验签 Token 缓存：以 Token 原文为键，条目在 Token 过期时刻失效
+     */
+    private final Cache<String, JwtToken> verifiedTokens = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfter(new Expiry<String, JwtToken>() {
+                @Override
+                public long expireAfterCreate(String token, JwtToken jwtToken, long currentTime) {
+                    if (jwtToken.getExpiration() == null) {
+                        return 0;
+                    }
+                    return Math.max(0, Duration.between(Instant.now(), jwtToken.getExpiration()).toNanos());
+                }
+
+                @Override
+                public long expireAfterUpdate(String token, JwtToken jwtToken, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+
+                @Override
+                public long expireAfterRead(String token, JwtToken jwtToken, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .build();
+
     private static final long ACCESS_EXPIRATION = 7200000; // 2 hours
     private static final long REFRESH_EXPIRATION = 604800000; // 7 days
 
     @PostConstruct
     public void init() {
         this.key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+        this.parser = Jwts.parserBuilder().setSigningKey(key).build();
     }
 
     public String generateAccessToken(Long userId, String username, String role, Long tenantId, String tenantCode, LocalDateTime passwordUpdateTime) {
@@ -71,38 +110,60 @@ public class JwtUtils {
                 .compact();
     }
 
+    /**
+     * 验签并解析 Token，同一 Token 在有效期内只验签一次
+     * @throws io.jsonwebtoken.JwtException Token 无效或已过期
+     */
+    public JwtToken parseToken(String token) {
+        JwtToken jwtToken = verifiedTokens.get(token, this::verify);
+        if (jwtToken.isExpired()) {
+            verifiedTokens.invalidate(token);
+            throw new ExpiredJwtException(null, null, "JWT expired");
+        }
+        return jwtToken;
+    }
+
+    private JwtToken verify(String token) {
+        Claims claims = extractAllClaims(token);
+        return new JwtToken(
+                claims.getSubject(),
+                claims.get(SecurityConstants.CLAIM_USER_ID, Long.class),
+                claims.get(SecurityConstants.CLAIM_ROLE, String.class),
+                claims.get(SecurityConstants.CLAIM_TENANT_ID, Long.class),
+                claims.get(SecurityConstants.CLAIM_TENANT_CODE, String.class),
+                claims.get(SecurityConstants.CLAIM_TYPE, String.class),
+                claims.get(SecurityConstants.CLAIM_PASSWORD_UPDATE_TIME, Long.class),
+                claims.getExpiration() != null ? claims.getExpiration().toInstant() : null
+        );
+    }
+
     public Boolean validateToken(String token, String username) {
-        final String tokenUsername = extractUsername(token);
-        return (tokenUsername.equals(username) && !isTokenExpired(token));
+        final JwtToken jwtToken = parseToken(token);
+        return (jwtToken.getUsername().equals(username) && !jwtToken.isExpired());
     }
 
     public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return parseToken(token).getUsername();
     }
 
     public Long extractTenantId(String token) {
-        final Claims claims = extractAllClaims(token);
-        return claims.get(SecurityConstants.CLAIM_TENANT_ID, Long.class);
+        return parseToken(token).getTenantId();
     }
 
     public String extractTenantCode(String token) {
-        final Claims claims = extractAllClaims(token);
-        return claims.get(SecurityConstants.CLAIM_TENANT_CODE, String.class);
+        return parseToken(token).getTenantCode();
     }
 
     public String extractRole(String token) {
-        final Claims claims = extractAllClaims(token);
-        return claims.get(SecurityConstants.CLAIM_ROLE, String.class);
+        return parseToken(token).getRole();
     }
 
     public String extractType(String token) {
-        final Claims claims = extractAllClaims(token);
-        return claims.get(SecurityConstants.CLAIM_TYPE, String.class);
+        return parseToken(token).getType();
     }
 
     public Long extractPasswordUpdateTime(String token) {
-        final Claims claims = extractAllClaims(token);
-        return claims.get(SecurityConstants.CLAIM_PASSWORD_UPDATE_TIME, Long.class);
+        return parseToken(token).getPasswordUpdateTime();
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
@@ -111,10 +172,6 @@ public class JwtUtils {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
-    }
-
-    private Boolean isTokenExpired(String token) {
-        return extractAllClaims(token).getExpiration().before(new Date());
+        return parser.parseClaimsJws(token).getBody();
     }
 }
@@ -8,17 +8,29 @@ import com.vladsch.flexmark.ext.anchorlink.AnchorLinkExtension;
 import com.vladsch.flexmark.ext.autolink.AutolinkExtension;
 import com.vladsch.flexmark.ext.gfm.strikethrough.StrikethroughExtension;
 import com.vladsch.flexmark.util.ast.Node;
+import com.vladsch.flexmark.util.ast.TextCollectingVisitor;
 import org.owasp.html.HtmlPolicyBuilder;
 import org.owasp.html.PolicyFactory;
 import org.owasp.html.Sanitizers;
 import org.unbescape.html.HtmlEscape;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
+import java.util.HexFormat;
 
 /**
  * Markdown 工具类，用于将 Markdown 转换为 HTML
  */
 public class MarkdownUtils {
 
+    /**
+     * 渲染策略版本号：调整解析扩展或 HTML 清洗策略时必须递增，
+     * 存量文章的预渲染结果会被后台任务按版本号逐步刷新
+     */
+    public static final int RENDER_VERSION = 1;
+
     private static final Parser PARSER;
     private static final HtmlRenderer RENDERER;
     private static final PolicyFactory POLICY;
@@ -97,4 +109,33 @@ public class MarkdownUtils {
         String sanitized = new HtmlPolicyBuilder().toFactory().sanitize(text);
         return HtmlEscape.unescapeHtml(sanitized);
     }
+
+    /**
+     * 提取 Markdown 的纯文本内容（去除标记语法），用于全文检索和摘要片段
+     * @param markdown Markdown 内容
+     * @return 纯文本
+     */
+    public static String toPlainText(String markdown) {
+        if (markdown == null || markdown.trim().isEmpty()) {
+            return "";
+        }
+        return new TextCollectingVisitor().collectAndGetText(PARSER.parse(markdown));
+    }
+
+    /**
+     * 计算 Markdown 原文的 SHA-256 摘要，用于判断内容是否发生变化
+     * @param markdown Markdown 内容
+     * @return 十六进制摘要，原文为 null 时返回 null
+     */
+    public static String contentHash(String markdown) {
+        if (markdown == null) {
+            return null;
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(markdown.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 algorithm not available", e);
+        }
+    }
 }
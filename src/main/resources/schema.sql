@@ -31,6 +31,7 @@ CREATE TABLE IF NOT EXISTS tenant (
     links TEXT COMMENT '友情链接/网址收藏(JSON格式)',
     custom_code TEXT COMMENT '自定义代码注入(JSON)',
     expire_time DATETIME COMMENT '到期时间',
+    custom_domain VARCHAR(255) UNIQUE COMMENT '自定义域名',
     create_time DATETIME NOT NULL COMMENT '创建时间',
     update_time DATETIME NOT NULL COMMENT '更新时间'
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='租户表';
@@ -91,6 +92,9 @@ CREATE TABLE IF NOT EXISTS article (
     id BIGINT PRIMARY KEY AUTO_INCREMENT COMMENT '文章ID',
     title VARCHAR(200) NOT NULL COMMENT '文章标题',
     content LONGTEXT NOT NULL COMMENT '文章内容',
+    rendered_content LONGTEXT COMMENT '预渲染的HTML内容',
+    content_hash CHAR(64) COMMENT '文章内容摘要(SHA-256)',
+    render_version INT COMMENT '渲染策略版本',
     summary VARCHAR(500) COMMENT '文章摘要',
     thumbnail VARCHAR(255) COMMENT '缩略图URL',
     view_count INT DEFAULT 0 COMMENT '浏览量',
@@ -106,6 +110,7 @@ CREATE TABLE IF NOT EXISTS article (
     INDEX idx_create_time (create_time),
     INDEX idx_view_count (view_count),
     INDEX idx_published_top (published, top, create_time),
+    INDEX idx_tenant_published_time (tenant_id, published, create_time, id),
     INDEX idx_tenant_id (tenant_id)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='文章表';
 
@@ -135,9 +140,36 @@ CREATE TABLE IF NOT EXISTS comment (
     INDEX idx_article_id (article_id),
     INDEX idx_parent_id (parent_id),
     INDEX idx_create_time (create_time),
-    INDEX idx_tenant_id (tenant_id)
+    INDEX idx_tenant_id (tenant_id),
+    INDEX idx_tenant_ip (tenant_id, ip),
+    INDEX idx_tenant_email (tenant_id, email)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='评论表';
 
+-- 创建评论批量处理任务表
+CREATE TABLE IF NOT EXISTS comment_moderation_task (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT COMMENT '任务ID',
+    action VARCHAR(20) NOT NULL COMMENT '处理动作 (AUDIT, DELETE)',
+    target_status TINYINT COMMENT '目标审核状态',
+    filter_status TINYINT COMMENT '筛选：评论状态',
+    ip VARCHAR(45) COMMENT '筛选：评论者IP',
+    email VARCHAR(100) COMMENT '筛选：评论者邮箱',
+    start_time DATETIME COMMENT '筛选：创建时间起（含）',
+    end_time DATETIME COMMENT '筛选：创建时间止（不含）',
+    keyword VARCHAR(100) COMMENT '筛选：内容关键字',
+    state VARCHAR(20) NOT NULL COMMENT '任务状态 (RUNNING, COMPLETED, FAILED, CANCELLED)',
+    total BIGINT NOT NULL DEFAULT 0 COMMENT '提交时命中的评论数',
+    processed BIGINT NOT NULL DEFAULT 0 COMMENT '已处理的评论数',
+    min_id BIGINT COMMENT '命中评论最小ID',
+    max_id BIGINT COMMENT '命中评论最大ID',
+    cursor_id BIGINT NOT NULL DEFAULT 0 COMMENT '已处理到的评论ID',
+    message VARCHAR(500) COMMENT '失败原因',
+    tenant_id BIGINT NOT NULL COMMENT '租户ID',
+    create_time DATETIME NOT NULL COMMENT '创建时间',
+    update_time DATETIME NOT NULL COMMENT '更新时间',
+    INDEX idx_tenant_id (tenant_id),
+    INDEX idx_state (state)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='评论批量处理任务表';
+
 -- 创建媒体资源表
 CREATE TABLE IF NOT EXISTS media_asset (
     id BIGINT PRIMARY KEY AUTO_INCREMENT COMMENT '资源ID',
@@ -146,6 +178,7 @@ CREATE TABLE IF NOT EXISTS media_asset (
     file_path VARCHAR(500) NOT NULL COMMENT '文件物理路径',
     type VARCHAR(100) COMMENT '文件MIME类型',
     size BIGINT COMMENT '文件大小(Bytes)',
+    content_hash CHAR(64) COMMENT '文件内容SHA-256',
     is_deleted TINYINT NOT NULL DEFAULT 0 COMMENT '是否已删除(回收站)',
     delete_time DATETIME COMMENT '删除时间',
     tenant_id BIGINT NOT NULL COMMENT '租户ID',
@@ -157,6 +190,39 @@ CREATE TABLE IF NOT EXISTS media_asset (
     INDEX idx_create_time (create_time)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='媒体资源表';
 
+-- 创建媒体文件表（按内容去重）
+CREATE TABLE IF NOT EXISTS media_blob (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT COMMENT '文件ID',
+    hash CHAR(64) NOT NULL COMMENT '文件内容SHA-256',
+    url VARCHAR(500) NOT NULL COMMENT '文件访问URL',
+    file_path VARCHAR(500) NOT NULL COMMENT '文件物理路径',
+    type VARCHAR(100) COMMENT '首次上传的MIME类型',
+    size BIGINT NOT NULL COMMENT '文件大小(Bytes)',
+    ref_count INT NOT NULL DEFAULT 1 COMMENT '引用的媒体资源数',
+    variants VARCHAR(100) COMMENT '已生成的衍生图宽度(逗号分隔)',
+    tenant_id BIGINT NOT NULL COMMENT '租户ID',
+    create_time DATETIME NOT NULL COMMENT '创建时间',
+    update_time DATETIME NOT NULL COMMENT '更新时间',
+    UNIQUE KEY uk_tenant_hash (tenant_id, hash)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='媒体文件表';
+
+-- 创建存储用量表
+CREATE TABLE IF NOT EXISTS storage_usage (
+    tenant_id BIGINT PRIMARY KEY COMMENT '租户ID',
+    used_size BIGINT NOT NULL DEFAULT 0 COMMENT '已用空间(Bytes)',
+    image_size BIGINT NOT NULL DEFAULT 0 COMMENT '图片占用(Bytes)',
+    document_size BIGINT NOT NULL DEFAULT 0 COMMENT '文档占用(Bytes)',
+    other_size BIGINT NOT NULL DEFAULT 0 COMMENT '其他文件占用(Bytes)',
+    update_time DATETIME NOT NULL COMMENT '更新时间'
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='存储用量表';
+
+-- 创建分布式限流桶表（app.rate-limit.backend=jdbc 时使用）
+CREATE TABLE IF NOT EXISTS rate_limit_bucket (
+    bucket_key VARCHAR(255) PRIMARY KEY COMMENT '限流 key',
+    tat BIGINT NOT NULL COMMENT 'GCRA 理论到达时间(微秒)',
+    INDEX idx_tat (tat)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='限流桶表';
+
 -- 创建安全审计日志表
 CREATE TABLE IF NOT EXISTS security_log (
     id BIGINT PRIMARY KEY AUTO_INCREMENT COMMENT 'ID',
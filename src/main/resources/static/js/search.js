@@ -128,7 +128,7 @@ document.addEventListener('DOMContentLoaded', () => {
             li.innerHTML = `
                 <a href="/article/${item.id}">
                     <div class="search-result-title">${highlight(item.title)}</div>
-                    <div class="search-result-content">${highlight(item.summary)}</div>
+                    <div class="search-result-content">${item.highlight || highlight(item.summary)}</div>
                 </a>
             `
             fragment.appendChild(li)
@@ -0,0 +1,57 @@
+package club.freecity.cms.service;
+
+import club.freecity.cms.entity.Article;
+import club.freecity.cms.event.ContentChangedEvent;
+import club.freecity.cms.repository.ArticleRepository;
+import club.freecity.cms.support.httpcache.ContentVersions;
+import club.freecity.cms.support.search.ArticleSearchIndex;
+import club.freecity.cms.support.search.SearchDocument;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SearchIndexServiceTest {
+
+    @Mock
+    private ArticleRepository articleRepository;
+    @Mock
+    private ArticleSearchIndex articleSearchIndex;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Mock
+    private ContentVersions contentVersions;
+
+    @InjectMocks
+    private SearchIndexService searchIndexService;
+
+    @Test
+    @DisplayName("索引更新完成后再次递增内容版本，期间发放的 ETag 失效")
+    void onContentChanged_BumpsVersionAfterIndexUpdate() {
+        Article article = new Article();
+        article.setId(42L);
+        article.setTenantId(1L);
+        article.setTitle("标题");
+        article.setContent("正文");
+        article.setPublished(true);
+        when(articleRepository.findById(42L)).thenReturn(Optional.of(article));
+
+        searchIndexService.onContentChanged(ContentChangedEvent.updated(ContentChangedEvent.ContentType.ARTICLE, 42L, 1L));
+
+        InOrder order = inOrder(articleSearchIndex, contentVersions);
+        order.verify(articleSearchIndex).put(eq(1L), any(SearchDocument.class));
+        order.verify(contentVersions).bump(1L);
+    }
+}
@@ -0,0 +1,99 @@
+package club.freecity.cms.service;
+
+import club.freecity.cms.common.TenantContext;
+import club.freecity.cms.dto.TenantDto;
+import club.freecity.cms.event.ContentChangedEvent;
+import club.freecity.cms.support.httpcache.ContentVersions;
+import club.freecity.cms.support.pagecache.CachedPage;
+import club.freecity.cms.support.pagecache.PageCache;
+import club.freecity.cms.support.pagecache.PageCacheTags;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SidebarCacheServiceTest {
+
+    @Mock
+    private ArticleService articleService;
+    @Mock
+    private CategoryService categoryService;
+    @Mock
+    private TagService tagService;
+    @Mock
+    private TenantService tenantService;
+
+    private PageCache pageCache;
+    private ContentVersions contentVersions;
+    private SidebarCacheService sidebarCacheService;
+
+    @BeforeEach
+    void setUp() {
+        pageCache = new PageCache(1, 300);
+        contentVersions = new ContentVersions();
+        sidebarCacheService = new SidebarCacheService(articleService, categoryService, tagService, tenantService,
+                pageCache, contentVersions, 300);
+        TenantDto tenant = new TenantDto();
+        tenant.setId(1L);
+        tenant.setCode("t1");
+        when(tenantService.getTenantById(1L)).thenReturn(tenant);
+        when(articleService.listPublishedArticles(any(Pageable.class))).thenReturn(Page.empty());
+    }
+
+    @AfterEach
+    void tearDown() {
+        sidebarCacheService.shutdown();
+        TenantContext.clear();
+    }
+
+    @Test
+    @DisplayName("侧边栏重建完成后才失效依赖侧边栏的页面并递增内容版本")
+    void onContentChanged_EvictsSidebarPagesAfterRefresh() throws Exception {
+        CountDownLatch refreshing = new CountDownLatch(1);
+        when(articleService.countPublishedArticles()).thenReturn(1L).thenAnswer(invocation -> {
+            refreshing.await(5, TimeUnit.SECONDS);
+            return 2L;
+        });
+        TenantContext.setCurrentTenant(1L, "t1");
+        assertThat(sidebarCacheService.getCurrentSnapshot().getArticleCount()).isEqualTo(1L);
+
+        ContentChangedEvent event = ContentChangedEvent.updated(ContentChangedEvent.ContentType.ARTICLE, 42L, 1L);
+        contentVersions.onContentChanged(event);
+        sidebarCacheService.onContentChanged(event);
+        // 重建期间渲染的页面（带旧侧边栏）及其 ETag
+        pageCache.put(1L, "1|/", page(PageCacheTags.SIDEBAR), pageCache.generation(1L));
+        String etagDuringRefresh = contentVersions.etag(1L);
+        assertThat(pageCache.get("1|/")).isNotNull();
+
+        refreshing.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while ((pageCache.get("1|/") != null || contentVersions.etag(1L).equals(etagDuringRefresh))
+                && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertThat(pageCache.get("1|/")).isNull();
+        assertThat(contentVersions.etag(1L)).isNotEqualTo(etagDuringRefresh);
+        verify(articleService, times(2)).countPublishedArticles();
+    }
+
+    private CachedPage page(String... tags) {
+        return new CachedPage(new byte[]{1, 2, 3}, "text/html;charset=UTF-8", "no-cache", Set.of(tags), null);
+    }
+}
@@ -0,0 +1,141 @@
+package club.freecity.cms.service.impl;
+
+import club.freecity.cms.dto.ArticleSummaryDto;
+import club.freecity.cms.entity.Article;
+import club.freecity.cms.entity.Category;
+import club.freecity.cms.entity.Tag;
+import club.freecity.cms.service.CategoryService;
+import club.freecity.cms.service.TagService;
+import club.freecity.cms.support.archive.ArchiveCountIndex;
+import club.freecity.cms.support.counter.ViewCountBuffer;
+import club.freecity.cms.support.search.ArticleSearchIndex;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 列表页 SQL 语句数不随分页大小增长（无正文加载、无逐行懒加载）
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:listing;MODE=MySQL;NON_KEYWORDS=TOP,VALUE",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(ArticleServiceImpl.class)
+class ArticleListingQueryCountTest {
+
+    private static final Long TENANT_ID = 1L;
+
+    @Autowired
+    private ArticleServiceImpl articleService;
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockBean
+    private CategoryService categoryService;
+    @MockBean
+    private TagService tagService;
+    @MockBean
+    private ViewCountBuffer viewCountBuffer;
+    @MockBean
+    private ArticleSearchIndex articleSearchIndex;
+    @MockBean
+    private ArchiveCountIndex archiveCountIndex;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        Category category = new Category();
+        category.setName("后端");
+        category.setTenantId(TENANT_ID);
+        entityManager.persist(category);
+
+        Tag java = newTag("Java");
+        Tag spring = newTag("Spring");
+
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 0, 0);
+        for (int i = 0; i < 30; i++) {
+            Article article = new Article();
+            article.setTitle("文章 " + i);
+            article.setContent("正文 " + i);
+            article.setPublished(true);
+            article.setCategory(category);
+            article.setTags(Set.of(java, spring));
+            article.setTenantId(TENANT_ID);
+            article.setCreateTime(base.plusDays(i));
+            entityManager.persist(article);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    @DisplayName("偏移分页：语句数与页大小无关")
+    void listPublishedArticles_ConstantStatementCount() {
+        long small = countStatements(() -> assertPage(articleService.listPublishedArticles(page(5)), 5));
+        long large = countStatements(() -> assertPage(articleService.listPublishedArticles(page(20)), 20));
+
+        // 列表投影 + COUNT + 标签批量查询
+        assertThat(small).isEqualTo(3);
+        assertThat(large).isEqualTo(small);
+    }
+
+    @Test
+    @DisplayName("游标分页：语句数与页大小无关且不执行 COUNT")
+    void scrollPublishedArticles_ConstantStatementCount() {
+        long small = countStatements(() -> assertThat(articleService.scrollPublishedArticles(null, 5).getContent()).hasSize(5));
+        long large = countStatements(() -> assertThat(articleService.scrollPublishedArticles(null, 20).getContent()).hasSize(20));
+
+        assertThat(small).isEqualTo(2);
+        assertThat(large).isEqualTo(small);
+    }
+
+    private Tag newTag(String name) {
+        Tag tag = new Tag();
+        tag.setName(name);
+        tag.setTenantId(TENANT_ID);
+        entityManager.persist(tag);
+        return tag;
+    }
+
+    private PageRequest page(int size) {
+        return PageRequest.of(0, size, Sort.by(Sort.Direction.DESC, "createTime"));
+    }
+
+    private void assertPage(Page<ArticleSummaryDto> page, int size) {
+        assertThat(page.getContent()).hasSize(size);
+        assertThat(page.getContent()).allSatisfy(article -> {
+            assertThat(article.getCategory().getName()).isEqualTo("后端");
+            assertThat(article.getTags()).hasSize(2);
+        });
+    }
+
+    private long countStatements(Runnable action) {
+        entityManager.clear();
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -1,30 +1,39 @@
 package club.freecity.cms.service.impl;
 
+import club.freecity.cms.common.ResultCode;
 import club.freecity.cms.dto.ArticleDto;
+import club.freecity.cms.dto.ArticleSummaryDto;
+import club.freecity.cms.dto.TagDto;
 import club.freecity.cms.entity.Article;
 import club.freecity.cms.entity.Category;
+import club.freecity.cms.entity.Tag;
+import club.freecity.cms.exception.BusinessException;
 import club.freecity.cms.repository.ArticleRepository;
 import club.freecity.cms.repository.CategoryRepository;
 import club.freecity.cms.repository.TagRepository;
 import club.freecity.cms.service.CategoryService;
 import club.freecity.cms.service.TagService;
+import club.freecity.cms.support.counter.ViewCountBuffer;
+import club.freecity.cms.util.MarkdownUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.jpa.domain.Specification;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
@@ -41,6 +50,10 @@ class ArticleServiceImplTest {
     private TagRepository tagRepository;
     @Mock
     private TagService tagService;
+    @Mock
+    private ViewCountBuffer viewCountBuffer;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     @InjectMocks
     private ArticleServiceImpl articleService;
@@ -77,21 +90,43 @@ class ArticleServiceImplTest {
         verify(articleRepository).findById(1L);
     }
 
+    @Test
+    @DisplayName("根据ID获取文章 - 直接使用预渲染HTML")
+    void getArticleById_UsesStoredRenderedContent() {
+        // Arrange
+        testArticle.setRenderedContent("<p>cached</p>");
+        testArticle.setRenderVersion(MarkdownUtils.RENDER_VERSION);
+        when(articleRepository.findById(1L)).thenReturn(Optional.of(testArticle));
+
+        // Act
+        ArticleDto result = articleService.getArticleById(1L);
+
+        // Assert
+        assertThat(result.getRenderedContent()).isEqualTo("<p>cached</p>");
+    }
+
     @Test
     @DisplayName("分页查询所有文章")
     void listAllArticles_Success() {
         // Arrange
         PageRequest pageable = PageRequest.of(0, 10);
-        Page<Article> page = new PageImpl<>(Collections.singletonList(testArticle));
-        when(articleRepository.findAll(ArgumentMatchers.<Specification<Article>>any(), any(PageRequest.class))).thenReturn(page);
+        ArticleSummaryDto summary = new ArticleSummaryDto();
+        summary.setId(1L);
+        summary.setTitle("Test Title");
+        Tag tag = new Tag();
+        tag.setId(2L);
+        tag.setName("Java");
+        when(articleRepository.findSummaries(null, null, pageable)).thenReturn(new PageImpl<>(new ArrayList<>(List.of(summary))));
+        when(articleRepository.findTagsByArticleIdIn(List.of(1L))).thenReturn(Collections.singletonList(new Object[]{1L, tag}));
 
         // Act
-        Page<ArticleDto> result = articleService.listAllArticles(null, null, pageable);
+        Page<ArticleSummaryDto> result = articleService.listAllArticles(null, null, pageable);
 
         // Assert
         assertThat(result).isNotNull();
         assertThat(result.getContent()).hasSize(1);
         assertThat(result.getContent().get(0).getTitle()).isEqualTo("Test Title");
+        assertThat(result.getContent().get(0).getTags()).extracting(TagDto::getName).containsExactly("Java");
     }
 
     @Test
@@ -112,32 +147,34 @@ class ArticleServiceImplTest {
     }
 
     @Test
-    @DisplayName("增加阅读量 - 成功")
+    @DisplayName("增加阅读量 - 写入内存缓冲而不读写实体")
     void incrementViewCount_Success() {
-        // Arrange
-        testArticle.setViewCount(5);
-        when(articleRepository.findById(1L)).thenReturn(Optional.of(testArticle));
-
         // Act
         articleService.incrementViewCount(1L);
 
         // Assert
-        assertThat(testArticle.getViewCount()).isEqualTo(6);
-        verify(articleRepository).save(testArticle);
+        verify(viewCountBuffer).increment(1L);
+        verify(articleRepository, never()).findById(any());
+        verify(articleRepository, never()).save(any());
     }
 
     @Test
-    @DisplayName("增加阅读量 - 处理null值")
-    void incrementViewCount_HandleNull() {
-        // Arrange
-        testArticle.setViewCount(null);
-        when(articleRepository.findById(1L)).thenReturn(Optional.of(testArticle));
-
-        // Act
-        articleService.incrementViewCount(1L);
+    @DisplayName("归档年份或月份格式错误 - 统一返回 BAD_REQUEST")
+    void listArchives_InvalidYearOrMonth_BadRequest() {
+        PageRequest pageable = PageRequest.of(0, 10);
 
-        // Assert
-        assertThat(testArticle.getViewCount()).isEqualTo(1);
-        verify(articleRepository).save(testArticle);
+        assertThatThrownBy(() -> articleService.listPublishedArticlesByYear("20x4", pageable))
+                .isInstanceOf(BusinessException.class)
+                .hasFieldOrPropertyWithValue("code", ResultCode.BAD_REQUEST.getCode());
+        assertThatThrownBy(() -> articleService.listPublishedArticlesByMonth("20x4", 5, pageable))
+                .isInstanceOf(BusinessException.class)
+                .hasFieldOrPropertyWithValue("code", ResultCode.BAD_REQUEST.getCode());
+        assertThatThrownBy(() -> articleService.scrollPublishedArticlesByMonth("2024", 13, null, 10))
+                .isInstanceOf(BusinessException.class)
+                .hasFieldOrPropertyWithValue("code", ResultCode.BAD_REQUEST.getCode());
+        assertThatThrownBy(() -> articleService.listMonthArchives("20x4"))
+                .isInstanceOf(BusinessException.class)
+                .hasFieldOrPropertyWithValue("code", ResultCode.BAD_REQUEST.getCode());
+        verifyNoInteractions(articleRepository);
     }
 }
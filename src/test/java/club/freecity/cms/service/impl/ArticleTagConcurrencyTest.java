@@ -0,0 +1,114 @@
+package club.freecity.cms.service.impl;
+
+import club.freecity.cms.common.TenantContext;
+import club.freecity.cms.dto.ArticleDto;
+import club.freecity.cms.dto.TagDto;
+import club.freecity.cms.entity.Tag;
+import club.freecity.cms.repository.ArticleRepository;
+import club.freecity.cms.repository.TagRepository;
+import club.freecity.cms.service.CategoryService;
+import club.freecity.cms.support.archive.ArchiveCountIndex;
+import club.freecity.cms.support.counter.ViewCountBuffer;
+import club.freecity.cms.support.search.ArticleSearchIndex;
+import jakarta.persistence.LockModeType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 多个编辑者同时保存带相同新标签的文章：标签只创建一次，计数更新不因锁升级而死锁
+ */
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:tagconcurrency;MODE=MySQL;NON_KEYWORDS=TOP,VALUE;LOCK_TIMEOUT=10000")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ArticleServiceImpl.class, TagServiceImpl.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ArticleTagConcurrencyTest {
+
+    private static final Long TENANT_ID = 1L;
+    private static final int EDITORS = 4;
+
+    @Autowired
+    private ArticleServiceImpl articleService;
+    @Autowired
+    private TagRepository tagRepository;
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @MockBean
+    private CategoryService categoryService;
+    @MockBean
+    private ViewCountBuffer viewCountBuffer;
+    @MockBean
+    private ArticleSearchIndex articleSearchIndex;
+    @MockBean
+    private ArchiveCountIndex archiveCountIndex;
+
+    @Test
+    @DisplayName("并发保存带相同新标签的文章均成功，标签计数准确")
+    void saveArticle_ConcurrentSameNewTag() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(EDITORS);
+        CyclicBarrier start = new CyclicBarrier(EDITORS);
+        try {
+            List<Future<ArticleDto>> saves = new ArrayList<>();
+            for (int i = 0; i < EDITORS; i++) {
+                int editor = i;
+                saves.add(executor.submit(() -> {
+                    TenantContext.setCurrentTenant(TENANT_ID, "demo");
+                    try {
+                        start.await(5, TimeUnit.SECONDS);
+                        return articleService.saveArticle(article("文章 " + editor, "并发"));
+                    } finally {
+                        TenantContext.clear();
+                    }
+                }));
+            }
+            for (Future<ArticleDto> save : saves) {
+                assertThat(save.get(30, TimeUnit.SECONDS).getId()).isNotNull();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        List<Tag> tags = tagRepository.findByNameIn(Set.of("并发"));
+        assertThat(tags).hasSize(1);
+        assertThat(tags.get(0).getArticleCount()).isEqualTo(EDITORS);
+        assertThat(articleRepository.count()).isEqualTo(EDITORS);
+    }
+
+    @Test
+    @DisplayName("标签锁定读使用排他锁，避免共享锁升级死锁（MySQL 下 FOR SHARE 升级为 FOR UPDATE 时死锁）")
+    void findLockedByNameIn_UsesExclusiveLock() throws NoSuchMethodException {
+        Lock lock = TagRepository.class.getMethod("findLockedByNameIn", Collection.class).getAnnotation(Lock.class);
+
+        assertThat(lock.value()).isEqualTo(LockModeType.PESSIMISTIC_WRITE);
+    }
+
+    private ArticleDto article(String title, String tagName) {
+        TagDto tag = new TagDto();
+        tag.setName(tagName);
+        ArticleDto article = new ArticleDto();
+        article.setTitle(title);
+        article.setContent("正文");
+        article.setTags(Set.of(tag));
+        return article;
+    }
+}
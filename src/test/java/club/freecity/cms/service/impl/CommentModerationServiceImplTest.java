@@ -0,0 +1,207 @@
+package club.freecity.cms.service.impl;
+
+import club.freecity.cms.dto.CommentModerationTaskDto;
+import club.freecity.cms.entity.CommentModerationTask;
+import club.freecity.cms.enums.CommentStatus;
+import club.freecity.cms.enums.ModerationAction;
+import club.freecity.cms.enums.ModerationTaskStatus;
+import club.freecity.cms.event.ContentChangedEvent;
+import club.freecity.cms.exception.BusinessException;
+import club.freecity.cms.repository.ArticleRepository;
+import club.freecity.cms.repository.CommentModerationTaskRepository;
+import club.freecity.cms.repository.CommentRepository;
+import club.freecity.cms.support.comment.ArticleCommentCount;
+import club.freecity.cms.common.RoleConstants;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CommentModerationServiceImplTest {
+
+    @Mock
+    private CommentModerationTaskRepository taskRepository;
+    @Mock
+    private CommentRepository commentRepository;
+    @Mock
+    private ArticleRepository articleRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private CommentModerationServiceImpl moderationService;
+
+    @BeforeEach
+    void setUp() {
+        moderationService = new CommentModerationServiceImpl(taskRepository, commentRepository, articleRepository,
+                eventPublisher, transactionTemplate, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("编辑不能提交删除任务，动作大小写不影响校验")
+    void submit_DeleteRequiresAdmin() {
+        loginAs(RoleConstants.ROLE_EDITOR);
+        CommentModerationTaskDto dto = new CommentModerationTaskDto();
+        dto.setAction("delete");
+        dto.setIp("10.0.0.1");
+
+        assertThatThrownBy(() -> moderationService.submit(dto))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("仅管理员");
+        verifyNoInteractions(commentRepository, taskRepository);
+    }
+
+    @Test
+    @DisplayName("编辑不能恢复已取消的删除任务")
+    void resume_DeleteTaskRequiresAdmin() {
+        loginAs(RoleConstants.ROLE_EDITOR);
+        CommentModerationTask task = runningTask(ModerationAction.DELETE, null);
+        task.setState(ModerationTaskStatus.CANCELLED.getValue());
+        when(taskRepository.findById(7L)).thenReturn(Optional.of(task));
+
+        assertThatThrownBy(() -> moderationService.resume(7L)).isInstanceOf(BusinessException.class);
+        assertThat(task.getState()).isEqualTo(ModerationTaskStatus.CANCELLED.getValue());
+        verify(taskRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("管理员可以恢复已取消的删除任务")
+    void resume_AdminResumesDeleteTask() {
+        loginAs(RoleConstants.ROLE_TENANT_ADMIN);
+        CommentModerationTask task = runningTask(ModerationAction.DELETE, null);
+        task.setState(ModerationTaskStatus.CANCELLED.getValue());
+        when(taskRepository.findById(7L)).thenReturn(Optional.of(task));
+
+        moderationService.resume(7L);
+
+        assertThat(task.getState()).isEqualTo(ModerationTaskStatus.RUNNING.getValue());
+        verify(taskRepository).save(task);
+    }
+
+    @Test
+    @DisplayName("未指定任何筛选条件时拒绝提交")
+    void submit_RequiresFilter() {
+        loginAs(RoleConstants.ROLE_TENANT_ADMIN);
+        CommentModerationTaskDto dto = new CommentModerationTaskDto();
+        dto.setAction(ModerationAction.DELETE.getValue());
+
+        assertThatThrownBy(() -> moderationService.submit(dto)).isInstanceOf(BusinessException.class);
+        verifyNoInteractions(commentRepository, taskRepository);
+    }
+
+    @Test
+    @DisplayName("分段发布：按文章聚合增加评论数，推进游标直至完成；进度按命中数累计，已发布的评论同样计入")
+    void runPendingTasks_PublishesChunkByChunk() {
+        CommentModerationTask task = runningTask(ModerationAction.AUDIT, CommentStatus.PUBLISHED.getValue());
+        runInlineTransactions();
+        when(taskRepository.findIdsByState(ModerationTaskStatus.RUNNING.getValue())).thenReturn(List.of(7L));
+        when(taskRepository.findForUpdate(7L)).thenReturn(Optional.of(task));
+        // 第一段上界为租户内游标后第 2 条评论的 ID，第二段不足一段时取提交时的上界
+        when(commentRepository.findIdsAfter(eq(1L), anyLong(), any(Pageable.class)))
+                .thenReturn(List.of(20L), List.of());
+        when(commentRepository.countModerationByArticle(eq(task), anyLong(), eq(CommentStatus.unpublishedValues())))
+                .thenReturn(List.of(new ArticleCommentCount(5L, 2L)), List.of(new ArticleCommentCount(6L, 1L)));
+        when(commentRepository.countModeration(eq(task), anyLong())).thenReturn(3L, 1L);
+        // 第一段命中 3 条，其中 1 条已是发布状态，只更新 2 条
+        when(commentRepository.updateModerationStatus(eq(task), anyLong(), eq(CommentStatus.PUBLISHED.getValue())))
+                .thenReturn(2, 1);
+
+        long processed = moderationService.runPendingTasks(10);
+
+        assertThat(processed).isEqualTo(4);
+        assertThat(task.getCursorId()).isEqualTo(30L);
+        assertThat(task.getProcessed()).isEqualTo(task.getTotal());
+        assertThat(task.getState()).isEqualTo(ModerationTaskStatus.COMPLETED.getValue());
+        verify(commentRepository).updateModerationStatus(task, 20L, CommentStatus.PUBLISHED.getValue());
+        verify(commentRepository).updateModerationStatus(task, 30L, CommentStatus.PUBLISHED.getValue());
+        verify(articleRepository).incrementCommentCount(5L, 2);
+        verify(articleRepository).incrementCommentCount(6L, 1);
+        verify(eventPublisher, times(2)).publishEvent(any(ContentChangedEvent.class));
+    }
+
+    @Test
+    @DisplayName("分段删除：只按已发布评论扣减文章评论数")
+    void runPendingTasks_DeleteDecrementsPublishedOnly() {
+        CommentModerationTask task = runningTask(ModerationAction.DELETE, null);
+        runInlineTransactions();
+        when(taskRepository.findIdsByState(ModerationTaskStatus.RUNNING.getValue())).thenReturn(List.of(7L));
+        when(taskRepository.findForUpdate(7L)).thenReturn(Optional.of(task));
+        when(commentRepository.findIdsAfter(eq(1L), anyLong(), any(Pageable.class))).thenReturn(List.of());
+        when(commentRepository.countModerationByArticle(task, 30L, List.of(CommentStatus.PUBLISHED.getValue())))
+                .thenReturn(List.of(new ArticleCommentCount(5L, 4L)));
+        when(commentRepository.deleteModeration(task, 30L)).thenReturn(9);
+
+        moderationService.runPendingTasks(10);
+
+        verify(articleRepository).incrementCommentCount(5L, -4);
+        assertThat(task.getProcessed()).isEqualTo(9L);
+        assertThat(task.getState()).isEqualTo(ModerationTaskStatus.COMPLETED.getValue());
+    }
+
+    @Test
+    @DisplayName("已取消的任务不再推进")
+    void runPendingTasks_SkipsCancelledTask() {
+        CommentModerationTask task = runningTask(ModerationAction.DELETE, null);
+        task.setState(ModerationTaskStatus.CANCELLED.getValue());
+        runInlineTransactions();
+        when(taskRepository.findIdsByState(ModerationTaskStatus.RUNNING.getValue())).thenReturn(List.of(7L));
+        when(taskRepository.findForUpdate(7L)).thenReturn(Optional.of(task));
+
+        assertThat(moderationService.runPendingTasks(10)).isZero();
+        verify(commentRepository, never()).deleteModeration(any(), anyLong());
+        assertThat(task.getCursorId()).isEqualTo(9L);
+    }
+
+    private void loginAs(String authority) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "user", null, List.of(new SimpleGrantedAuthority(authority))));
+    }
+
+    private CommentModerationTask runningTask(ModerationAction action, Integer targetStatus) {
+        CommentModerationTask task = new CommentModerationTask();
+        task.setId(7L);
+        task.setTenantId(1L);
+        task.setAction(action.getValue());
+        task.setTargetStatus(targetStatus);
+        task.setIp("10.0.0.1");
+        task.setState(ModerationTaskStatus.RUNNING.getValue());
+        task.setTotal(4L);
+        task.setMinId(10L);
+        task.setMaxId(30L);
+        task.setCursorId(9L);
+        return task;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void runInlineTransactions() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                ((TransactionCallback<Object>) invocation.getArgument(0)).doInTransaction(null));
+    }
+}
@@ -1,22 +1,35 @@
 package club.freecity.cms.service.impl;
 
+import club.freecity.cms.common.TenantContext;
+import club.freecity.cms.entity.MediaAsset;
+import club.freecity.cms.entity.MediaBlob;
 import club.freecity.cms.exception.BusinessException;
 import club.freecity.cms.repository.MediaAssetRepository;
+import club.freecity.cms.repository.MediaBlobRepository;
+import club.freecity.cms.support.media.ImageVariants;
+import club.freecity.cms.repository.StorageUsageRepository;
 import club.freecity.cms.repository.TenantRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.*;
 
@@ -27,13 +40,25 @@ class FileServiceImplTest {
     private MediaAssetRepository mediaAssetRepository;
     @Mock
     private TenantRepository tenantRepository;
+    @Mock
+    private StorageUsageRepository storageUsageRepository;
+    @Mock
+    private MediaBlobRepository mediaBlobRepository;
+    @Mock
+    private ImageVariants imageVariants;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @TempDir
+    Path tempDir;
 
     @InjectMocks
     private FileServiceImpl fileService;
 
     @BeforeEach
     void setUp() {
-        ReflectionTestUtils.setField(fileService, "uploadPath", "uploads");
+        ReflectionTestUtils.setField(fileService, "uploadPath", tempDir.resolve("uploads").toString());
+        ReflectionTestUtils.setField(fileService, "tempPath", tempDir.resolve("tmp").toString());
         ReflectionTestUtils.setField(fileService, "maxFileSize", DataSize.ofMegabytes(10));
     }
 
@@ -115,23 +140,183 @@ class FileServiceImplTest {
     }
 
     @Test
-    @DisplayName("上传文件 - 文本类文件跳过 Magic Number 校验")
+    @DisplayName("上传文件 - 文本类文件跳过 Magic Number 校验，上传流只读取一次")
     void uploadFile_TextFile_SkipsMagicNumber() throws IOException {
+        // Arrange
+        MultipartFile file = textFile("# hello");
+        when(mediaBlobRepository.insertIfAbsent(any(), anyString(), anyString(), anyString(), anyString(), anyLong()))
+                .thenReturn(1);
+
+        // Act
+        String url = fileService.uploadFile(file);
+
+        // Assert
+        assertThat(url).contains("/blobs/").endsWith(".md");
+        verify(file, times(1)).getInputStream();
+        verify(mediaAssetRepository).save(any(MediaAsset.class));
+        assertThat(tempDir.resolve("tmp")).isEmptyDirectory();
+        assertThat(tempDir.resolve("uploads/default/blobs")).isNotEmptyDirectory();
+    }
+
+    @Test
+    @DisplayName("上传文件 - 相同内容复用已有文件，不占用存储配额")
+    void uploadFile_DuplicateContent_ReusesBlob() throws IOException {
+        // Arrange
+        MultipartFile file = textFile("# hello");
+        MediaBlob existing = new MediaBlob();
+        existing.setId(7L);
+        existing.setUrl("/uploads/test/blobs/ab/existing.md");
+        existing.setFilePath("/data/uploads/test/blobs/ab/existing.md");
+        when(mediaBlobRepository.findByTenantIdAndHash(eq(1L), anyString())).thenReturn(Optional.of(existing));
+        when(mediaBlobRepository.incrementRefCount(7L)).thenReturn(1);
+
+        TenantContext.setCurrentTenant(1L, "test");
+        try {
+            // Act
+            String url = fileService.uploadFile(file);
+
+            // Assert
+            assertThat(url).isEqualTo("/uploads/test/blobs/ab/existing.md");
+        } finally {
+            TenantContext.clear();
+        }
+
+        verify(mediaBlobRepository, never()).insertIfAbsent(any(), any(), any(), any(), any(), any());
+        verify(storageUsageRepository, never()).reserve(anyLong(), anyLong(), anyLong(), anyLong(), anyLong(), anyLong());
+        assertThat(tempDir.resolve("tmp")).isEmptyDirectory();
+    }
+
+    @Test
+    @DisplayName("上传文件 - 并发上传相同内容时复用对方插入的文件，并退还本次占用的配额")
+    void uploadFile_ConcurrentDuplicate_ReleasesReservation() throws IOException {
+        // Arrange
+        MultipartFile file = textFile("# hello");
+        MediaBlob winner = new MediaBlob();
+        winner.setId(7L);
+        winner.setUrl("/uploads/test/blobs/ab/winner.md");
+        winner.setFilePath("/data/uploads/test/blobs/ab/winner.md");
+        when(mediaBlobRepository.findByTenantIdAndHash(eq(1L), anyString())).thenReturn(Optional.empty());
+        when(tenantRepository.findMaxStorageById(1L)).thenReturn(Optional.of(1L));
+        when(storageUsageRepository.reserve(1L, 7L, 0L, 7L, 0L, 1024 * 1024L)).thenReturn(1);
+        when(mediaBlobRepository.insertIfAbsent(eq(1L), anyString(), anyString(), anyString(), anyString(), eq(7L)))
+                .thenReturn(0);
+        when(mediaBlobRepository.findLockedByTenantIdAndHash(eq(1L), anyString())).thenReturn(Optional.of(winner));
+        when(mediaBlobRepository.incrementRefCount(7L)).thenReturn(1);
+
+        TenantContext.setCurrentTenant(1L, "test");
+        try {
+            // Act
+            String url = fileService.uploadFile(file);
+
+            // Assert
+            assertThat(url).isEqualTo("/uploads/test/blobs/ab/winner.md");
+        } finally {
+            TenantContext.clear();
+        }
+
+        verify(storageUsageRepository).release(1L, 7L, 0L, 7L, 0L);
+        verify(mediaAssetRepository).save(any(MediaAsset.class));
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+        assertThat(tempDir.resolve("tmp")).isEmptyDirectory();
+    }
+
+    @Test
+    @DisplayName("上传文件 - 临时目录位于公开的上传目录内时拒绝上传")
+    void uploadFile_TempPathInsideUploadPath_ThrowsException() throws IOException {
         // Arrange
         MultipartFile file = mock(MultipartFile.class);
         when(file.isEmpty()).thenReturn(false);
-        when(file.getSize()).thenReturn(1024L);
+        when(file.getSize()).thenReturn(7L);
         when(file.getOriginalFilename()).thenReturn("test.md");
         when(file.getContentType()).thenReturn("text/markdown");
-        
-        // 注意：这里由于后面涉及文件写入，直接运行会失败，但我们主要验证它通过了 validateMagicNumber
-        // 由于没有 mock 租户上下文，会抛出后续的异常或在文件写入处失败，
-        // 我们通过 verify 确认没有调用 getInputStream 来间接证明跳过了校验
+        ReflectionTestUtils.setField(fileService, "tempPath", tempDir.resolve("uploads/tmp").toString());
+
+        // Act & Assert
+        assertThatThrownBy(() -> fileService.uploadFile(file))
+                .isInstanceOf(IllegalStateException.class);
+        verify(file, never()).getInputStream();
+    }
+
+    @Test
+    @DisplayName("上传文件 - 超出存储配额时不保留文件")
+    void uploadFile_QuotaExceeded_ThrowsException() throws IOException {
+        // Arrange
+        MultipartFile file = textFile("# hello");
+        when(tenantRepository.findMaxStorageById(1L)).thenReturn(Optional.of(1L));
+        when(storageUsageRepository.reserve(1L, 7L, 0L, 7L, 0L, 1024 * 1024L)).thenReturn(0);
+        when(storageUsageRepository.initialize(1L)).thenReturn(0);
+
+        TenantContext.setCurrentTenant(1L, "test");
         try {
-            fileService.uploadFile(file);
-        } catch (Exception ignored) {
+            // Act & Assert
+            assertThatThrownBy(() -> fileService.uploadFile(file))
+                    .isInstanceOf(BusinessException.class)
+                    .hasMessageContaining("存储空间不足");
+        } finally {
+            TenantContext.clear();
         }
 
-        verify(file, never()).getInputStream();
+        verify(mediaAssetRepository, never()).save(any());
+        assertThat(tempDir.resolve("tmp")).isEmptyDirectory();
+    }
+
+    @Test
+    @DisplayName("上传文件 - 计数行已被并发创建时仍重试占用配额")
+    void uploadFile_UsageRowCreatedConcurrently_RetriesReserve() throws IOException {
+        // Arrange
+        MultipartFile file = textFile("# hello");
+        when(tenantRepository.findMaxStorageById(1L)).thenReturn(Optional.of(1L));
+        when(storageUsageRepository.reserve(1L, 7L, 0L, 7L, 0L, 1024 * 1024L)).thenReturn(0, 1);
+        when(storageUsageRepository.initialize(1L)).thenReturn(0);
+        when(mediaBlobRepository.insertIfAbsent(eq(1L), anyString(), anyString(), anyString(), anyString(), eq(7L)))
+                .thenReturn(1);
+
+        TenantContext.setCurrentTenant(1L, "test");
+        try {
+            // Act
+            String url = fileService.uploadFile(file);
+
+            // Assert
+            assertThat(url).contains("/test/blobs/");
+        } finally {
+            TenantContext.clear();
+        }
+
+        verify(storageUsageRepository, times(2)).reserve(1L, 7L, 0L, 7L, 0L, 1024 * 1024L);
+        verify(mediaAssetRepository).save(any(MediaAsset.class));
+    }
+
+    @Test
+    @DisplayName("彻底删除 - 文件仍被其他资源引用时保留物理文件")
+    void permanentlyDeleteAsset_SharedBlob_KeepsFile() throws IOException {
+        // Arrange
+        Path blobFile = Files.writeString(tempDir.resolve("shared.md"), "# hello");
+        MediaBlob blob = new MediaBlob();
+        blob.setId(7L);
+        blob.setFilePath(blobFile.toString());
+        MediaAsset asset = new MediaAsset();
+        asset.setTenantId(1L);
+        asset.setContentHash("hash");
+        when(mediaAssetRepository.findById(3L)).thenReturn(Optional.of(asset));
+        when(mediaBlobRepository.findByTenantIdAndHash(1L, "hash")).thenReturn(Optional.of(blob));
+        when(mediaBlobRepository.deleteIfUnreferenced(7L)).thenReturn(0);
+
+        // Act
+        fileService.permanentlyDeleteAsset(3L);
+
+        // Assert
+        verify(mediaBlobRepository).decrementRefCount(7L);
+        assertThat(blobFile).exists();
+        verify(storageUsageRepository, never()).release(anyLong(), anyLong(), anyLong(), anyLong(), anyLong());
+    }
+
+    private MultipartFile textFile(String content) throws IOException {
+        MultipartFile file = mock(MultipartFile.class);
+        when(file.isEmpty()).thenReturn(false);
+        when(file.getSize()).thenReturn((long) content.length());
+        when(file.getOriginalFilename()).thenReturn("test.md");
+        when(file.getContentType()).thenReturn("text/markdown");
+        when(file.getInputStream()).thenReturn(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+        return file;
     }
 }
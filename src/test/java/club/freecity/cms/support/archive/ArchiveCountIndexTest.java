@@ -0,0 +1,89 @@
+package club.freecity.cms.support.archive;
+
+import club.freecity.cms.common.TenantContext;
+import club.freecity.cms.dto.ArchiveDto;
+import club.freecity.cms.event.ArticlePublicationChangedEvent;
+import club.freecity.cms.repository.ArticleRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ArchiveCountIndexTest {
+
+    @Mock
+    private ArticleRepository articleRepository;
+
+    @InjectMocks
+    private ArchiveCountIndex archiveCountIndex;
+
+    @BeforeEach
+    void setUp() {
+        TenantContext.setCurrentTenant(1L, "demo");
+        when(articleRepository.countPublishedByMonth(1L)).thenReturn(List.of(
+                new Object[]{2023, 12, 2L},
+                new Object[]{2024, 1, 3L},
+                new Object[]{2024, 5, 1L}));
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    @DisplayName("年度归档由月度计数汇总，按年份倒序")
+    void listYears_AggregatesMonths() {
+        assertThat(archiveCountIndex.listYears())
+                .extracting(ArchiveDto::getYear, ArchiveDto::getCount)
+                .containsExactly(
+                        tuple("2024", 4L),
+                        tuple("2023", 2L));
+    }
+
+    @Test
+    @DisplayName("发布状态变更增量更新计数，不再重新查询")
+    void onPublicationChanged_AppliesDelta() {
+        archiveCountIndex.listMonths(2024);
+
+        archiveCountIndex.onPublicationChanged(new ArticlePublicationChangedEvent(1L, YearMonth.of(2024, 5), -1));
+        archiveCountIndex.onPublicationChanged(new ArticlePublicationChangedEvent(1L, YearMonth.of(2024, 3), 1));
+
+        assertThat(archiveCountIndex.listMonths(2024))
+                .extracting(ArchiveDto::getMonth, ArchiveDto::getCount)
+                .containsExactly(
+                        tuple(3, 1L),
+                        tuple(1, 3L));
+        verify(articleRepository, times(1)).countPublishedByMonth(1L);
+    }
+
+    @Test
+    @DisplayName("加载期间收到增量时不缓存加载结果，下次访问重新加载")
+    void onPublicationChanged_DuringLoadIsNotCached() {
+        when(articleRepository.countPublishedByMonth(1L))
+                .thenAnswer(invocation -> {
+                    // 加载读取到旧计数后，发布事务提交
+                    archiveCountIndex.onPublicationChanged(new ArticlePublicationChangedEvent(1L, YearMonth.of(2024, 5), 1));
+                    return List.<Object[]>of(new Object[]{2024, 5, 1L});
+                })
+                .thenReturn(List.<Object[]>of(new Object[]{2024, 5, 2L}));
+
+        assertThat(archiveCountIndex.listMonths(2024)).extracting(ArchiveDto::getCount).containsExactly(1L);
+        assertThat(archiveCountIndex.listMonths(2024)).extracting(ArchiveDto::getCount).containsExactly(2L);
+        verify(articleRepository, times(2)).countPublishedByMonth(1L);
+    }
+}
@@ -0,0 +1,80 @@
+package club.freecity.cms.support.audit;
+
+import club.freecity.cms.entity.SecurityLog;
+import club.freecity.cms.service.SecurityAuditService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AuditLogWriterTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("停机时排空队列并按批写入")
+    void shutdown_DrainsQueueInBatches() throws InterruptedException {
+        AtomicInteger written = new AtomicInteger();
+        when(jdbcTemplate.batchUpdate(anyString(), any(Collection.class), anyInt(), any())).thenAnswer(invocation -> {
+            Collection<?> batch = invocation.getArgument(1);
+            assertThat(batch.size()).isLessThanOrEqualTo(50);
+            written.addAndGet(batch.size());
+            return new int[0][];
+        });
+        AuditLogWriter writer = new AuditLogWriter(jdbcTemplate, 1000, 50, 60_000, 10);
+        writer.start();
+
+        for (int i = 0; i < 120; i++) {
+            assertThat(writer.offer(newLog(SecurityAuditService.STATUS_SUCCESS))).isTrue();
+        }
+        writer.shutdown();
+
+        assertThat(written.get()).isEqualTo(120);
+        assertThat(writer.getFlushedCount()).isEqualTo(120);
+        assertThat(writer.getPendingCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("队列繁忙时抽样成功日志、保留失败日志，队列满时丢弃且不阻塞")
+    void offer_SamplesWhenBusyAndDropsWhenFull() {
+        // 不启动写线程，日志只入队不消费
+        AuditLogWriter writer = new AuditLogWriter(jdbcTemplate, 8, 50, 60_000, 1_000_000);
+
+        for (int i = 0; i < 6; i++) {
+            assertThat(writer.offer(newLog(SecurityAuditService.STATUS_SUCCESS))).isTrue();
+        }
+        // 超过 3/4 容量：成功日志被抽样丢弃，失败日志继续入队直到队列满
+        assertThat(writer.offer(newLog(SecurityAuditService.STATUS_SUCCESS))).isFalse();
+        assertThat(writer.offer(newLog(SecurityAuditService.STATUS_FAILURE))).isTrue();
+        assertThat(writer.offer(newLog(SecurityAuditService.STATUS_FAILURE))).isTrue();
+        assertThat(writer.offer(newLog(SecurityAuditService.STATUS_FAILURE))).isFalse();
+
+        assertThat(writer.getPendingCount()).isEqualTo(8);
+        assertThat(writer.getQueuedCount()).isEqualTo(8);
+        assertThat(writer.getDroppedCount()).isEqualTo(2);
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), any(Collection.class), anyInt(), any());
+    }
+
+    private SecurityLog newLog(String status) {
+        SecurityLog securityLog = new SecurityLog();
+        securityLog.setTenantId(1L);
+        securityLog.setAction("LOGIN");
+        securityLog.setStatus(status);
+        return securityLog;
+    }
+}
@@ -0,0 +1,84 @@
+package club.freecity.cms.support.category;
+
+import club.freecity.cms.common.TenantContext;
+import club.freecity.cms.event.ContentChangedEvent;
+import club.freecity.cms.repository.CategoryRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CategoryTreeIndexTest {
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @InjectMocks
+    private CategoryTreeIndex categoryTreeIndex;
+
+    @BeforeEach
+    void setUp() {
+        TenantContext.setCurrentTenant(1L, "demo");
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    @DisplayName("后代分类由一次查询加载后在内存中遍历")
+    void getDescendantIds_LoadsTreeOnce() {
+        when(categoryRepository.findTreeEdgesByTenantId(1L)).thenReturn(List.of(
+                new Object[]{1L, 0L},
+                new Object[]{2L, 1L},
+                new Object[]{3L, 2L},
+                new Object[]{4L, 0L}));
+
+        assertThat(categoryTreeIndex.getDescendantIds(1L)).containsExactly(1L, 2L, 3L);
+        assertThat(categoryTreeIndex.getDescendantIds(2L)).containsExactly(2L, 3L);
+        verify(categoryRepository, times(1)).findTreeEdgesByTenantId(1L);
+    }
+
+    @Test
+    @DisplayName("分类变更后重建分类树")
+    void onContentChanged_RebuildsTree() {
+        when(categoryRepository.findTreeEdgesByTenantId(1L))
+                .thenReturn(List.<Object[]>of(new Object[]{1L, 0L}))
+                .thenReturn(List.of(new Object[]{1L, 0L}, new Object[]{2L, 1L}));
+        assertThat(categoryTreeIndex.getDescendantIds(1L)).containsExactly(1L);
+
+        categoryTreeIndex.onContentChanged(ContentChangedEvent.updated(ContentChangedEvent.ContentType.CATEGORY, 2L, 1L));
+
+        assertThat(categoryTreeIndex.getDescendantIds(1L)).containsExactly(1L, 2L);
+    }
+
+    @Test
+    @DisplayName("加载期间发生失效时不缓存旧分类树")
+    void getDescendantIds_InvalidatedDuringLoadIsNotCached() {
+        when(categoryRepository.findTreeEdgesByTenantId(1L))
+                .thenAnswer(invocation -> {
+                    // 加载读取到旧数据后，分类变更事务提交
+                    categoryTreeIndex.onContentChanged(
+                            ContentChangedEvent.updated(ContentChangedEvent.ContentType.CATEGORY, 2L, 1L));
+                    return List.<Object[]>of(new Object[]{1L, 0L});
+                })
+                .thenReturn(List.of(new Object[]{1L, 0L}, new Object[]{2L, 1L}));
+
+        assertThat(categoryTreeIndex.getDescendantIds(1L)).containsExactly(1L);
+        assertThat(categoryTreeIndex.getDescendantIds(1L)).containsExactly(1L, 2L);
+        verify(categoryRepository, times(2)).findTreeEdgesByTenantId(1L);
+    }
+}
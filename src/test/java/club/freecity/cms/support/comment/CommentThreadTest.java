@@ -0,0 +1,80 @@
+package club.freecity.cms.support.comment;
+
+import club.freecity.cms.dto.CommentDto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CommentThreadTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Test
+    @DisplayName("一次遍历组装多层回复，父评论未发布的回复不展示")
+    void assemble_BuildsNestedReplies() {
+        CommentThread thread = CommentThread.assemble(9L, List.of(
+                row(1L, null, "alice", 0),
+                row(2L, 1L, "bob", 1),
+                row(3L, 2L, "carol", 2),
+                row(4L, 99L, "orphan", 3),
+                row(5L, null, "dave", 4)));
+
+        Page<CommentDto> page = thread.page(PageRequest.of(0, 10, Sort.by(Sort.Direction.ASC, "createTime")));
+
+        assertThat(page.getTotalElements()).isEqualTo(2);
+        CommentDto alice = page.getContent().get(0);
+        CommentDto bob = alice.getReplies().iterator().next();
+        CommentDto carol = bob.getReplies().iterator().next();
+        assertThat(bob.getParentNickname()).isEqualTo("alice");
+        assertThat(carol.getParentId()).isEqualTo(2L);
+        assertThat(carol.getParentNickname()).isEqualTo("bob");
+        assertThat(carol.getArticleId()).isEqualTo(9L);
+    }
+
+    @Test
+    @DisplayName("回复按时间正序且只读，缓存中的评论树不可被修改")
+    void assemble_RepliesAreOrderedAndReadOnly() {
+        CommentThread thread = CommentThread.assemble(9L, List.of(
+                row(1L, null, "alice", 0),
+                row(2L, 1L, "bob", 1),
+                row(3L, 1L, "carol", 2),
+                row(4L, 2L, "dave", 3)));
+
+        CommentDto alice = thread.page(PageRequest.of(0, 10)).getContent().get(0);
+
+        assertThat(alice.getReplies()).extracting(CommentDto::getId).containsExactly(2L, 3L);
+        assertThat(alice.getReplies()).contains(alice.getReplies().iterator().next());
+        assertThatThrownBy(() -> alice.getReplies().add(new CommentDto()))
+                .isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> alice.getReplies().clear())
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    @DisplayName("默认按根评论创建时间倒序分页")
+    void page_DefaultsToNewestFirst() {
+        CommentThread thread = CommentThread.assemble(9L, List.of(
+                row(1L, null, "a", 0),
+                row(2L, null, "b", 1),
+                row(3L, null, "c", 2)));
+
+        Page<CommentDto> first = thread.page(PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "createTime")));
+        Page<CommentDto> second = thread.page(PageRequest.of(1, 2, Sort.by(Sort.Direction.DESC, "createTime")));
+
+        assertThat(first.getContent()).extracting(CommentDto::getId).containsExactly(3L, 2L);
+        assertThat(second.getContent()).extracting(CommentDto::getId).containsExactly(1L);
+        assertThat(second.isLast()).isTrue();
+    }
+
+    private CommentThreadRow row(Long id, Long parentId, String nickname, int minutes) {
+        return new CommentThreadRow(id, parentId, nickname, "content " + id, false, T0.plusMinutes(minutes));
+    }
+}
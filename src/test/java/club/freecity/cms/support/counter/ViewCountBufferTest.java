@@ -0,0 +1,79 @@
+package club.freecity.cms.support.counter;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ViewCountBufferTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private ViewCountBuffer viewCountBuffer;
+
+    @SuppressWarnings("unchecked")
+    private void runInTransaction() {
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(mock(TransactionStatus.class));
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any(Consumer.class));
+    }
+
+    @Test
+    @DisplayName("增量在事务中批量写回后清零")
+    void flush_WritesBatchInTransaction() {
+        runInTransaction();
+        viewCountBuffer.increment(1L);
+        viewCountBuffer.increment(1L);
+        viewCountBuffer.increment(2L);
+
+        viewCountBuffer.flush();
+
+        verify(transactionTemplate).executeWithoutResult(any());
+        verify(jdbcTemplate).batchUpdate(anyString(), anyList());
+        assertThat(viewCountBuffer.getTotalPendingCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("写回失败时整批放回缓冲等待重试")
+    void flush_FailureRestoresDeltas() {
+        runInTransaction();
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenThrow(new QueryTimeoutException("timeout"));
+        viewCountBuffer.increment(1L);
+        viewCountBuffer.increment(1L);
+
+        viewCountBuffer.flush();
+
+        assertThat(viewCountBuffer.getPendingCount(1L)).isEqualTo(2L);
+        viewCountBuffer.increment(1L);
+        assertThat(viewCountBuffer.getTotalPendingCount()).isEqualTo(3L);
+    }
+
+    @Test
+    @DisplayName("没有增量时不开启事务")
+    void flush_EmptyBufferSkipsTransaction() {
+        viewCountBuffer.flush();
+
+        verify(transactionTemplate, never()).executeWithoutResult(any());
+        verifyNoInteractions(jdbcTemplate);
+    }
+}
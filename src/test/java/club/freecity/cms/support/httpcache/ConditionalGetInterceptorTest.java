@@ -0,0 +1,90 @@
+package club.freecity.cms.support.httpcache;
+
+import club.freecity.cms.annotation.ConditionalGet;
+import club.freecity.cms.common.TenantContext;
+import club.freecity.cms.support.counter.ViewCountBuffer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class ConditionalGetInterceptorTest {
+
+    private final ContentVersions contentVersions = new ContentVersions();
+    private final ViewCountBuffer viewCountBuffer = mock(ViewCountBuffer.class);
+    private final ConditionalGetInterceptor interceptor =
+            new ConditionalGetInterceptor(contentVersions, viewCountBuffer, new MockEnvironment());
+
+    @BeforeEach
+    void setUp() {
+        TenantContext.setCurrentTenant(1L, "t1");
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    @DisplayName("文章详情页返回 304 时仍累计阅读量")
+    void preHandle_NotModifiedArticleCountsView() throws Exception {
+        MockHttpServletRequest request = conditionalRequest();
+        request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, Map.of("id", "42"));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        boolean proceed = interceptor.preHandle(request, response, handler("article"));
+
+        assertThat(proceed).isFalse();
+        assertThat(response.getStatus()).isEqualTo(304);
+        verify(viewCountBuffer).increment(42L);
+    }
+
+    @Test
+    @DisplayName("非文章页返回 304 不累计阅读量，内容变更后执行控制器")
+    void preHandle_OtherPagesDoNotCountView() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertThat(interceptor.preHandle(conditionalRequest(), response, handler("index"))).isFalse();
+
+        MockHttpServletRequest stale = new MockHttpServletRequest("GET", "/article/42");
+        stale.addHeader(HttpHeaders.IF_NONE_MATCH, "\"stale\"");
+        stale.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, Map.of("id", "42"));
+        assertThat(interceptor.preHandle(stale, new MockHttpServletResponse(), handler("article"))).isTrue();
+
+        verify(viewCountBuffer, never()).increment(anyLong());
+    }
+
+    private MockHttpServletRequest conditionalRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, contentVersions.etag(1L));
+        return request;
+    }
+
+    private HandlerMethod handler(String method) throws NoSuchMethodException {
+        return new HandlerMethod(new Pages(), Pages.class.getMethod(method));
+    }
+
+    static class Pages {
+
+        @ConditionalGet
+        public String index() {
+            return "index";
+        }
+
+        @ConditionalGet(viewedArticle = "id")
+        public String article() {
+            return "article";
+        }
+    }
+}
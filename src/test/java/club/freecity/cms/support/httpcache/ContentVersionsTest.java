@@ -0,0 +1,63 @@
+package club.freecity.cms.support.httpcache;
+
+import club.freecity.cms.event.ContentChangedEvent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ContentVersionsTest {
+
+    private final ContentVersions contentVersions = new ContentVersions();
+
+    @Test
+    @DisplayName("内容未变更时返回 304")
+    void checkNotModified_SameVersion() {
+        String etag = contentVersions.etag(1L);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        boolean notModified = contentVersions.checkNotModified(webRequest(etag, response), 1L);
+
+        assertThat(notModified).isTrue();
+        assertThat(response.getStatus()).isEqualTo(304);
+    }
+
+    @Test
+    @DisplayName("租户内容变更后 ETag 变化，其他租户不受影响")
+    void onContentChanged_BumpsTenantVersionOnly() {
+        String tenant1 = contentVersions.etag(1L);
+        String tenant2 = contentVersions.etag(2L);
+
+        contentVersions.onContentChanged(ContentChangedEvent.commentsChanged(42L, 1L));
+
+        assertThat(contentVersions.etag(1L)).isNotEqualTo(tenant1);
+        assertThat(contentVersions.etag(2L)).isEqualTo(tenant2);
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        boolean notModified = contentVersions.checkNotModified(webRequest(tenant1, response), 1L);
+
+        assertThat(notModified).isFalse();
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo(contentVersions.etag(1L));
+    }
+
+    @Test
+    @DisplayName("无法确定租户的变更使全部租户失效")
+    void onContentChanged_UnknownTenantBumpsAll() {
+        String tenant2 = contentVersions.etag(2L);
+
+        contentVersions.onContentChanged(ContentChangedEvent.updated(ContentChangedEvent.ContentType.ARTICLE, 1L, null));
+
+        assertThat(contentVersions.etag(2L)).isNotEqualTo(tenant2);
+    }
+
+    private ServletWebRequest webRequest(String etag, MockHttpServletResponse response) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+        return new ServletWebRequest(request, response);
+    }
+}
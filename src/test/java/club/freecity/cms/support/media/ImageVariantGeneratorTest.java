@@ -0,0 +1,104 @@
+package club.freecity.cms.support.media;
+
+import club.freecity.cms.repository.MediaBlobRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.CRC32;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ImageVariantGeneratorTest {
+
+    @Mock
+    private MediaBlobRepository mediaBlobRepository;
+
+    @TempDir
+    Path tempDir;
+
+    private ImageVariants imageVariants;
+    private ImageVariantGenerator generator;
+
+    @BeforeEach
+    void setUp() {
+        imageVariants = new ImageVariants(new int[]{1280, 320, 640}, "uploads");
+        generator = new ImageVariantGenerator(imageVariants, mediaBlobRepository, 1, 10, 40_000_000L);
+    }
+
+    @Test
+    @DisplayName("生成不大于原图宽度的缩放图并回写")
+    void generate_WritesSmallerWidthsOnly() throws IOException {
+        Path original = writeImage("abc.jpg", 1000, 500);
+
+        generator.generate(1L, original);
+
+        BufferedImage w320 = ImageIO.read(ImageVariants.variantPath(original, 320, "jpg").toFile());
+        assertThat(w320.getWidth()).isEqualTo(320);
+        assertThat(w320.getHeight()).isEqualTo(160);
+        assertThat(ImageVariants.variantPath(original, 640, "jpg")).exists();
+        assertThat(ImageVariants.variantPath(original, 1280, "jpg")).doesNotExist();
+        verify(mediaBlobRepository).updateVariants(1L, "320,640");
+    }
+
+    @Test
+    @DisplayName("图片头声明的尺寸超过像素上限时不解码")
+    void generate_SkipsDecompressionBomb() throws IOException {
+        Path original = tempDir.resolve("bomb.png");
+        ImageIO.write(new BufferedImage(2, 2, BufferedImage.TYPE_INT_RGB), "png", original.toFile());
+        // 把 IHDR 中的尺寸改为 50000x50000 并重算校验和，像素数据保持原样
+        byte[] bytes = Files.readAllBytes(original);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        buffer.putInt(16, 50_000).putInt(20, 50_000);
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 12, 17);
+        buffer.putInt(29, (int) crc.getValue());
+        Files.write(original, bytes);
+
+        generator.generate(1L, original);
+
+        assertThat(generator.getOversizedCount()).isEqualTo(1);
+        assertThat(generator.getFailedCount()).isZero();
+        assertThat(ImageVariants.variantPath(original, 320, "png")).doesNotExist();
+        verifyNoInteractions(mediaBlobRepository);
+    }
+
+    @Test
+    @DisplayName("按请求宽度选择最小的可用衍生图，缺失时回退原图")
+    void resolve_PicksSmallestSufficientVariant() throws IOException {
+        Path original = writeImage("abc.jpg", 1000, 500);
+        generator.generate(1L, original);
+
+        assertThat(imageVariants.resolve(original, 300, false)).isEqualTo(ImageVariants.variantPath(original, 320, "jpg"));
+        assertThat(imageVariants.resolve(original, 500, false)).isEqualTo(ImageVariants.variantPath(original, 640, "jpg"));
+        assertThat(imageVariants.resolve(original, 1000, false)).isEqualTo(original);
+        assertThat(imageVariants.resolve(original, null, true)).isEqualTo(original);
+    }
+
+    @Test
+    @DisplayName("模板地址仅为上传目录下的位图附加宽度参数")
+    void url_OnlyAppendsWidthToUploadedImages() {
+        assertThat(imageVariants.url("/uploads/t/blobs/ab/abc.png", 640)).isEqualTo("/uploads/t/blobs/ab/abc.png?w=640");
+        assertThat(imageVariants.url("/uploads/t/blobs/ab/abc.gif", 640)).isEqualTo("/uploads/t/blobs/ab/abc.gif");
+        assertThat(imageVariants.url("https://cdn.example.com/a.jpg", 640)).isEqualTo("https://cdn.example.com/a.jpg");
+        assertThat(imageVariants.url(null, 640)).isNull();
+    }
+
+    private Path writeImage(String name, int width, int height) throws IOException {
+        Path path = tempDir.resolve(name);
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "jpg", path.toFile());
+        return path;
+    }
+}
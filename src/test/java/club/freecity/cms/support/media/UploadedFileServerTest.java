@@ -0,0 +1,158 @@
+package club.freecity.cms.support.media;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UploadedFileServerTest {
+
+    private static final String HASH = "a".repeat(64);
+    private static final String FILE = "blobs/aa/" + HASH + ".txt";
+
+    @TempDir
+    Path tempDir;
+
+    private UploadedFileServer server;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Path file = tempDir.resolve("t1").resolve(FILE);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, "0123456789", StandardCharsets.US_ASCII);
+        Files.createDirectories(tempDir.resolve("t2"));
+        Files.writeString(tempDir.resolve("t2/secret.txt"), "secret");
+        server = new UploadedFileServer(new ImageVariants(new int[]{320}, "uploads"), tempDir.toString(),
+                "public, max-age=86400", 49152, 60);
+    }
+
+    @Test
+    @DisplayName("完整输出并以内容哈希作为强校验值")
+    void serve_FullFile() throws IOException {
+        MockHttpServletResponse response = serve(new MockHttpServletRequest("GET", "/"), FILE);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsString()).isEqualTo("0123456789");
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo("\"" + HASH + "\"");
+        assertThat(response.getHeader(HttpHeaders.CACHE_CONTROL)).contains("immutable");
+    }
+
+    @Test
+    @DisplayName("单段 Range 返回 206 与 Content-Range")
+    void serve_SingleRange() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader(HttpHeaders.RANGE, "bytes=2-5");
+
+        MockHttpServletResponse response = serve(request, FILE);
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 2-5/10");
+        assertThat(response.getContentAsString()).isEqualTo("2345");
+    }
+
+    @Test
+    @DisplayName("多段 Range 返回 multipart/byteranges")
+    void serve_MultiRange() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader(HttpHeaders.RANGE, "bytes=0-1,-2");
+
+        MockHttpServletResponse response = serve(request, FILE);
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getContentType()).startsWith("multipart/byteranges");
+        assertThat(response.getContentAsString())
+                .contains("Content-Range: bytes 0-1/10\r\n\r\n01")
+                .contains("Content-Range: bytes 8-9/10\r\n\r\n89");
+    }
+
+    @Test
+    @DisplayName("重叠的多段 Range 合并输出，总长超过文件长度时输出完整文件")
+    void serve_OverlappingRanges() throws IOException {
+        MockHttpServletRequest overlapping = new MockHttpServletRequest("GET", "/");
+        overlapping.addHeader(HttpHeaders.RANGE, "bytes=4-6,0-2,2-3");
+        MockHttpServletResponse merged = serve(overlapping, FILE);
+        assertThat(merged.getStatus()).isEqualTo(206);
+        assertThat(merged.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 0-6/10");
+        assertThat(merged.getContentAsString()).isEqualTo("0123456");
+
+        MockHttpServletRequest amplified = new MockHttpServletRequest("GET", "/");
+        amplified.addHeader(HttpHeaders.RANGE, "bytes=0-9,0-9,0-9");
+        MockHttpServletResponse response = serve(amplified, FILE);
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isNull();
+        assertThat(response.getContentAsString()).isEqualTo("0123456789");
+    }
+
+    @Test
+    @DisplayName("If-Range 不匹配时忽略 Range，超出长度的 Range 返回 416")
+    void serve_IfRangeAndUnsatisfiableRange() throws IOException {
+        MockHttpServletRequest stale = new MockHttpServletRequest("GET", "/");
+        stale.addHeader(HttpHeaders.RANGE, "bytes=2-5");
+        stale.addHeader(HttpHeaders.IF_RANGE, "\"old\"");
+        assertThat(serve(stale, FILE).getStatus()).isEqualTo(200);
+
+        MockHttpServletRequest unsatisfiable = new MockHttpServletRequest("GET", "/");
+        unsatisfiable.addHeader(HttpHeaders.RANGE, "bytes=20-30");
+        MockHttpServletResponse response = serve(unsatisfiable, FILE);
+        assertThat(response.getStatus()).isEqualTo(416);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes */10");
+    }
+
+    @Test
+    @DisplayName("If-None-Match 命中返回 304")
+    void serve_NotModified() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"" + HASH + "\"");
+
+        MockHttpServletResponse response = serve(request, FILE);
+
+        assertThat(response.getStatus()).isEqualTo(304);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("衍生图未生成时回退原图不标记 immutable，生成后立即输出衍生图")
+    void serve_VariantFallbackIsNotImmutable() throws IOException {
+        Path original = tempDir.resolve("t1/blobs/bb/" + HASH + ".png");
+        Files.createDirectories(original.getParent());
+        Files.writeString(original, "original", StandardCharsets.US_ASCII);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.setParameter("w", "320");
+
+        MockHttpServletResponse fallback = serve(request, "blobs/bb/" + HASH + ".png");
+
+        assertThat(fallback.getStatus()).isEqualTo(200);
+        assertThat(fallback.getContentAsString()).isEqualTo("original");
+        assertThat(fallback.getHeader(HttpHeaders.CACHE_CONTROL)).isEqualTo("public, max-age=86400");
+
+        Files.writeString(ImageVariants.variantPath(original, 320, "png"), "variant", StandardCharsets.US_ASCII);
+        MockHttpServletResponse variant = serve(request, "blobs/bb/" + HASH + ".png");
+
+        assertThat(variant.getContentAsString()).isEqualTo("variant");
+        assertThat(variant.getHeader(HttpHeaders.CACHE_CONTROL)).contains("immutable");
+    }
+
+    @Test
+    @DisplayName("不能越过租户目录访问其他租户文件")
+    void serve_PathTraversalIsRejected() throws IOException {
+        MockHttpServletResponse response = serve(new MockHttpServletRequest("GET", "/"), "../t2/secret.txt");
+
+        assertThat(response.getStatus()).isEqualTo(404);
+    }
+
+    private MockHttpServletResponse serve(MockHttpServletRequest request, String path) throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        server.serve(request, response, "t1", path);
+        return response;
+    }
+}
@@ -0,0 +1,76 @@
+package club.freecity.cms.support.pagecache;
+
+import club.freecity.cms.event.ContentChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PageCacheTest {
+
+    private PageCache pageCache;
+
+    @BeforeEach
+    void setUp() {
+        pageCache = new PageCache(1, 300);
+    }
+
+    @Test
+    @DisplayName("评论变更只失效依赖该文章的页面")
+    void onContentChanged_CommentEvictsArticlePagesOnly() {
+        put(1L, "1|/article/42", PageCacheTags.article(42L), PageCacheTags.SIDEBAR);
+        put(1L, "1|/", PageCacheTags.ARTICLE_LIST, PageCacheTags.article(42L), PageCacheTags.SIDEBAR);
+        put(1L, "1|/article/43", PageCacheTags.article(43L), PageCacheTags.SIDEBAR);
+
+        pageCache.onContentChanged(ContentChangedEvent.commentsChanged(42L, 1L));
+
+        assertThat(pageCache.get("1|/article/42")).isNull();
+        assertThat(pageCache.get("1|/")).isNull();
+        assertThat(pageCache.get("1|/article/43")).isNotNull();
+    }
+
+    @Test
+    @DisplayName("文章变更失效侧边栏，不影响其他租户")
+    void onContentChanged_ArticleEvictsTenantOnly() {
+        put(1L, "1|/article/43", PageCacheTags.article(43L), PageCacheTags.SIDEBAR);
+        put(2L, "2|/article/43", PageCacheTags.article(43L), PageCacheTags.SIDEBAR);
+
+        pageCache.onContentChanged(ContentChangedEvent.updated(ContentChangedEvent.ContentType.ARTICLE, 42L, 1L));
+
+        assertThat(pageCache.get("1|/article/43")).isNull();
+        assertThat(pageCache.get("2|/article/43")).isNotNull();
+    }
+
+    @Test
+    @DisplayName("渲染期间发生失效时不写入缓存")
+    void put_StaleGenerationIsDiscarded() {
+        long generation = pageCache.generation(1L);
+        pageCache.evict(1L, PageCacheTags.article(42L));
+
+        pageCache.put(1L, "1|/article/42", page(PageCacheTags.article(42L)), generation);
+
+        assertThat(pageCache.get("1|/article/42")).isNull();
+    }
+
+    @Test
+    @DisplayName("重复写入同一页面后仍可按标签失效")
+    void put_ReplacedEntryStaysIndexed() {
+        put(1L, "1|/tag/5", PageCacheTags.tag(5L));
+        put(1L, "1|/tag/5", PageCacheTags.tag(5L));
+
+        pageCache.onContentChanged(ContentChangedEvent.updated(ContentChangedEvent.ContentType.TAG, 5L, 1L));
+
+        assertThat(pageCache.get("1|/tag/5")).isNull();
+    }
+
+    private void put(Long tenantId, String key, String... tags) {
+        pageCache.put(tenantId, key, page(tags), pageCache.generation(tenantId));
+    }
+
+    private CachedPage page(String... tags) {
+        return new CachedPage(new byte[]{1, 2, 3}, "text/html;charset=UTF-8", "no-cache", Set.of(tags), null);
+    }
+}
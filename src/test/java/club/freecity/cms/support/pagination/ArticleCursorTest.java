@@ -0,0 +1,38 @@
+package club.freecity.cms.support.pagination;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.KeysetScrollPosition;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ArticleCursorTest {
+
+    @Test
+    @DisplayName("游标编码后可还原 (createTime, id)")
+    void encodeDecode_RoundTrip() {
+        LocalDateTime createTime = LocalDateTime.of(2024, 5, 1, 12, 30, 15);
+        String token = ArticleCursor.encode(createTime, 42L);
+
+        KeysetScrollPosition position = ArticleCursor.decode(token);
+
+        assertThat(token).doesNotContain("|", "=", "+", "/");
+        assertThat(position.isInitial()).isFalse();
+        assertThat(position.getKeys())
+                .containsEntry(ArticleCursor.CREATE_TIME, createTime)
+                .containsEntry(ArticleCursor.ID, 42L);
+    }
+
+    @Test
+    @DisplayName("非法游标退化为第一页")
+    void decode_InvalidToken_StartsFromFirstPage() {
+        assertThat(ArticleCursor.decode(null).isInitial()).isTrue();
+        assertThat(ArticleCursor.decode("not-a-cursor!").isInitial()).isTrue();
+        String tampered = Base64.getUrlEncoder().encodeToString("2024-13-01T00:00|1".getBytes(StandardCharsets.UTF_8));
+        assertThat(ArticleCursor.decode(tampered).isInitial()).isTrue();
+    }
+}
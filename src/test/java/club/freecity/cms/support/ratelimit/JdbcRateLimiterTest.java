@@ -0,0 +1,105 @@
+package club.freecity.cms.support.ratelimit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JdbcRateLimiterTest {
+
+    private static final String KEY = "rate_limit:CommentApiController.submitComment:10.0.0.1";
+
+    private final AtomicLong now = new AtomicLong(1_700_000_000_000L);
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:rate_limit;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE rate_limit_bucket (bucket_key VARCHAR(255) PRIMARY KEY, tat BIGINT NOT NULL)");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP TABLE rate_limit_bucket");
+    }
+
+    @Test
+    @DisplayName("多个实例共享同一份配额")
+    void isAllowed_SharesBudgetAcrossNodes() {
+        JdbcRateLimiter nodeA = newLimiter();
+        JdbcRateLimiter nodeB = newLimiter();
+
+        int allowed = 0;
+        for (int i = 0; i < 10; i++) {
+            if ((i % 2 == 0 ? nodeA : nodeB).isAllowed(KEY, 5, 60)) {
+                allowed++;
+            }
+        }
+
+        assertThat(allowed).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("本地预取一批令牌，用完前不访问数据库")
+    void isAllowed_LeasesTokensInBatches() {
+        JdbcRateLimiter limiter = newLimiter();
+
+        assertThat(limiter.isAllowed(KEY, 100, 100)).isTrue();
+        long tat = tat();
+        // 100 秒 100 次：发放间隔 1 秒，一次预取 10 个
+        assertThat(tat).isEqualTo(TimeUnit.MILLISECONDS.toMicros(now.get()) + TimeUnit.SECONDS.toMicros(10));
+
+        for (int i = 0; i < 9; i++) {
+            assertThat(limiter.isAllowed(KEY, 100, 100)).isTrue();
+        }
+        assertThat(tat()).isEqualTo(tat);
+
+        assertThat(limiter.isAllowed(KEY, 100, 100)).isTrue();
+        assertThat(tat()).isEqualTo(tat + TimeUnit.SECONDS.toMicros(10));
+    }
+
+    @Test
+    @DisplayName("配额耗尽后本地拒绝，经过一个发放间隔后恢复")
+    void isAllowed_RecoversAfterEmissionInterval() {
+        JdbcRateLimiter limiter = newLimiter();
+
+        assertThat(limiter.isAllowed(KEY, 2, 10)).isTrue();
+        assertThat(limiter.isAllowed(KEY, 2, 10)).isTrue();
+        assertThat(limiter.isAllowed(KEY, 2, 10)).isFalse();
+
+        // 拒绝期间不再查询数据库
+        jdbcTemplate.update("DELETE FROM rate_limit_bucket");
+        now.addAndGet(4_000);
+        assertThat(limiter.isAllowed(KEY, 2, 10)).isFalse();
+
+        now.addAndGet(1_001);
+        assertThat(limiter.isAllowed(KEY, 2, 10)).isTrue();
+    }
+
+    @Test
+    @DisplayName("配额不足一批时只发放剩余部分")
+    void acquire_GrantsRemainingTokens() {
+        JdbcRateLimiter limiter = newLimiter();
+
+        assertThat(limiter.acquire(KEY, 30, 60, 25, now.get()).granted()).isEqualTo(25);
+        assertThat(limiter.acquire(KEY, 30, 60, 10, now.get()).granted()).isEqualTo(5);
+        assertThat(limiter.acquire(KEY, 30, 60, 10, now.get()).granted()).isZero();
+    }
+
+    private JdbcRateLimiter newLimiter() {
+        return new JdbcRateLimiter(jdbcTemplate, 10, 1000, now::get);
+    }
+
+    private long tat() {
+        return jdbcTemplate.queryForObject("SELECT tat FROM rate_limit_bucket WHERE bucket_key = ?", Long.class, KEY);
+    }
+}
@@ -0,0 +1,65 @@
+package club.freecity.cms.support.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ArticleSearchIndexTest {
+
+    private ArticleSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ArticleSearchIndex();
+        index.put(1L, new SearchDocument(1L, "Spring Boot 入门", "快速搭建项目", "介绍全文检索的基本原理"));
+        index.put(1L, new SearchDocument(2L, "Java 并发", "线程池与锁", "全文检索也需要考虑并发"));
+        index.put(2L, new SearchDocument(3L, "全文检索实践", "其他租户的文章", "内容"));
+    }
+
+    @Test
+    @DisplayName("中文二元分词检索正文，并按租户隔离")
+    void search_CjkBigramWithinTenant() {
+        SearchResult result = index.search(1L, "全文检索 ", 0, 10);
+
+        assertThat(result.getTotal()).isEqualTo(2);
+        assertThat(result.getHits()).extracting(SearchHit::getArticleId).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(result.getHits().get(0).getHighlight()).contains("<mark>全文检索</mark>");
+    }
+
+    @Test
+    @DisplayName("最后一个词按前缀匹配，多个词之间为与关系")
+    void search_PrefixAndConjunction() {
+        assertThat(index.search(1L, "spr", 0, 10).getHits())
+                .extracting(SearchHit::getArticleId).containsExactly(1L);
+        assertThat(index.search(1L, "java 线程", 0, 10).getHits())
+                .extracting(SearchHit::getArticleId).containsExactly(2L);
+        assertThat(index.search(1L, "spring 线程", 0, 10).getTotal()).isZero();
+    }
+
+    @Test
+    @DisplayName("删除文章后不再命中")
+    void remove_ExcludesArticle() {
+        index.remove(1L, 1L);
+
+        assertThat(index.search(1L, "spring", 0, 10).getTotal()).isZero();
+        assertThat(index.size(1L)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("重建期间的增量变更会被记录以便回放")
+    void rebuild_TracksConcurrentChanges() {
+        ArticleSearchIndex.RebuildSession session = index.beginRebuild();
+        session.add(1L, new SearchDocument(1L, "旧标题", null, null));
+        index.put(1L, new SearchDocument(4L, "新文章", null, null));
+
+        Set<Long> changed = index.completeRebuild(session);
+
+        assertThat(changed).containsExactly(4L);
+        assertThat(index.size(1L)).isEqualTo(1);
+        assertThat(index.size(2L)).isZero();
+    }
+}
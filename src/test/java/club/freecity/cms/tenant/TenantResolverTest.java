@@ -0,0 +1,94 @@
+package club.freecity.cms.tenant;
+
+import club.freecity.cms.entity.Package;
+import club.freecity.cms.entity.Tenant;
+import club.freecity.cms.repository.TenantRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TenantResolverTest {
+
+    @Mock
+    private TenantRepository tenantRepository;
+
+    private TenantResolver tenantResolver;
+
+    @BeforeEach
+    void setUp() {
+        tenantResolver = new TenantResolver(tenantRepository, "freecity.club", "admin", 300, 30);
+        when(tenantRepository.findAllWithPackage()).thenReturn(List.of(
+                tenant(1L, "admin", null, false),
+                tenant(2L, "alice", "blog.alice.com", true),
+                tenant(3L, "bob", "www.bobsite.dev", false)));
+    }
+
+    @Test
+    @DisplayName("平台域名、子域名与 IP 从快照解析，不查询数据库")
+    void resolve_FromSnapshot() {
+        assertThat(tenantResolver.resolve("freecity.club").id()).isEqualTo(1L);
+        assertThat(tenantResolver.resolve("www.freecity.club").id()).isEqualTo(1L);
+        assertThat(tenantResolver.resolve("Alice.FreeCity.club").id()).isEqualTo(2L);
+        assertThat(tenantResolver.resolve("127.0.0.1").id()).isEqualTo(1L);
+        assertThat(tenantResolver.resolve("localhost").id()).isEqualTo(1L);
+
+        verify(tenantRepository, times(1)).findAllWithPackage();
+        verify(tenantRepository, never()).findByCode("admin");
+    }
+
+    @Test
+    @DisplayName("自定义域名仅在套餐开通时生效")
+    void resolve_CustomDomainRequiresPackageFlag() {
+        assertThat(tenantResolver.resolve("blog.alice.com").id()).isEqualTo(2L);
+
+        when(tenantRepository.findByCode("www")).thenReturn(Optional.empty());
+        assertThat(tenantResolver.resolve("www.bobsite.dev")).isNull();
+    }
+
+    @Test
+    @DisplayName("未知子域名只查询一次数据库，之后走负缓存")
+    void resolve_UnknownHostIsNegativelyCached() {
+        when(tenantRepository.findByCode("probe")).thenReturn(Optional.empty());
+
+        assertThat(tenantResolver.resolve("probe.freecity.club")).isNull();
+        assertThat(tenantResolver.resolve("probe.freecity.club")).isNull();
+
+        verify(tenantRepository, times(1)).findByCode("probe");
+    }
+
+    @Test
+    @DisplayName("IP 字面量识别")
+    void isIpAddress() {
+        assertThat(TenantResolver.isIpAddress("192.168.1.10")).isTrue();
+        assertThat(TenantResolver.isIpAddress("[::1]")).isTrue();
+        assertThat(TenantResolver.isIpAddress("256.1.1.1")).isFalse();
+        assertThat(TenantResolver.isIpAddress("1.2.3")).isFalse();
+        assertThat(TenantResolver.isIpAddress("1.2.3.4.")).isFalse();
+        assertThat(TenantResolver.isIpAddress("1.2.3.a")).isFalse();
+    }
+
+    private Tenant tenant(Long id, String code, String customDomain, boolean customDomainEnabled) {
+        Package pkg = new Package();
+        pkg.setCustomDomainEnabled(customDomainEnabled);
+        Tenant tenant = new Tenant();
+        tenant.setId(id);
+        tenant.setCode(code);
+        tenant.setStatus("active");
+        tenant.setCustomDomain(customDomain);
+        tenant.setPackageInfo(pkg);
+        return tenant;
+    }
+}
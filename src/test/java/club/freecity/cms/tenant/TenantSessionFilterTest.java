@@ -0,0 +1,159 @@
+package club.freecity.cms.tenant;
+
+import club.freecity.cms.common.GlobalOperation;
+import club.freecity.cms.common.TenantContext;
+import club.freecity.cms.entity.Tag;
+import club.freecity.cms.repository.TagRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.aop.AopAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.transaction.AfterTransaction;
+import org.springframework.test.context.transaction.BeforeTransaction;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+
+/**
+ * 租户过滤器按会话设置：校验过滤语义与设置次数
+ * 与旧方案（每次仓库调用前切换过滤器）的开销对比标记为 benchmark，默认测试任务不执行，通过 {@code gradle benchmark} 运行
+ */
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:tenantfilter;MODE=MySQL;NON_KEYWORDS=TOP,VALUE")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(AopAutoConfiguration.class)
+@Import({TenantFilterPostProcessor.class, TenantSessionFilter.class, TenantAspect.class,
+        TenantSessionFilterTest.GlobalReaderConfig.class})
+class TenantSessionFilterTest {
+
+    private static final Logger log = LoggerFactory.getLogger(TenantSessionFilterTest.class);
+
+    private static final int WARMUP = 2_000;
+    private static final int ITERATIONS = 20_000;
+
+    @Autowired
+    private TagRepository tagRepository;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private GlobalTagReader globalTagReader;
+
+    @BeforeTransaction
+    void setTenant() {
+        TenantContext.setCurrentTenant(1L, "demo");
+    }
+
+    @AfterTransaction
+    void clearTenant() {
+        TenantContext.clear();
+    }
+
+    @BeforeEach
+    void setUp() {
+        entityManager.persist(newTag("Java", 1L));
+        entityManager.persist(newTag("Spring", 1L));
+        entityManager.persist(newTag("Go", 2L));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("事务会话创建时即启用租户过滤器，@GlobalOperation 内临时关闭并在退出后恢复")
+    void filterIsSetPerSession() {
+        assertThat(tagRepository.findAll()).extracting(Tag::getName).containsExactlyInAnyOrder("Java", "Spring");
+        assertThat(globalTagReader.countAll()).isEqualTo(3);
+        assertThat(tagRepository.findAll()).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("同一会话内的多次仓库调用不再重复设置过滤器，仅在进出 @GlobalOperation 时切换")
+    void filterIsEnabledOncePerSession() {
+        try (MockedStatic<TenantSessionFilter> filters = Mockito.mockStatic(TenantSessionFilter.class, Mockito.CALLS_REAL_METHODS)) {
+            tagRepository.findAll();
+            tagRepository.findAll();
+            tagRepository.findByNameIn(Set.of("Java"));
+
+            filters.verify(() -> TenantSessionFilter.apply(any()), never());
+            assertThat(entityManager.unwrap(Session.class).getEnabledFilter(TenantSessionFilter.FILTER_NAME)).isNotNull();
+
+            globalTagReader.countAll();
+
+            filters.verify(() -> TenantSessionFilter.apply(any()), times(2));
+            assertThat(entityManager.unwrap(Session.class).getEnabledFilter(TenantSessionFilter.FILTER_NAME)).isNotNull();
+        }
+    }
+
+    @Test
+    @org.junit.jupiter.api.Tag("benchmark")
+    @DisplayName("微基准：每次查询的租户过滤器切换开销")
+    void benchmarkPerQueryOverhead() {
+        for (int i = 0; i < WARMUP; i++) {
+            tagRepository.findAll();
+            TenantSessionFilter.apply(entityManager);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            tagRepository.findAll();
+        }
+        long perSession = (System.nanoTime() - start) / ITERATIONS;
+
+        start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            // 旧方案：每次仓库调用前解包 Session、读取安全上下文并重新启用过滤器
+            TenantSessionFilter.apply(entityManager);
+            tagRepository.findAll();
+        }
+        long perCall = (System.nanoTime() - start) / ITERATIONS;
+
+        log.info("tenant filter per session: {} ns/query, per call: {} ns/query, overhead: {} ns/query",
+                perSession, perCall, perCall - perSession);
+        assertThat(tagRepository.findAll()).hasSize(2);
+    }
+
+    private Tag newTag(String name, Long tenantId) {
+        Tag tag = new Tag();
+        tag.setName(name);
+        tag.setTenantId(tenantId);
+        return tag;
+    }
+
+    @TestConfiguration
+    static class GlobalReaderConfig {
+
+        @Bean
+        GlobalTagReader globalTagReader(TagRepository tagRepository) {
+            return new GlobalTagReader(tagRepository);
+        }
+    }
+
+    static class GlobalTagReader {
+
+        private final TagRepository tagRepository;
+
+        GlobalTagReader(TagRepository tagRepository) {
+            this.tagRepository = tagRepository;
+        }
+
+        @GlobalOperation
+        public int countAll() {
+            return tagRepository.findAll().size();
+        }
+    }
+}
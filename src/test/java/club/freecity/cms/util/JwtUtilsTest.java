@@ -0,0 +1,102 @@
+package club.freecity.cms.util;
+
+import club.freecity.cms.common.SecurityConstants;
+import club.freecity.cms.common.TenantContext;
+import club.freecity.cms.security.JwtAuthenticationFilter;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+class JwtUtilsTest {
+
+    private static final String SECRET = "ZmMtY21zLWp3dC1wZXJmb3JtYW5jZS10ZXN0LXNlY3JldC1rZXktMjU2LWJpdHM=";
+
+    private JwtUtils jwtUtils;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "secret", SECRET);
+        jwtUtils.init();
+        token = jwtUtils.generateAccessToken(1L, "admin", "TENANT_ADMIN", 2L, "demo", LocalDateTime.now());
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        TenantContext.clear();
+    }
+
+    @Test
+    @DisplayName("一次解析即可获得全部声明")
+    void parseToken_ReturnsAllClaims() {
+        JwtToken jwtToken = jwtUtils.parseToken(token);
+
+        assertThat(jwtToken.getUsername()).isEqualTo("admin");
+        assertThat(jwtToken.getUserId()).isEqualTo(1L);
+        assertThat(jwtToken.getTenantId()).isEqualTo(2L);
+        assertThat(jwtToken.getTenantCode()).isEqualTo("demo");
+        assertThat(jwtToken.isAccessToken()).isTrue();
+        assertThat(jwtToken.getPasswordUpdateTime()).isNotNull();
+        assertThat(jwtToken.isExpired()).isFalse();
+    }
+
+    @Test
+    @DisplayName("同一 Token 在有效期内只验签一次，后续直接复用解析结果")
+    void parseToken_VerifiesOncePerToken() {
+        JwtToken first = jwtUtils.parseToken(token);
+
+        assertThat(jwtUtils.parseToken(token)).isSameAs(first);
+        assertThat(jwtUtils.extractUsername(token)).isEqualTo("admin");
+        assertThat(jwtUtils.parseToken(token)).isSameAs(first);
+    }
+
+    @Test
+    @DisplayName("签名不匹配的 Token 验签失败且不被缓存")
+    void parseToken_RejectsForeignSignature() {
+        String forged = Jwts.builder()
+                .setSubject("admin")
+                .signWith(Keys.secretKeyFor(SignatureAlgorithm.HS256))
+                .compact();
+
+        assertThatThrownBy(() -> jwtUtils.parseToken(forged)).isInstanceOf(JwtException.class);
+        assertThatThrownBy(() -> jwtUtils.parseToken(forged)).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    @DisplayName("认证过滤器每个请求只解析一次 Token")
+    void filter_ParsesTokenOncePerRequest() throws Exception {
+        JwtUtils spiedJwtUtils = spy(jwtUtils);
+        UserDetailsService userDetailsService = mock(UserDetailsService.class);
+        when(userDetailsService.loadUserByUsername("admin"))
+                .thenReturn(User.withUsername("admin").password("secret").roles("TENANT_ADMIN").build());
+        JwtAuthenticationFilter filter = new JwtAuthenticationFilter(spiedJwtUtils, userDetailsService);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/admin/articles");
+        request.addHeader(SecurityConstants.HEADER_AUTHORIZATION, SecurityConstants.TOKEN_PREFIX + token);
+
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNotNull();
+        verify(spiedJwtUtils, times(1)).parseToken(token);
+        verify(spiedJwtUtils, never()).extractClaim(anyString(), any());
+    }
+}